@@ -2,7 +2,9 @@ package top.ooyyh.edusphere;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 @SpringBootApplication
+@EnableScheduling
 public class EduSphereApplication {
 
     public static void main(String[] args) {
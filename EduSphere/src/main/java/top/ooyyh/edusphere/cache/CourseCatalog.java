@@ -0,0 +1,241 @@
+package top.ooyyh.edusphere.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import top.ooyyh.edusphere.entity.Category;
+import top.ooyyh.edusphere.entity.Course;
+import top.ooyyh.edusphere.event.CourseChangedEvent;
+import top.ooyyh.edusphere.mapper.CategoryMapper;
+import top.ooyyh.edusphere.mapper.CourseMapper;
+import top.ooyyh.edusphere.search.CourseFacetIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 已发布课程目录（内存只读模型）
+ *
+ * 保存全部已发布课程（含讲师和分类）的不可变快照，并预先按热度、上新时间、分类排好序，
+ * 热门/最新/分类课程和首页数据直接从快照读取，不再查库。
+ * 写入采用写时复制：课程变更事件到达时在旧快照基础上替换单门课程、重建索引，再整体替换引用，
+ * 读请求始终看到完整一致的快照。学员数、评分等由其他流程更新的字段依靠定时全量刷新同步。
+ *
+ * 快照中的对象由所有请求共享，调用方只能读取，不能修改。
+ */
+@Component
+public class CourseCatalog {
+
+    private static final String PUBLISHED = "published";
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    // 首次访问时加载，避免启动阶段访问数据库
+    private volatile Snapshot snapshot;
+
+    private final Object writeLock = new Object();
+
+    /**
+     * 热门课程（按学员数降序）
+     */
+    public List<Course> getHotCourses(int limit) {
+        return head(snapshot().hot, limit);
+    }
+
+    /**
+     * 最新课程（按创建时间降序）
+     */
+    public List<Course> getNewCourses(int limit) {
+        return head(snapshot().newest, limit);
+    }
+
+    /**
+     * 分类下的课程（按创建时间降序）
+     */
+    public List<Course> getCoursesByCategory(Integer categoryId, int limit) {
+        List<Course> courses = snapshot().byCategory.get(categoryId);
+        return courses != null ? head(courses, limit) : new ArrayList<>();
+    }
+
+    /**
+     * 已发布课程，未发布或不存在时返回 null
+     */
+    public Course getCourse(Integer courseId) {
+        return snapshot().byId.get(courseId);
+    }
+
+    /**
+     * 全部已发布课程（按创建时间降序）
+     */
+    public List<Course> getPublishedCourses() {
+        return snapshot().newestAll;
+    }
+
+    /**
+     * 全部分类
+     */
+    public List<Category> getCategories() {
+        return snapshot().categories;
+    }
+
+    /**
+     * 已发布课程的筛选位图索引
+     */
+    public CourseFacetIndex getFacetIndex() {
+        return snapshot().facets;
+    }
+
+    /**
+     * 课程变更后增量更新快照（有事务时在提交之后执行）
+     */
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            Map<Integer, Course> courses = new HashMap<>(current.byId);
+            Course course = event.getType() == CourseChangedEvent.Type.DELETED
+                    ? null : courseMapper.getCourseById(event.getCourseId());
+            if (course != null && PUBLISHED.equals(course.getStatus())) {
+                courses.put(course.getId(), course);
+            } else {
+                courses.remove(event.getCourseId());
+            }
+            snapshot = new Snapshot(courses.values(), current.categories);
+        }
+    }
+
+    /**
+     * 定时全量刷新，同步学员数、评分、讲师信息等不经过课程变更事件的字段
+     */
+    @Scheduled(initialDelayString = "${edusphere.cache.course-catalog.refresh-millis:300000}",
+            fixedDelayString = "${edusphere.cache.course-catalog.refresh-millis:300000}")
+    public void refresh() {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            System.out.println("刷新课程目录失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 目录统计
+     */
+    public Map<String, Object> stats() {
+        Snapshot current = snapshot;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("loaded", current != null);
+        result.put("publishedCourses", current != null ? current.byId.size() : 0);
+        result.put("loadedAt", current != null ? current.loadedAt : null);
+        return result;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (writeLock) {
+                current = snapshot;
+                if (current == null) {
+                    current = reload();
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot reload() {
+        synchronized (writeLock) {
+            List<Category> categories = categoryMapper.getAllCategories();
+            Snapshot loaded = new Snapshot(courseMapper.getPublishedCourses(),
+                    Collections.unmodifiableList(new ArrayList<>(categories)));
+            snapshot = loaded;
+            return loaded;
+        }
+    }
+
+    private static List<Course> head(List<Course> courses, int limit) {
+        return new ArrayList<>(courses.subList(0, Math.max(0, Math.min(limit, courses.size()))));
+    }
+
+    /**
+     * 不可变快照，构建完成后不再修改
+     */
+    private static final class Snapshot {
+        final Map<Integer, Course> byId;
+        final List<Course> hot;
+        final List<Course> newest;
+        final List<Course> newestAll;
+        final Map<Integer, List<Course>> byCategory;
+        final List<Category> categories;
+        final CourseFacetIndex facets;
+        final long loadedAt = System.currentTimeMillis();
+
+        Snapshot(Collection<Course> courses, List<Category> categories) {
+            this.categories = categories;
+
+            Map<Integer, Category> categoryById = new HashMap<>();
+            for (Category category : categories) {
+                categoryById.put(category.getId(), category);
+            }
+
+            Map<Integer, Course> ids = new HashMap<>();
+            for (Course course : courses) {
+                course.setCategory(categoryById.get(course.getCategoryId()));
+                ids.put(course.getId(), course);
+            }
+            this.byId = Collections.unmodifiableMap(ids);
+
+            Comparator<Course> byCreatedDesc = Comparator.comparing(Course::getCreatedAt,
+                    Comparator.nullsLast(Comparator.reverseOrder()));
+            Comparator<Course> byStudentsDesc = Comparator.comparing(Course::getStudentCount,
+                    Comparator.nullsLast(Comparator.reverseOrder()));
+
+            List<Course> all = new ArrayList<>(ids.values());
+            all.sort(byCreatedDesc);
+            this.newestAll = Collections.unmodifiableList(all);
+
+            List<Course> hotCourses = new ArrayList<>();
+            List<Course> newCourses = new ArrayList<>();
+            Map<Integer, List<Course>> categoryCourses = new HashMap<>();
+            for (Course course : all) {
+                if (Boolean.TRUE.equals(course.getIsHot())) {
+                    hotCourses.add(course);
+                }
+                if (Boolean.TRUE.equals(course.getIsNew())) {
+                    newCourses.add(course);
+                }
+                if (course.getCategoryId() != null) {
+                    categoryCourses.computeIfAbsent(course.getCategoryId(), k -> new ArrayList<>()).add(course);
+                }
+            }
+            hotCourses.sort(byStudentsDesc);
+            this.hot = Collections.unmodifiableList(hotCourses);
+            this.newest = Collections.unmodifiableList(newCourses);
+
+            Map<Integer, List<Course>> frozen = new HashMap<>();
+            for (Map.Entry<Integer, List<Course>> entry : categoryCourses.entrySet()) {
+                frozen.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+            }
+            this.byCategory = Collections.unmodifiableMap(frozen);
+            this.facets = new CourseFacetIndex(all);
+        }
+    }
+}
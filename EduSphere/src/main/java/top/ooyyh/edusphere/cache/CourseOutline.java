@@ -0,0 +1,49 @@
+package top.ooyyh.edusphere.cache;
+
+import top.ooyyh.edusphere.entity.CourseLesson;
+import top.ooyyh.edusphere.entity.CourseSection;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 课程大纲快照（章节及其课时），带版本号
+ *
+ * 由所有请求共享，调用方只能读取，不能修改章节和课时对象。
+ */
+public final class CourseOutline {
+
+    private final long version;
+    private final List<CourseSection> sections;
+    private final int lessonCount;
+
+    public CourseOutline(long version, List<CourseSection> sections) {
+        int lessons = 0;
+        for (CourseSection section : sections) {
+            // 没有课时的章节联表查询结果中 lessons 为 null
+            List<CourseLesson> sectionLessons = section.getLessons() != null
+                    ? section.getLessons() : Collections.<CourseLesson>emptyList();
+            section.setLessons(Collections.unmodifiableList(sectionLessons));
+            lessons += section.getLessons().size();
+        }
+        this.version = version;
+        this.sections = Collections.unmodifiableList(sections);
+        this.lessonCount = lessons;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<CourseSection> getSections() {
+        return sections;
+    }
+
+    public int getSectionCount() {
+        return sections.size();
+    }
+
+    public int getLessonCount() {
+        return lessonCount;
+    }
+}
@@ -0,0 +1,108 @@
+package top.ooyyh.edusphere.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import top.ooyyh.edusphere.event.CourseChangedEvent;
+import top.ooyyh.edusphere.mapper.CourseSectionMapper;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 课程大纲缓存
+ *
+ * 一次联表查询加载课程的全部章节和课时，按课程ID缓存为不可变的 CourseOutline。
+ * 每门课程有一个版本号，章节/课时新增、修改、删除后由业务代码调用 bump 加一；
+ * 缓存的大纲记录加载前读到的版本号，与当前版本不一致就重新加载，
+ * 这样即使加载期间发生了修改，旧数据也不会在修改之后继续被使用。
+ * 缓存按章节数 + 课时数计算容量，超出后淘汰最近最少使用的课程。
+ */
+@Component
+public class CourseOutlineCache {
+
+    @Autowired
+    private CourseSectionMapper courseSectionMapper;
+
+    @Value("${edusphere.cache.course-outline.maximum-weight:100000}")
+    private long maximumWeight;
+
+    private final Map<Integer, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private Cache<Integer, CourseOutline> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Integer courseId, CourseOutline outline) -> 1 + outline.getSectionCount() + outline.getLessonCount())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取课程大纲，缓存缺失或版本过期时查询数据库
+     */
+    public CourseOutline get(Integer courseId) {
+        long version = currentVersion(courseId);
+        CourseOutline outline = cache.get(courseId, id -> load(id, version));
+        // 缓存中是修改前加载的旧版本：移除后重新加载
+        while (outline.getVersion() < version) {
+            cache.asMap().remove(courseId, outline);
+            outline = cache.get(courseId, id -> load(id, version));
+        }
+        return outline;
+    }
+
+    /**
+     * 课程的章节或课时发生变化后调用，使缓存的大纲失效
+     */
+    public void bump(Integer courseId) {
+        if (courseId == null) {
+            return;
+        }
+        versions.computeIfAbsent(courseId, id -> new AtomicLong()).incrementAndGet();
+        cache.invalidate(courseId);
+    }
+
+    /**
+     * 课程删除后清理
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (event.getType() == CourseChangedEvent.Type.DELETED) {
+            bump(event.getCourseId());
+        }
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("maximumWeight", maximumWeight);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    private long currentVersion(Integer courseId) {
+        AtomicLong version = versions.get(courseId);
+        return version != null ? version.get() : 0L;
+    }
+
+    private CourseOutline load(Integer courseId, long version) {
+        return new CourseOutline(version, courseSectionMapper.getOutlineByCourseId(courseId));
+    }
+}
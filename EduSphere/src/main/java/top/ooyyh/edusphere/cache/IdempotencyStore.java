@@ -0,0 +1,122 @@
+package top.ooyyh.edusphere.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 幂等键去重表
+ *
+ * 键为 用户 + 接口 + Idempotency-Key，请求开始时登记为处理中，完成后保存响应（状态码、类型、响应体）
+ * 和产生它的请求ID，相同键的后续请求直接重放保存的响应，处理中时拒绝。
+ * 有界 Caffeine 缓存：超出容量时优先淘汰访问频率低的条目，写入后超过保留时间自动过期。
+ * 只在本节点内存中，条目被淘汰或请求落到其他节点时不能去重，
+ * 购买记录的 (user_id, course_id) 唯一键和条件扣款仍然保证不会重复购买、不会透支。
+ */
+@Component
+public class IdempotencyStore {
+
+    @Value("${edusphere.idempotency.maximum-keys:100000}")
+    private long maximumKeys;
+
+    @Value("${edusphere.idempotency.expire-after-write-minutes:1440}")
+    private long expireAfterWriteMinutes;
+
+    private Cache<String, Entry> cache;
+
+    private final LongAdder replayCount = new LongAdder();
+    private final LongAdder conflictCount = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterWrite(expireAfterWriteMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * 登记一个请求
+     *
+     * @return null 表示登记成功，当前请求应继续执行；否则返回已有的条目（处理中或已完成）
+     */
+    public Entry claim(String key) {
+        Entry existing = cache.asMap().putIfAbsent(key, Entry.PROCESSING);
+        if (existing != null) {
+            (existing.isCompleted() ? replayCount : conflictCount).increment();
+        }
+        return existing;
+    }
+
+    /**
+     * 请求完成，保存响应供重试时重放
+     */
+    public void complete(String key, int status, String contentType, byte[] body, String requestId) {
+        cache.put(key, new Entry(status, contentType, body, requestId));
+    }
+
+    /**
+     * 请求没有得到确定的结果（服务端错误或异常），删除登记，允许用相同的键重试
+     */
+    public void release(String key) {
+        cache.asMap().remove(key, Entry.PROCESSING);
+    }
+
+    /**
+     * 去重表统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("maximumKeys", maximumKeys);
+        result.put("replayCount", replayCount.sum());
+        result.put("conflictCount", conflictCount.sum());
+        return result;
+    }
+
+    /**
+     * 去重表条目，status 为 0 表示仍在处理中
+     */
+    public static final class Entry {
+        static final Entry PROCESSING = new Entry(0, null, null, null);
+
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+        private final String requestId;
+
+        Entry(int status, String contentType, byte[] body, String requestId) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+            this.requestId = requestId;
+        }
+
+        public boolean isCompleted() {
+            return status != 0;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getRequestId() {
+            return requestId;
+        }
+    }
+}
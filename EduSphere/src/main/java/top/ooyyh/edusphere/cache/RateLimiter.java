@@ -0,0 +1,79 @@
+package top.ooyyh.edusphere.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import top.ooyyh.edusphere.config.RateLimitConfig;
+import top.ooyyh.edusphere.utils.TokenBucket;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 分组令牌桶限流器
+ *
+ * 每个分组一个有界 Caffeine 缓存（按客户端标识分桶），超出容量时优先淘汰访问频率低的令牌桶。
+ * 长期不活跃的令牌桶早已补满，淘汰后重建结果相同；高频访问（可能正被限流）的令牌桶会被保留。
+ * 不设置基于时间的过期：过期判断每次访问都要读一次时钟，开销是查表本身的十倍以上。
+ * 令牌桶本身无锁，缓存命中时整个判断过程没有锁竞争。
+ */
+@Component
+public class RateLimiter {
+
+    private final Map<String, Group> groups;
+
+    public RateLimiter(RateLimitConfig config) {
+        Map<String, Group> map = new HashMap<>();
+        if (config.isEnabled()) {
+            for (Map.Entry<String, RateLimitConfig.Limit> entry : config.getGroups().entrySet()) {
+                map.put(entry.getKey(), new Group(entry.getValue(), config));
+            }
+        }
+        this.groups = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * 尝试为 clientKey 在分组 group 中取一个令牌
+     *
+     * @return 0 表示放行；大于 0 表示被限流，值为建议等待的纳秒数。未配置的分组不限流
+     */
+    public long tryAcquire(String group, String clientKey) {
+        Group limiter = groups.get(group);
+        if (limiter == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        return limiter.buckets.get(clientKey, key -> limiter.newBucket(now)).tryAcquire(now);
+    }
+
+    /**
+     * 各分组当前的令牌桶数量
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Group> entry : groups.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().buckets.estimatedSize());
+        }
+        return result;
+    }
+
+    private static final class Group {
+        final long capacity;
+        final double refillPerSecond;
+        final Cache<String, TokenBucket> buckets;
+
+        Group(RateLimitConfig.Limit limit, RateLimitConfig config) {
+            this.capacity = limit.getCapacity();
+            this.refillPerSecond = limit.getRefillPerSecond();
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(config.getMaximumKeys())
+                    .build();
+        }
+
+        TokenBucket newBucket(long now) {
+            return new TokenBucket(capacity, refillPerSecond, now);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package top.ooyyh.edusphere.cache;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.ooyyh.edusphere.utils.HierarchicalTimingWheel;
+import top.ooyyh.edusphere.utils.JwtUtils;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * token 吊销表
+ *
+ * 两类条目：
+ * 1. 单个 token（jti）：退出登录时写入，保留到该 token 原本的过期时间
+ * 2. 用户级 not-before：修改密码、禁用、删除用户时写入，签发时间早于它的 token 全部失效，
+ *    保留一个 token 有效期即可（之后旧 token 本来就过期了）
+ * 条目由分层时间轮在到期后删除，拦截器每次请求只做两次哈希查找，不查库。
+ * 吊销表只在本节点内存中，多节点部署时需要配合身份缓存的状态校验使用。
+ */
+@Component
+public class TokenRevocationStore {
+
+    // 时间轮每格 1 秒，每层 64 格：第 0 层约 1 分钟，第 1 层约 68 分钟，第 2 层约 3 天
+    private static final long TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 64;
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> userNotBefore = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel<Runnable> wheel =
+            new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, System.currentTimeMillis());
+
+    /**
+     * 吊销单个 token
+     */
+    public void revokeToken(String tokenId, Date expiration) {
+        if (tokenId == null || expiration == null) {
+            return;
+        }
+        Long expiresAt = expiration.getTime();
+        revokedTokens.put(tokenId, expiresAt);
+        schedule(expiresAt, () -> revokedTokens.remove(tokenId, expiresAt));
+    }
+
+    /**
+     * 吊销用户此前签发的全部 token
+     *
+     * token 的签发时间只精确到秒，not-before 向上取整到下一秒，
+     * 因此吊销后同一秒内重新登录拿到的 token 也会失效，需要再登录一次。
+     */
+    public void revokeUser(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Long notBefore = (now / 1000 + 1) * 1000;
+        userNotBefore.put(userId, notBefore);
+        schedule(now + JwtUtils.getExpirationMillis() + 1000, () -> userNotBefore.remove(userId, notBefore));
+    }
+
+    /**
+     * 判断 token 是否已被吊销
+     */
+    public boolean isRevoked(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId != null && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        Integer userId = JwtUtils.getUserId(claims);
+        Long notBefore = userId != null ? userNotBefore.get(userId) : null;
+        if (notBefore == null) {
+            return false;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() < notBefore;
+    }
+
+    /**
+     * 吊销表统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("revokedTokens", revokedTokens.size());
+        result.put("revokedUsers", userNotBefore.size());
+        result.put("pendingExpirations", wheel.size());
+        return result;
+    }
+
+    /**
+     * 推进时间轮，删除已过期的吊销条目
+     */
+    @Scheduled(fixedDelay = TICK_MS)
+    public void expire() {
+        wheel.advance(System.currentTimeMillis(), Runnable::run);
+    }
+
+    private void schedule(long deadline, Runnable removal) {
+        if (!wheel.add(removal, deadline)) {
+            removal.run();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package top.ooyyh.edusphere.cache;
+
+/**
+ * 用户身份快照，只保存鉴权需要的字段（ID、用户名、角色、状态）
+ */
+public final class UserIdentity {
+
+    /**
+     * 用户不存在时缓存的占位值，避免已删除用户的 token 每次都打到数据库
+     */
+    public static final UserIdentity MISSING = new UserIdentity(null, null, null, 0);
+
+    private final Integer id;
+    private final String username;
+    private final String role;
+    private final int status;
+
+    public UserIdentity(Integer id, String username, String role, int status) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.status = status;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean exists() {
+        return this != MISSING;
+    }
+
+    public boolean isEnabled() {
+        return status == 1;
+    }
+}
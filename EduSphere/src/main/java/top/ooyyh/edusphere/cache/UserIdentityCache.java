@@ -0,0 +1,88 @@
+package top.ooyyh.edusphere.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import top.ooyyh.edusphere.entity.User;
+import top.ooyyh.edusphere.mapper.UserMapper;
+
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户身份缓存
+ *
+ * 按用户ID缓存 ID/用户名/角色/状态，供 JwtInterceptor 确认用户仍然存在且未被禁用，并以缓存中的用户名和角色为准。
+ * 容量和过期时间可配置；修改资料、修改密码、删除和禁用用户时由业务代码同步失效。
+ * 失效只作用于本节点：多节点部署时其他节点的缓存要等 expire-after-write-seconds 到期才会刷新，
+ * 跨节点的失效通知不在本缓存的范围内，需要更快生效时调小过期时间。
+ */
+@Component
+public class UserIdentityCache {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Value("${edusphere.cache.user-identity.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${edusphere.cache.user-identity.expire-after-write-seconds:300}")
+    private long expireAfterWriteSeconds;
+
+    private LoadingCache<Integer, UserIdentity> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build(this::load);
+    }
+
+    /**
+     * 获取用户身份，未命中时查询数据库
+     */
+    public UserIdentity get(Integer userId) {
+        return cache.get(userId);
+    }
+
+    /**
+     * 使指定用户的缓存失效
+     */
+    public void invalidate(Integer userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    /**
+     * 缓存统计信息（命中、未命中、淘汰次数等）
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("maximumSize", maximumSize);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    private UserIdentity load(Integer userId) {
+        User user = userMapper.getUserIdentityById(userId);
+        if (user == null) {
+            return UserIdentity.MISSING;
+        }
+        return new UserIdentity(user.getId(), user.getUsername(), user.getRole(), user.getStatus() != null ? user.getStatus() : 0);
+    }
+}
@@ -2,6 +2,7 @@ package top.ooyyh.edusphere.config;
 
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import top.ooyyh.edusphere.exception.ServiceBusyException;
 import top.ooyyh.edusphere.utils.Result;
 
 import javax.servlet.http.HttpServletRequest;
@@ -10,6 +11,16 @@ import javax.servlet.http.HttpServletResponse;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     
+    @ExceptionHandler(ServiceBusyException.class)
+    public Result<String> handleServiceBusy(ServiceBusyException e, HttpServletResponse response) {
+        // 服务繁忙，返回 503 让客户端稍后重试
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", "1");
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        
+        return Result.error(e.getMessage());
+    }
+    
     @ExceptionHandler(Exception.class)
     public Result<String> handleException(Exception e, HttpServletRequest request, HttpServletResponse response) {
         // 设置CORS头
@@ -17,6 +28,9 @@ public class GlobalExceptionHandler {
         response.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
         response.setHeader("Access-Control-Allow-Headers", "*");
         
-        return Result.error("系统错误: " + e.getMessage());
+        // 带上请求ID，用户反馈时可据此在日志中定位
+        String requestId = RequestIdFilter.getRequestId(request);
+        System.out.println("请求处理异常 [" + requestId + "] " + request.getMethod() + " " + request.getRequestURI() + ": " + e);
+        return Result.error("系统错误: " + e.getMessage() + (requestId != null ? "（请求ID: " + requestId + "）" : ""));
     }
 }
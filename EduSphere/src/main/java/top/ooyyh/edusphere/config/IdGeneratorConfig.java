@@ -0,0 +1,24 @@
+package top.ooyyh.edusphere.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import top.ooyyh.edusphere.utils.SnowflakeIdGenerator;
+
+/**
+ * ID生成器配置
+ *
+ * 订单号、上传文件名、请求ID都由同一个按时间递增的生成器产生。
+ * 多节点部署时每个节点必须配置不同的 edusphere.id.node-id（0-1023），否则不同节点可能生成相同的ID。
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Value("${edusphere.id.node-id:0}")
+    private int nodeId;
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator() {
+        return new SnowflakeIdGenerator(nodeId);
+    }
+}
@@ -0,0 +1,55 @@
+package top.ooyyh.edusphere.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import top.ooyyh.edusphere.cache.IdempotencyStore;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 幂等请求响应记录
+ *
+ * 只处理带 Idempotency-Key 头的请求：包装响应以便拿到完整的响应体，
+ * 请求结束后如果 IdempotencyInterceptor 登记过去重键，就把响应保存到去重表；
+ * 服务端错误（5xx）或未处理的异常不保存，删除登记，允许客户端用相同的键重试。
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !StringUtils.hasText(request.getHeader(IdempotencyInterceptor.HEADER));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean finished = false;
+        try {
+            chain.doFilter(request, wrapper);
+            finished = true;
+        } finally {
+            String key = (String) request.getAttribute(IdempotencyInterceptor.CLAIMED_KEY_ATTRIBUTE);
+            if (key != null) {
+                if (finished && wrapper.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+                    idempotencyStore.complete(key, wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray(),
+                            RequestIdFilter.getRequestId(request));
+                } else {
+                    idempotencyStore.release(key);
+                }
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package top.ooyyh.edusphere.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+import top.ooyyh.edusphere.cache.IdempotencyStore;
+import top.ooyyh.edusphere.utils.ResponseUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+@Component
+public class IdempotencyInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    /**
+     * 当前请求登记的去重键，由 IdempotencyFilter 在请求结束后保存响应或删除登记
+     */
+    static final String CLAIMED_KEY_ATTRIBUTE = IdempotencyInterceptor.class.getName() + ".claimedKey";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    @Autowired
+    private RouteSecurityTable routeSecurityTable;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        if (!routeSecurityTable.get((HandlerMethod) handler).isIdempotent()) {
+            return true;
+        }
+
+        String key = request.getHeader(HEADER);
+        Object userId = request.getAttribute("userId");
+        // 没有幂等键、未登录（由认证拦截器处理）或响应没有被 IdempotencyFilter 包装时照常执行
+        if (!StringUtils.hasText(key) || userId == null
+                || WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null) {
+            return true;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            ResponseUtils.writeErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, HEADER + " 不能超过 " + MAX_KEY_LENGTH + " 个字符");
+            return false;
+        }
+
+        // 同一个键只在同一用户、同一接口内有效
+        String storeKey = "u:" + userId + ":" + request.getMethod() + " " + request.getRequestURI() + ":" + key;
+        IdempotencyStore.Entry existing = idempotencyStore.claim(storeKey);
+        if (existing == null) {
+            request.setAttribute(CLAIMED_KEY_ATTRIBUTE, storeKey);
+            return true;
+        }
+        if (!existing.isCompleted()) {
+            ResponseUtils.writeErrorResponse(response, HttpServletResponse.SC_CONFLICT, "请求正在处理中，请勿重复提交");
+            return false;
+        }
+
+        // 重放第一次请求的响应
+        response.setStatus(existing.getStatus());
+        if (existing.getContentType() != null) {
+            response.setContentType(existing.getContentType());
+        }
+        response.setHeader("Idempotent-Replayed", "true");
+        if (existing.getRequestId() != null) {
+            // 产生这份响应的原始请求，便于和服务端日志对应
+            response.setHeader("Idempotent-Original-Request-Id", existing.getRequestId());
+        }
+        response.getOutputStream().write(existing.getBody());
+        return false;
+    }
+}
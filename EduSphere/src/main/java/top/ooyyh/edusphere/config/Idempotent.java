@@ -0,0 +1,16 @@
+package top.ooyyh.edusphere.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 幂等接口
+ * 请求带 Idempotency-Key 头时，同一用户在同一接口上使用相同的键只执行一次，
+ * 重试请求直接返回第一次的响应；不带该头的请求照常执行
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+}
@@ -1,10 +1,13 @@
 package top.ooyyh.edusphere.config;
 
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
-import top.ooyyh.edusphere.mapper.UserMapper;
-import top.ooyyh.edusphere.entity.User;
+import top.ooyyh.edusphere.cache.TokenRevocationStore;
+import top.ooyyh.edusphere.cache.UserIdentity;
+import top.ooyyh.edusphere.cache.UserIdentityCache;
 import top.ooyyh.edusphere.utils.JwtUtils;
 import top.ooyyh.edusphere.utils.ResponseUtils;
 
@@ -15,7 +18,13 @@ import javax.servlet.http.HttpServletResponse;
 public class JwtInterceptor implements HandlerInterceptor {
     
     @Autowired
-    private UserMapper userMapper;
+    private UserIdentityCache userIdentityCache;
+    
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+    
+    @Autowired
+    private RouteSecurityTable routeSecurityTable;
     
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -24,11 +33,16 @@ public class JwtInterceptor implements HandlerInterceptor {
             return true;
         }
         
-        // 获取请求路径
-        String requestURI = request.getRequestURI();
+        // 静态资源等非控制器请求无需认证
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
         
-        // 不需要认证的路径
-        if (isPublicPath(requestURI)) {
+        // 查接口安全表，公开接口直接放行
+        RouteSecurityTable.Rule rule = routeSecurityTable.get((HandlerMethod) handler);
+        if (rule.isPublicAccess()) {
+            // 公开接口也可以带 token：能识别出登录用户时附上用户信息（如课程详情页的购买/收藏状态），识别失败按未登录处理
+            resolveOptionalUser(request);
             return true;
         }
         
@@ -43,21 +57,39 @@ public class JwtInterceptor implements HandlerInterceptor {
             // 提取token
             String token = authHeader.substring(7);
             
-            // 验证token
-            String username = JwtUtils.getUsername(token);
-            String role = JwtUtils.getRole(token);
-            
-            // 获取用户ID
-            Integer userId = getUserIdFromToken(token);
+            // 验证token（只解析一次，用户ID和角色都从声明中读取，不再查库）
+            Claims claims = JwtUtils.parseToken(token);
+            Integer userId = JwtUtils.getUserId(claims);
             if (userId == null) {
+                ResponseUtils.writeErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "认证失败");
+                return false;
+            }
+            
+            // 已退出登录、修改密码或被管理员吊销的 token
+            if (tokenRevocationStore.isRevoked(claims)) {
+                ResponseUtils.writeErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "登录已失效，请重新登录");
+                return false;
+            }
+            
+            // 确认用户仍然存在且未被禁用（走身份缓存，未命中才查库）
+            UserIdentity identity = userIdentityCache.get(userId);
+            if (!identity.exists()) {
                 ResponseUtils.writeErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "用户不存在");
                 return false;
             }
+            if (!identity.isEnabled()) {
+                ResponseUtils.writeErrorResponse(response, HttpServletResponse.SC_FORBIDDEN, "账号已被禁用");
+                return false;
+            }
             
-            // 将用户信息添加到请求头中，供后续使用
-            request.setAttribute("username", username);
-            request.setAttribute("role", role);
-            request.setAttribute("userId", userId);
+            // 将用户信息添加到请求头中，供后续使用（用户名和角色以缓存中的最新值为准）
+            setUserAttributes(request, claims, identity, userId);
+            
+            // 角色校验
+            if (!rule.allows(identity.getRole())) {
+                ResponseUtils.writeErrorResponse(response, HttpServletResponse.SC_FORBIDDEN, rule.getDeniedMessage());
+                return false;
+            }
             
             return true;
         } catch (Exception e) {
@@ -67,39 +99,33 @@ public class JwtInterceptor implements HandlerInterceptor {
     }
     
     /**
-     * 判断是否为公开路径
-     */
-    private boolean isPublicPath(String requestURI) {
-        boolean isPublic = requestURI.startsWith("/api/user/login") ||
-               requestURI.startsWith("/api/user/register") ||
-               requestURI.startsWith("/api/course/") ||
-               requestURI.startsWith("/api/category/") ||
-               requestURI.startsWith("/api/home/") ||
-               requestURI.startsWith("/api/review/course/") ||
-               requestURI.startsWith("/api/placeholder/") ||
-               requestURI.startsWith("/api/static/") ||
-               requestURI.startsWith("/api/images/");
-        
-        return isPublic;
-    }
-    
-    /**
-     * 从token中获取用户ID（从数据库查询）
+     * 公开接口的可选登录：token 有效且用户可用时设置用户信息，其余情况不做处理
      */
-    private Integer getUserIdFromToken(String token) {
+    private void resolveOptionalUser(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return;
+        }
         try {
-            String username = JwtUtils.getUsername(token);
-            if (username != null && !username.isEmpty()) {
-                // 从数据库查询用户信息
-                User user = userMapper.getUserByUsername(username);
-                if (user != null) {
-                    return user.getId();
-                }
+            Claims claims = JwtUtils.parseToken(authHeader.substring(7));
+            Integer userId = JwtUtils.getUserId(claims);
+            if (userId == null || tokenRevocationStore.isRevoked(claims)) {
+                return;
+            }
+            UserIdentity identity = userIdentityCache.get(userId);
+            if (identity.exists() && identity.isEnabled()) {
+                setUserAttributes(request, claims, identity, userId);
             }
         } catch (Exception e) {
-            // 如果解析失败，记录日志
-            System.err.println("获取用户ID失败: " + e.getMessage());
+            // 过期或无效的 token 在公开接口上按未登录处理
         }
-        return null; // 如果查询失败，返回null
+    }
+    
+    private void setUserAttributes(HttpServletRequest request, Claims claims, UserIdentity identity, Integer userId) {
+        request.setAttribute("username", identity.getUsername());
+        request.setAttribute("role", identity.getRole());
+        request.setAttribute("userId", userId);
+        request.setAttribute("tokenId", claims.getId());
+        request.setAttribute("tokenExpiration", claims.getExpiration());
     }
 }
@@ -0,0 +1,111 @@
+package top.ooyyh.edusphere.config;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import top.ooyyh.edusphere.utils.JwtKeyRing;
+import top.ooyyh.edusphere.utils.JwtUtils;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.SecretKey;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.security.Key;
+import java.security.KeyStore;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT 签名密钥配置
+ *
+ * 密钥来源（可同时使用）：
+ * 1. jwt.keys：kid -> Base64 编码的 HMAC 密钥（至少 256 位）
+ * 2. jwt.keystore：本地 PKCS12/JCEKS 密钥库，每个密钥条目的别名即 kid
+ * jwt.active-key-id 指定签名用的密钥，其余密钥只用于验签。
+ * 所有节点使用相同配置即可互认 token，重启也不会让已登录用户掉线。
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "jwt")
+public class JwtKeyConfig {
+
+    /**
+     * 当前签名密钥ID
+     */
+    private String activeKeyId;
+
+    /**
+     * 密钥列表：kid -> Base64 编码的密钥
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /**
+     * 本地密钥库
+     */
+    private Keystore keystore = new Keystore();
+
+    @Data
+    public static class Keystore {
+        private String path;
+        private String password;
+        private String type = "PKCS12";
+        /**
+         * 密钥条目密码，未配置时与密钥库密码相同
+         */
+        private String keyPassword;
+    }
+
+    /**
+     * 构建密钥环并安装到 JwtUtils
+     */
+    @PostConstruct
+    public void init() throws Exception {
+        Map<String, Key> ring = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : keys.entrySet()) {
+            ring.put(entry.getKey(), Keys.hmacShaKeyFor(Decoders.BASE64.decode(entry.getValue())));
+        }
+        ring.putAll(loadKeystore());
+
+        if (ring.isEmpty()) {
+            System.out.println("警告: 未配置 JWT 密钥，使用随机密钥，重启后所有 token 失效且多节点之间无法互认");
+            return;
+        }
+
+        String kid = StringUtils.hasText(activeKeyId) ? activeKeyId : ring.keySet().iterator().next();
+        JwtKeyRing keyRing = new JwtKeyRing(kid, ring);
+        JwtUtils.install(keyRing);
+        System.out.println("JWT 密钥环已加载，签名密钥: " + kid + "，验签密钥: " + keyRing.getKeyIds());
+    }
+
+    /**
+     * 从本地密钥库读取全部对称密钥
+     */
+    private Map<String, Key> loadKeystore() throws Exception {
+        Map<String, Key> result = new LinkedHashMap<>();
+        if (!StringUtils.hasText(keystore.getPath())) {
+            return result;
+        }
+
+        char[] storePassword = keystore.getPassword() != null ? keystore.getPassword().toCharArray() : null;
+        char[] keyPassword = keystore.getKeyPassword() != null ? keystore.getKeyPassword().toCharArray() : storePassword;
+
+        KeyStore ks = KeyStore.getInstance(keystore.getType());
+        try (InputStream in = new FileInputStream(keystore.getPath())) {
+            ks.load(in, storePassword);
+        }
+
+        Enumeration<String> aliases = ks.aliases();
+        while (aliases.hasMoreElements()) {
+            String alias = aliases.nextElement();
+            Key key = ks.getKey(alias, keyPassword);
+            if (key instanceof SecretKey) {
+                result.put(alias, key);
+            }
+        }
+        return result;
+    }
+}
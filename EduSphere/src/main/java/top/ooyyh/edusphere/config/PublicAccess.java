@@ -0,0 +1,15 @@
+package top.ooyyh.edusphere.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 公开接口，无需登录即可访问
+ * 标注在控制器类上时对该类的全部接口生效
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PublicAccess {
+}
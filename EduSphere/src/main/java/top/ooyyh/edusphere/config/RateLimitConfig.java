@@ -0,0 +1,49 @@
+package top.ooyyh.edusphere.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 限流配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "edusphere.rate-limit")
+public class RateLimitConfig {
+
+    /**
+     * 是否启用限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 是否信任 X-Forwarded-For 头（仅在可信的反向代理之后部署时开启）
+     */
+    private boolean trustForwardedFor = false;
+
+    /**
+     * 每个分组最多保留的令牌桶数量，超出后优先淘汰访问频率低的令牌桶
+     */
+    private long maximumKeys = 100000;
+
+    /**
+     * 分组配置：分组名 -> 容量和补充速率
+     */
+    private Map<String, Limit> groups = new LinkedHashMap<>();
+
+    @Data
+    public static class Limit {
+        /**
+         * 桶容量（允许的突发请求数）
+         */
+        private long capacity = 10;
+        /**
+         * 每秒补充的令牌数
+         */
+        private double refillPerSecond = 1;
+    }
+}
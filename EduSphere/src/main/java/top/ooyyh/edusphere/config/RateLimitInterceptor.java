@@ -0,0 +1,70 @@
+package top.ooyyh.edusphere.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import top.ooyyh.edusphere.cache.RateLimiter;
+import top.ooyyh.edusphere.utils.ResponseUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+
+    @Autowired
+    private RouteSecurityTable routeSecurityTable;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private RateLimitConfig rateLimitConfig;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+
+        // 限流分组在启动时已记录到接口安全表中
+        String group = routeSecurityTable.get((HandlerMethod) handler).getRateLimitGroup();
+        if (group == null) {
+            return true;
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(group, clientKey(request));
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        // 向上取整到秒
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setHeader("Retry-After", String.valueOf(retryAfter));
+        ResponseUtils.writeErrorResponse(response, SC_TOO_MANY_REQUESTS, "请求过于频繁，请 " + retryAfter + " 秒后再试");
+        return false;
+    }
+
+    /**
+     * 客户端标识：已登录按用户ID，未登录按IP
+     */
+    private String clientKey(HttpServletRequest request) {
+        Object userId = request.getAttribute("userId");
+        if (userId != null) {
+            return "u:" + userId;
+        }
+        if (rateLimitConfig.isTrustForwardedFor()) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwarded)) {
+                int comma = forwarded.indexOf(',');
+                return "ip:" + (comma > 0 ? forwarded.substring(0, comma) : forwarded).trim();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,17 @@
+package top.ooyyh.edusphere.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 接口限流
+ * value 为限流分组名，对应配置 edusphere.rate-limit.groups 下的同名分组；
+ * 已登录请求按用户ID计数，未登录请求按客户端IP计数
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+    String value();
+}
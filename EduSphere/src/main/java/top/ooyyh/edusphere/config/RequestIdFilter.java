@@ -0,0 +1,55 @@
+package top.ooyyh.edusphere.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import top.ooyyh.edusphere.utils.SnowflakeIdGenerator;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * 请求ID
+ *
+ * 每个请求分配一个ID，写入请求属性和 X-Request-Id 响应头，错误信息和日志中带上它便于排查。
+ * 上游（网关、前端）已经带了合法的 X-Request-Id 时沿用，否则由ID生成器生成（按时间递增）。
+ * 最先执行，后续的过滤器和拦截器都能拿到请求ID。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String ATTRIBUTE = "requestId";
+
+    private static final Pattern VALID_ID = Pattern.compile("[0-9A-Za-z._-]{1,64}");
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(HEADER);
+        if (requestId == null || !VALID_ID.matcher(requestId).matches()) {
+            requestId = idGenerator.nextIdString();
+        }
+        request.setAttribute(ATTRIBUTE, requestId);
+        response.setHeader(HEADER, requestId);
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * 当前请求的ID，请求未经过本过滤器时返回 null
+     */
+    public static String getRequestId(HttpServletRequest request) {
+        Object requestId = request.getAttribute(ATTRIBUTE);
+        return requestId != null ? requestId.toString() : null;
+    }
+}
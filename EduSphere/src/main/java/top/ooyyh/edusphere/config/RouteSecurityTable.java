@@ -0,0 +1,176 @@
+package top.ooyyh.edusphere.config;
+
+import org.springframework.boot.web.servlet.error.ErrorController;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 接口安全元数据表
+ *
+ * 启动完成后遍历全部 @RequestMapping 接口，预先算好每个接口是否公开、需要哪些角色、属于哪个限流分组、是否支持幂等键，
+ * 拦截器每次请求按处理方法查一次哈希表即可，不再做路径匹配和注解反射。
+ * 规则：
+ * 1. 方法或类上有 @PublicAccess：无需登录
+ * 2. 方法上的 @RequireRole 优先，其次是类上的 @RequireRole：需要登录且角色匹配
+ * 3. 其余接口：需要登录
+ * 限流分组取方法上的 @RateLimited，其次是类上的 @RateLimited，与是否公开无关；@Idempotent 同理。
+ */
+@Component
+public class RouteSecurityTable {
+
+    /**
+     * 未登记的处理方法按需要登录处理
+     */
+    private static final Rule AUTHENTICATED = new Rule(false, new String[0], null, false);
+    private static final Rule PUBLIC = new Rule(true, new String[0], null, false);
+
+    private volatile Map<Method, Rule> rules = Collections.emptyMap();
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void build(ContextRefreshedEvent event) {
+        ApplicationContext context = event.getApplicationContext();
+        if (!context.containsBean("requestMappingHandlerMapping")) {
+            return;
+        }
+        RequestMappingHandlerMapping mapping =
+                context.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+
+        Map<Method, Rule> table = new HashMap<>();
+        int publicCount = 0;
+        int roleCount = 0;
+        int limitedCount = 0;
+        int idempotentCount = 0;
+        for (HandlerMethod handlerMethod : mapping.getHandlerMethods().values()) {
+            Rule rule = resolve(handlerMethod);
+            table.put(handlerMethod.getMethod(), rule);
+            if (rule.isPublicAccess()) {
+                publicCount++;
+            } else if (rule.getRoles().length > 0) {
+                roleCount++;
+            }
+            if (rule.getRateLimitGroup() != null) {
+                limitedCount++;
+            }
+            if (rule.isIdempotent()) {
+                idempotentCount++;
+            }
+        }
+        rules = table;
+        System.out.println("接口安全表已生成: 共 " + table.size() + " 个接口，公开 " + publicCount + " 个，限定角色 " + roleCount
+                + " 个，限流 " + limitedCount + " 个，幂等 " + idempotentCount + " 个");
+    }
+
+    /**
+     * 查询处理方法的安全规则
+     */
+    public Rule get(HandlerMethod handlerMethod) {
+        Rule rule = rules.get(handlerMethod.getMethod());
+        return rule != null ? rule : AUTHENTICATED;
+    }
+
+    private Rule resolve(HandlerMethod handlerMethod) {
+        Class<?> beanType = handlerMethod.getBeanType();
+
+        // Spring Boot 的错误页面（/error）始终公开，否则未登录请求的错误会被拦截成 401
+        if (ErrorController.class.isAssignableFrom(beanType)) {
+            return PUBLIC;
+        }
+
+        RateLimited rateLimited = findAnnotation(handlerMethod, RateLimited.class);
+        String rateLimitGroup = rateLimited != null ? rateLimited.value() : null;
+        boolean idempotent = findAnnotation(handlerMethod, Idempotent.class) != null;
+
+        if (findAnnotation(handlerMethod, PublicAccess.class) != null) {
+            return rateLimitGroup != null || idempotent ? new Rule(true, new String[0], rateLimitGroup, idempotent) : PUBLIC;
+        }
+
+        RequireRole requireRole = findAnnotation(handlerMethod, RequireRole.class);
+        String[] roles = requireRole != null ? requireRole.value() : new String[0];
+        if (roles.length == 0 && rateLimitGroup == null && !idempotent) {
+            return AUTHENTICATED;
+        }
+        return new Rule(false, roles, rateLimitGroup, idempotent);
+    }
+
+    /**
+     * 先找方法上的注解，再找类上的注解
+     */
+    private <A extends Annotation> A findAnnotation(HandlerMethod handlerMethod, Class<A> type) {
+        A annotation = handlerMethod.getMethodAnnotation(type);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), type);
+        }
+        return annotation;
+    }
+
+    /**
+     * 单个接口的安全规则
+     */
+    public static final class Rule {
+        private final boolean publicAccess;
+        private final String[] roles;
+        private final String deniedMessage;
+        private final String rateLimitGroup;
+        private final boolean idempotent;
+
+        Rule(boolean publicAccess, String[] roles, String rateLimitGroup, boolean idempotent) {
+            this.publicAccess = publicAccess;
+            this.roles = roles;
+            this.rateLimitGroup = rateLimitGroup;
+            this.idempotent = idempotent;
+            this.deniedMessage = "权限不足，需要角色：" + String.join("或", roles);
+        }
+
+        public boolean isPublicAccess() {
+            return publicAccess;
+        }
+
+        public String[] getRoles() {
+            return roles;
+        }
+
+        /**
+         * 判断角色是否满足要求，未限定角色时任何已登录用户都满足
+         */
+        public boolean allows(String role) {
+            if (roles.length == 0) {
+                return true;
+            }
+            for (String allowed : roles) {
+                if (allowed.equals(role)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public String getDeniedMessage() {
+            return deniedMessage;
+        }
+
+        /**
+         * 限流分组，未限流时为 null
+         */
+        public String getRateLimitGroup() {
+            return rateLimitGroup;
+        }
+
+        /**
+         * 是否支持 Idempotency-Key 请求头
+         */
+        public boolean isIdempotent() {
+            return idempotent;
+        }
+    }
+}
@@ -15,7 +15,10 @@ public class WebConfig implements WebMvcConfigurer {
     private JwtInterceptor jwtInterceptor;
 
     @Autowired
-    private RoleInterceptor roleInterceptor;
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Autowired
+    private IdempotencyInterceptor idempotencyInterceptor;
 
     @Value("${file.upload.path}")
     private String uploadPath;
@@ -25,25 +28,18 @@ public class WebConfig implements WebMvcConfigurer {
     
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        // JWT拦截器 - 验证登录状态
+        // JWT拦截器 - 验证登录状态和角色权限
+        // 公开接口用 @PublicAccess 标注，所需角色用 @RequireRole 标注，启动时汇总到 RouteSecurityTable
         registry.addInterceptor(jwtInterceptor)
-                .addPathPatterns("/**")
-                .excludePathPatterns(
-                    "/user/login",
-                    "/user/register",
-                    "/course/**",
-                    "/category/**",
-                    "/home/**",
-                    "/review/course/**",
-                    "/placeholder/**",
-                    "/static/**",
-                    "/images/**",
-                    "/uploads/**"
-                );
+                .addPathPatterns("/**");
         
-        // 角色拦截器 - 验证权限
-        registry.addInterceptor(roleInterceptor)
-                .addPathPatterns("/teacher/**");
+        // 限流拦截器 - 在认证之后执行，已登录请求按用户ID限流，未登录请求按IP限流
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/**");
+
+        // 幂等拦截器 - 在限流之后执行，@Idempotent 接口带 Idempotency-Key 头时去重，重试请求重放第一次的响应
+        registry.addInterceptor(idempotencyInterceptor)
+                .addPathPatterns("/**");
     }
     
     @Override
@@ -52,6 +48,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(RequestIdFilter.HEADER)
                 .allowCredentials(true)
                 .maxAge(3600);
     }
@@ -1,26 +1,33 @@
 package top.ooyyh.edusphere.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import top.ooyyh.edusphere.entity.Course;
 import top.ooyyh.edusphere.entity.User;
 import top.ooyyh.edusphere.service.AdminService;
+import top.ooyyh.edusphere.service.CourseReviewService;
 import top.ooyyh.edusphere.utils.Result;
 import top.ooyyh.edusphere.config.RequireRole;
 
 import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @ResponseBody
 @CrossOrigin
+@RequireRole({"admin"})
 @RequestMapping("/admin")
 public class AdminController {
     
     @Autowired
     private AdminService adminService;
     
+    @Autowired
+    private CourseReviewService courseReviewService;
+    
     /**
      * 获取待审核课程列表
      */
@@ -142,6 +149,46 @@ public class AdminController {
         return adminService.getLearningStats();
     }
 
+    /**
+     * 获取缓存统计
+     */
+    @GetMapping("/cache/stats")
+    @RequireRole({"admin"})
+    public Result<Map<String, Object>> getCacheStats(HttpServletRequest request) {
+        return adminService.getCacheStats();
+    }
+    
+    /**
+     * 从购买记录重建销售汇总（按天并行，可在运行中执行）
+     */
+    @PostMapping("/sales-rollups/rebuild")
+    @RequireRole({"admin"})
+    public Result<Map<String, Object>> rebuildSalesRollups(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                           HttpServletRequest request) {
+        return adminService.rebuildSalesRollups(from, to);
+    }
+    
+    // ========== 评价管理 ==========
+    
+    /**
+     * 审核评价（status：1-显示，0-隐藏）
+     */
+    @PutMapping("/reviews/{reviewId}/status")
+    @RequireRole({"admin"})
+    public Result<String> moderateReview(@PathVariable Integer reviewId, @RequestParam Integer status, HttpServletRequest request) {
+        return courseReviewService.moderateReview(reviewId, status);
+    }
+    
+    /**
+     * 从评价表全量重算课程评分
+     */
+    @PostMapping("/ratings/recompute")
+    @RequireRole({"admin"})
+    public Result<String> recomputeCourseRatings(HttpServletRequest request) {
+        return adminService.recomputeCourseRatings();
+    }
+    
     /**
      * 获取用户详细信息
      */
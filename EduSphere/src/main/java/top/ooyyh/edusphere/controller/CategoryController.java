@@ -2,6 +2,7 @@ package top.ooyyh.edusphere.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import top.ooyyh.edusphere.config.PublicAccess;
 import top.ooyyh.edusphere.entity.Category;
 import top.ooyyh.edusphere.service.CategoryService;
 import top.ooyyh.edusphere.utils.Result;
@@ -11,6 +12,7 @@ import java.util.List;
 @RestController
 @ResponseBody
 @CrossOrigin
+@PublicAccess
 @RequestMapping("/category")
 public class CategoryController {
     
@@ -2,24 +2,32 @@ package top.ooyyh.edusphere.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import top.ooyyh.edusphere.config.PublicAccess;
 import top.ooyyh.edusphere.entity.Course;
 import top.ooyyh.edusphere.entity.CourseSection;
 import top.ooyyh.edusphere.request.CourseSearchRequest;
+import top.ooyyh.edusphere.response.CoursePageResponse;
 import top.ooyyh.edusphere.response.CourseSearchResponse;
+import top.ooyyh.edusphere.service.CoursePageService;
 import top.ooyyh.edusphere.service.CourseService;
 import top.ooyyh.edusphere.utils.Result;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
 
 @RestController
 @ResponseBody
 @CrossOrigin
+@PublicAccess
 @RequestMapping("/course")
 public class CourseController {
     
     @Autowired
     private CourseService courseService;
     
+    @Autowired
+    private CoursePageService coursePageService;
+    
     /**
      * 获取课程详情
      */
@@ -69,4 +77,13 @@ public class CourseController {
     public Result<List<CourseSection>> getCourseOutline(@PathVariable Integer courseId) {
         return courseService.getCourseOutline(courseId);
     }
+    
+    /**
+     * 获取课程详情页数据（课程、大纲、评价概况，登录时附带购买/收藏/学习进度/笔记数）
+     */
+    @GetMapping("/{courseId}/page")
+    public Result<CoursePageResponse> getCoursePage(@PathVariable Integer courseId, HttpServletRequest request) {
+        Integer userId = (Integer) request.getAttribute("userId");
+        return coursePageService.getCoursePage(courseId, userId);
+    }
 }
@@ -1,10 +1,14 @@
 package top.ooyyh.edusphere.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import top.ooyyh.edusphere.config.Idempotent;
 import top.ooyyh.edusphere.entity.PurchaseRecord;
 import top.ooyyh.edusphere.request.PurchaseRequest;
+import top.ooyyh.edusphere.response.InstructorIncomeSummary;
 import top.ooyyh.edusphere.response.PurchaseResponse;
+import top.ooyyh.edusphere.response.SalesStatsResponse;
 import top.ooyyh.edusphere.response.UserPurchasedCourseResponse;
 import top.ooyyh.edusphere.service.CoursePurchaseService;
 import top.ooyyh.edusphere.utils.ResponseUtils;
@@ -12,6 +16,7 @@ import top.ooyyh.edusphere.utils.ResponseUtils;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -19,13 +24,15 @@ import java.util.List;
  */
 @RestController
 @RequestMapping("/purchase")
-public class CoursePurchaseController {    
+public class CoursePurchaseController {
+    
     @Autowired
     private CoursePurchaseService coursePurchaseService;
     
     /**
-     * 购买课程
+     * 购买课程（支持 Idempotency-Key 头）
      */
+    @Idempotent
     @PostMapping("/course")
     public void purchaseCourse(@RequestBody PurchaseRequest purchaseRequest,
                               HttpServletRequest request,
@@ -119,6 +126,31 @@ public class CoursePurchaseController {
         }
     }
     
+    /**
+     * 获取讲师销售统计（区间合计、趋势和按课程的合计，读销售汇总表）
+     */
+    @GetMapping("/sales/stats")
+    public void getSalesStats(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                              @RequestParam(defaultValue = "day") String granularity,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        try {
+            Integer instructorId = (Integer) request.getAttribute("userId");
+            if (instructorId == null) {
+                ResponseUtils.writeErrorResponse(response, 401, "用户未登录");
+                return;
+            }
+            
+            SalesStatsResponse stats = coursePurchaseService.getInstructorSalesStats(instructorId, from, to, granularity);
+            ResponseUtils.writeSuccessResponse(response, stats);
+            
+        } catch (Exception e) {
+            e.printStackTrace();
+            ResponseUtils.writeErrorResponse(response, 500, "获取销售统计失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 获取讲师总收入
      */
@@ -132,8 +164,8 @@ public class CoursePurchaseController {
                 return;
             }
             
-            Double totalIncome = coursePurchaseService.getInstructorTotalIncome(instructorId);
-            ResponseUtils.writeSuccessResponse(response, totalIncome);
+            InstructorIncomeSummary incomeSummary = coursePurchaseService.getInstructorTotalIncome(instructorId);
+            ResponseUtils.writeSuccessResponse(response, incomeSummary);
             
         } catch (Exception e) {
             e.printStackTrace();
@@ -2,12 +2,15 @@ package top.ooyyh.edusphere.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
-import top.ooyyh.edusphere.entity.CourseReview;
+import top.ooyyh.edusphere.config.PublicAccess;
+import top.ooyyh.edusphere.config.RateLimited;
 import top.ooyyh.edusphere.request.CourseReviewRequest;
+import top.ooyyh.edusphere.response.CourseReviewPageResponse;
+import top.ooyyh.edusphere.response.CourseReviewSummary;
 import top.ooyyh.edusphere.service.CourseReviewService;
 import top.ooyyh.edusphere.utils.Result;
 
-import java.util.List;
+import javax.servlet.http.HttpServletRequest;
 
 @RestController
 @ResponseBody
@@ -19,19 +22,45 @@ public class CourseReviewController {
     private CourseReviewService courseReviewService;
     
     /**
-     * 获取课程评价列表
+     * 获取当前用户ID（由 JwtInterceptor 从 token 中解析），不信任客户端传来的用户ID
+     */
+    private Integer getCurrentUserId(HttpServletRequest request) {
+        Object userId = request.getAttribute("userId");
+        return userId instanceof Integer ? (Integer) userId : null;
+    }
+    
+    /**
+     * 获取课程评价列表（游标分页，第一页附带评价统计）
      */
     @GetMapping("/course/{courseId}")
-    public Result<List<CourseReview>> getCourseReviews(@PathVariable Integer courseId) {
-        return courseReviewService.getCourseReviews(courseId);
+    @PublicAccess
+    public Result<CourseReviewPageResponse> getCourseReviews(@PathVariable Integer courseId,
+                                                             @RequestParam(defaultValue = "newest") String sortBy,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "10") Integer size) {
+        return courseReviewService.getCourseReviews(courseId, sortBy, cursor, size);
+    }
+    
+    /**
+     * 获取课程评价统计（评价数、平均分、各星级数量）
+     */
+    @GetMapping("/course/{courseId}/summary")
+    @PublicAccess
+    public Result<CourseReviewSummary> getReviewSummary(@PathVariable Integer courseId) {
+        return courseReviewService.getReviewSummary(courseId);
     }
     
     /**
      * 添加课程评价
      */
     @PostMapping("/course/{courseId}")
+    @RateLimited("write")
     public Result<String> addCourseReview(@PathVariable Integer courseId, @RequestBody CourseReviewRequest request, 
-                                        @RequestHeader("X-User-Id") Integer userId) {
+                                        HttpServletRequest httpRequest) {
+        Integer userId = getCurrentUserId(httpRequest);
+        if (userId == null) {
+            return Result.error("未登录或登录已过期");
+        }
         // 设置课程ID
         request.setCourseId(courseId);
         return courseReviewService.addCourseReview(request, userId);
@@ -42,7 +71,11 @@ public class CourseReviewController {
      */
     @PutMapping("/update")
     public Result<String> updateCourseReview(@RequestBody CourseReviewRequest request,
-                                           @RequestHeader("X-User-Id") Integer userId) {
+                                           HttpServletRequest httpRequest) {
+        Integer userId = getCurrentUserId(httpRequest);
+        if (userId == null) {
+            return Result.error("未登录或登录已过期");
+        }
         return courseReviewService.updateCourseReview(request, userId);
     }
 
@@ -50,7 +83,11 @@ public class CourseReviewController {
      * 点赞课程评价
      */
     @PostMapping("/{reviewId}/like")
-    public Result<String> likeReview(@PathVariable Integer reviewId, @RequestHeader("X-User-Id") Integer userId) {
+    @RateLimited("write")
+    public Result<String> likeReview(@PathVariable Integer reviewId, HttpServletRequest httpRequest) {
+        if (getCurrentUserId(httpRequest) == null) {
+            return Result.error("未登录或登录已过期");
+        }
         return courseReviewService.likeReview(reviewId);
     }
 }
@@ -3,6 +3,7 @@ package top.ooyyh.edusphere.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import top.ooyyh.edusphere.config.RateLimited;
 import top.ooyyh.edusphere.service.FileUploadService;
 import top.ooyyh.edusphere.utils.Result;
 
@@ -15,6 +16,7 @@ import java.util.Map;
 @RestController
 @RequestMapping("/upload")
 @CrossOrigin
+@RateLimited("upload")
 public class FileUploadController {
 
     @Autowired
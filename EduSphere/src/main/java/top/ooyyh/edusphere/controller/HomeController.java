@@ -2,6 +2,7 @@ package top.ooyyh.edusphere.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import top.ooyyh.edusphere.config.PublicAccess;
 import top.ooyyh.edusphere.entity.Category;
 import top.ooyyh.edusphere.entity.Course;
 import top.ooyyh.edusphere.service.CategoryService;
@@ -15,6 +16,7 @@ import java.util.Map;
 @RestController
 @ResponseBody
 @CrossOrigin
+@PublicAccess
 @RequestMapping("/home")
 public class HomeController {
     
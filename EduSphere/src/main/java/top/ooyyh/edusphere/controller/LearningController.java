@@ -3,6 +3,7 @@ package top.ooyyh.edusphere.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import top.ooyyh.edusphere.entity.LearningProgress;
+import top.ooyyh.edusphere.response.CourseProgressResponse;
 import top.ooyyh.edusphere.service.LearningService;
 import top.ooyyh.edusphere.utils.ResponseUtils;
 import top.ooyyh.edusphere.utils.Result;
@@ -151,31 +152,4 @@ public class LearningController {
         public Integer getLessonId() { return lessonId; }
         public void setLessonId(Integer lessonId) { this.lessonId = lessonId; }
     }
-    
-    /**
-     * 课程进度响应类
-     */
-    public static class CourseProgressResponse {
-        private Integer courseId;
-        private Integer totalLessons;
-        private Integer completedLessons;
-        private Integer progress;
-        
-        public CourseProgressResponse(Integer courseId, Integer totalLessons, Integer completedLessons) {
-            this.courseId = courseId;
-            this.totalLessons = totalLessons;
-            this.completedLessons = completedLessons;
-            this.progress = totalLessons > 0 ? Math.round((completedLessons * 100.0f) / totalLessons) : 0;
-        }
-        
-        // Getters and Setters
-        public Integer getCourseId() { return courseId; }
-        public void setCourseId(Integer courseId) { this.courseId = courseId; }
-        public Integer getTotalLessons() { return totalLessons; }
-        public void setTotalLessons(Integer totalLessons) { this.totalLessons = totalLessons; }
-        public Integer getCompletedLessons() { return completedLessons; }
-        public void setCompletedLessons(Integer completedLessons) { this.completedLessons = completedLessons; }
-        public Integer getProgress() { return progress; }
-        public void setProgress(Integer progress) { this.progress = progress; }
-    }
 }
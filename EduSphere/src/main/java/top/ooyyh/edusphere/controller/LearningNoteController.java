@@ -2,6 +2,7 @@ package top.ooyyh.edusphere.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import top.ooyyh.edusphere.config.RateLimited;
 import top.ooyyh.edusphere.entity.LearningNote;
 import top.ooyyh.edusphere.service.LearningNoteService;
 import top.ooyyh.edusphere.utils.Result;
@@ -70,6 +71,7 @@ public class LearningNoteController {
      * 创建笔记
      */
     @PostMapping("/create")
+    @RateLimited("write")
     public Result createNote(@RequestBody LearningNote note, HttpServletRequest request) {
         Integer userId = getCurrentUserId(request);
         if (userId == -1) {
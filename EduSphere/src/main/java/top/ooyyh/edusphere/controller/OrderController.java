@@ -2,6 +2,7 @@ package top.ooyyh.edusphere.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import top.ooyyh.edusphere.config.Idempotent;
 import top.ooyyh.edusphere.service.OrderService;
 import top.ooyyh.edusphere.utils.Result;
 
@@ -33,8 +34,9 @@ public class OrderController {
 
     /**
      * 创建订单
-     * 请求体示例：{"courseIds": [1, 2, 3]}
+     * 请求体示例：{"courseIds": [1, 2, 3]}，支持 Idempotency-Key 头
      */
+    @Idempotent
     @PostMapping("/create")
     public Result createOrder(@RequestBody Map<String, Object> request, HttpServletRequest httpRequest) {
         Integer userId = getCurrentUserId(httpRequest);
@@ -50,6 +52,22 @@ public class OrderController {
         return orderService.createOrder(userId, courseIds);
     }
 
+    /**
+     * 购物车结算：在一个事务中下单、扣款并开通课程
+     * 请求体示例：{"courseIds": [1, 2, 3]}，courseIds 省略时结算整个购物车，支持 Idempotency-Key 头
+     */
+    @Idempotent
+    @PostMapping("/checkout")
+    public Result checkout(@RequestBody(required = false) Map<String, Object> request, HttpServletRequest httpRequest) {
+        Integer userId = getCurrentUserId(httpRequest);
+        if (userId == -1) {
+            return Result.error("未登录或登录已过期");
+        }
+
+        List<Integer> courseIds = request != null ? (List<Integer>) request.get("courseIds") : null;
+        return orderService.checkout(userId, courseIds);
+    }
+
     /**
      * 获取用户订单列表
      */
@@ -66,15 +84,36 @@ public class OrderController {
      * 获取订单详情
      */
     @GetMapping("/{orderNo}")
-    public Result getOrderDetail(@PathVariable String orderNo) {
-        return orderService.getOrderByOrderNo(orderNo);
+    public Result getOrderDetail(@PathVariable String orderNo, HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == -1) {
+            return Result.error("未登录或登录已过期");
+        }
+        return orderService.getOrderByOrderNo(userId, orderNo);
     }
 
     /**
-     * 支付订单
+     * 支付订单（余额支付），支持 Idempotency-Key 头
      */
+    @Idempotent
     @PostMapping("/pay/{orderNo}")
-    public Result payOrder(@PathVariable String orderNo) {
-        return orderService.payOrder(orderNo);
+    public Result payOrder(@PathVariable String orderNo, HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == -1) {
+            return Result.error("未登录或登录已过期");
+        }
+        return orderService.payOrder(userId, orderNo);
+    }
+
+    /**
+     * 取消订单，释放下单时冻结的余额
+     */
+    @PostMapping("/cancel/{orderNo}")
+    public Result cancelOrder(@PathVariable String orderNo, HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == -1) {
+            return Result.error("未登录或登录已过期");
+        }
+        return orderService.cancelOrder(userId, orderNo);
     }
 }
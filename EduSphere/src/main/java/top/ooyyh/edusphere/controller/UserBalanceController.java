@@ -2,6 +2,7 @@ package top.ooyyh.edusphere.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import top.ooyyh.edusphere.config.Idempotent;
 import top.ooyyh.edusphere.entity.RechargeRecord;
 import top.ooyyh.edusphere.request.RechargeRequest;
 import top.ooyyh.edusphere.response.UserBalanceResponse;
@@ -44,8 +45,9 @@ public class UserBalanceController {
     }
     
     /**
-     * 用户充值
+     * 用户充值（支持 Idempotency-Key 头）
      */
+    @Idempotent
     @PostMapping("/recharge")
     public void recharge(@RequestBody RechargeRequest rechargeRequest, 
                         HttpServletRequest request, 
@@ -2,6 +2,7 @@ package top.ooyyh.edusphere.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import top.ooyyh.edusphere.config.Idempotent;
 import top.ooyyh.edusphere.entity.Cart;
 import top.ooyyh.edusphere.entity.Course;
 import top.ooyyh.edusphere.entity.Order;
@@ -10,6 +11,7 @@ import top.ooyyh.edusphere.service.OrderService;
 import top.ooyyh.edusphere.service.UserCourseService;
 import top.ooyyh.edusphere.utils.Result;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
 
 @RestController
@@ -27,11 +29,23 @@ public class UserCenterController {
     @Autowired
     private OrderService orderService;
     
+    /**
+     * 获取当前用户ID（由 JwtInterceptor 从 token 中解析），不信任客户端传来的用户ID
+     */
+    private Integer getCurrentUserId(HttpServletRequest request) {
+        Object userId = request.getAttribute("userId");
+        return userId instanceof Integer ? (Integer) userId : null;
+    }
+    
     /**
      * 获取用户购买的课程
      */
     @GetMapping("/courses")
-    public Result<List<Course>> getUserCourses(@RequestHeader("X-User-Id") Integer userId) {
+    public Result<List<Course>> getUserCourses(HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return Result.error("未登录或登录已过期");
+        }
         return userCourseService.getUserCourses(userId);
     }
     
@@ -39,25 +53,23 @@ public class UserCenterController {
      * 检查用户是否已购买课程
      */
     @GetMapping("/courses/{courseId}/purchased")
-    public Result<Boolean> hasUserPurchased(@RequestHeader("X-User-Id") Integer userId, 
-                                          @PathVariable Integer courseId) {
+    public Result<Boolean> hasUserPurchased(@PathVariable Integer courseId, HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return Result.error("未登录或登录已过期");
+        }
         return userCourseService.hasUserPurchased(userId, courseId);
     }
     
-    /**
-     * 购买课程
-     */
-    @PostMapping("/courses/{courseId}/purchase")
-    public Result<String> purchaseCourse(@RequestHeader("X-User-Id") Integer userId,
-                                       @PathVariable Integer courseId) {
-        return userCourseService.purchaseCourse(userId, courseId);
-    }
-    
     /**
      * 获取用户购物车
      */
     @GetMapping("/cart")
-    public Result<List<Cart>> getUserCart(@RequestHeader("X-User-Id") Integer userId) {
+    public Result<List<Cart>> getUserCart(HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return Result.error("未登录或登录已过期");
+        }
         return cartService.getUserCart(userId);
     }
     
@@ -65,8 +77,11 @@ public class UserCenterController {
      * 添加到购物车
      */
     @PostMapping("/cart/{courseId}")
-    public Result<String> addToCart(@RequestHeader("X-User-Id") Integer userId,
-                                  @PathVariable Integer courseId) {
+    public Result<String> addToCart(@PathVariable Integer courseId, HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return Result.error("未登录或登录已过期");
+        }
         return cartService.addToCart(userId, courseId);
     }
     
@@ -74,8 +89,11 @@ public class UserCenterController {
      * 从购物车移除
      */
     @DeleteMapping("/cart/{courseId}")
-    public Result<String> removeFromCart(@RequestHeader("X-User-Id") Integer userId,
-                                       @PathVariable Integer courseId) {
+    public Result<String> removeFromCart(@PathVariable Integer courseId, HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return Result.error("未登录或登录已过期");
+        }
         return cartService.removeFromCart(userId, courseId);
     }
     
@@ -83,7 +101,11 @@ public class UserCenterController {
      * 清空购物车
      */
     @DeleteMapping("/cart")
-    public Result<String> clearCart(@RequestHeader("X-User-Id") Integer userId) {
+    public Result<String> clearCart(HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return Result.error("未登录或登录已过期");
+        }
         return cartService.clearCart(userId);
     }
     
@@ -91,23 +113,36 @@ public class UserCenterController {
      * 获取用户订单列表
      */
     @GetMapping("/orders")
-    public Result<List<Order>> getUserOrders(@RequestHeader("X-User-Id") Integer userId) {
+    public Result<List<Order>> getUserOrders(HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return Result.error("未登录或登录已过期");
+        }
         return orderService.getUserOrders(userId);
     }
     
     /**
-     * 根据订单号查询订单
+     * 根据订单号查询订单，只返回当前用户（取自JWT）的订单
      */
     @GetMapping("/orders/{orderNo}")
-    public Result<Order> getOrderByOrderNo(@PathVariable String orderNo) {
-        return orderService.getOrderByOrderNo(orderNo);
+    public Result<Order> getOrderByOrderNo(@PathVariable String orderNo, HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return Result.error("未登录或登录已过期");
+        }
+        return orderService.getOrderByOrderNo(userId, orderNo);
     }
     
     /**
-     * 支付订单
+     * 支付订单（余额支付），用户ID取自JWT，支持 Idempotency-Key 头
      */
+    @Idempotent
     @PostMapping("/orders/{orderNo}/pay")
-    public Result<String> payOrder(@PathVariable String orderNo) {
-        return orderService.payOrder(orderNo);
+    public Result<String> payOrder(@PathVariable String orderNo, HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == null) {
+            return Result.error("未登录或登录已过期");
+        }
+        return orderService.payOrder(userId, orderNo);
     }
 }
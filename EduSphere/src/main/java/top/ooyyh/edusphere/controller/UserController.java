@@ -2,7 +2,10 @@ package top.ooyyh.edusphere.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import top.ooyyh.edusphere.config.PublicAccess;
+import top.ooyyh.edusphere.config.RateLimited;
 import top.ooyyh.edusphere.entity.User;
+import top.ooyyh.edusphere.exception.ServiceBusyException;
 import top.ooyyh.edusphere.request.UserUpdateRequest;
 import top.ooyyh.edusphere.request.PasswordUpdateRequest;
 import top.ooyyh.edusphere.request.UserLoginRequest;
@@ -12,6 +15,7 @@ import top.ooyyh.edusphere.utils.Result;
 import top.ooyyh.edusphere.utils.JwtUtils;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,6 +32,8 @@ public class UserController {
      * 用户注册
      */
     @PostMapping("/register")
+    @PublicAccess
+    @RateLimited("register")
     public Result<String> register(@RequestBody UserRegisterRequest request) {
         try {
             // 检查用户名是否已存在
@@ -42,6 +48,8 @@ public class UserController {
             } else {
                 return Result.error("注册失败");
             }
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return Result.error("注册失败: " + e.getMessage());
         }
@@ -51,6 +59,8 @@ public class UserController {
      * 用户登录
      */
     @PostMapping("/login")
+    @PublicAccess
+    @RateLimited("login")
     public Result<Map<String, Object>> login(@RequestBody UserLoginRequest request) {
         try {
             // 验证用户名和密码
@@ -60,7 +70,7 @@ public class UserController {
             }
 
             // 生成JWT token
-            String token = JwtUtils.generateToken(user.getUsername(), user.getRole());
+            String token = JwtUtils.generateToken(user.getId(), user.getUsername(), user.getRole());
 
             // 准备返回数据
             Map<String, Object> data = new HashMap<>();
@@ -76,6 +86,8 @@ public class UserController {
             data.put("user", userInfo);
 
             return Result.success(data);
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return Result.error("登录失败: " + e.getMessage());
         }
@@ -127,4 +139,16 @@ public class UserController {
         }
         return userService.updatePassword(userId, request);
     }
+
+    /**
+     * 退出登录
+     */
+    @PostMapping("/logout")
+    public Result<String> logout(HttpServletRequest request) {
+        Integer userId = getCurrentUserId(request);
+        if (userId == -1) {
+            return Result.error("未登录或登录已过期");
+        }
+        return userService.logout((String) request.getAttribute("tokenId"), (Date) request.getAttribute("tokenExpiration"));
+    }
 }
\ No newline at end of file
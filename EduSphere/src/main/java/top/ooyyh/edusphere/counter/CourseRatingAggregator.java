@@ -0,0 +1,139 @@
+package top.ooyyh.edusphere.counter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import top.ooyyh.edusphere.event.CourseRatingChangedEvent;
+import top.ooyyh.edusphere.mapper.CourseMapper;
+import top.ooyyh.edusphere.mapper.CourseReviewMapper;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 课程评分聚合
+ *
+ * 评分总和、评价数和各星级数量由评价服务在写评价的同一事务内增量更新到 course_review_stats。
+ * 课程表上的 rating / rating_count 不再随每条评价更新：评价事务提交后只把课程标记为待同步，
+ * 定时任务每隔 write-behind-millis 把这段时间内变化过的课程一次性从统计表同步过去，
+ * 同一门热门课程在一个窗口内无论收到多少条评价都只写一次课程行，应用关闭前会把待同步的课程写完。
+ * 另有低频的全量重算，从评价表重新统计并覆盖统计表和课程评分，纠正异常中断等原因造成的偏差。
+ */
+@Component
+public class CourseRatingAggregator {
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Autowired
+    private CourseReviewMapper courseReviewMapper;
+
+    @Value("${edusphere.rating.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong changeCount = new AtomicLong();
+    private final AtomicLong flushedCourseCount = new AtomicLong();
+    private volatile LocalDateTime lastFlushAt;
+    private volatile LocalDateTime lastRecomputeAt;
+
+    /**
+     * 评价事务提交后标记课程待同步
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(CourseRatingChangedEvent event) {
+        if (event.getCourseId() != null) {
+            pending.add(event.getCourseId());
+            changeCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 把待同步课程的评分从统计表写回课程表
+     */
+    @Scheduled(fixedDelayString = "${edusphere.rating.write-behind-millis:2000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Integer> batch = new ArrayList<>();
+        Iterator<Integer> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            // 先移出再同步：同步期间又有新评价时课程会重新进入待同步集合，下个窗口再写
+            batch.add(iterator.next());
+            iterator.remove();
+            if (batch.size() >= flushBatchSize) {
+                write(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+        lastFlushAt = LocalDateTime.now();
+    }
+
+    /**
+     * 应用关闭前同步剩余的待同步课程
+     */
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+
+    /**
+     * 定时全量重算
+     */
+    @Scheduled(cron = "${edusphere.rating.recompute-cron:0 30 3 * * ?}")
+    public void scheduledRecompute() {
+        try {
+            recompute();
+        } catch (Exception e) {
+            System.out.println("全量重算课程评分失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 全量重算：从评价表重新统计所有课程，覆盖统计表后同步全部课程评分
+     */
+    public void recompute() {
+        courseReviewMapper.recomputeReviewStats();
+        courseMapper.syncAllRatingsFromStats();
+        lastRecomputeAt = LocalDateTime.now();
+    }
+
+    /**
+     * 评分聚合统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pendingCourses", pending.size());
+        result.put("changeCount", changeCount.get());
+        result.put("flushedCourseCount", flushedCourseCount.get());
+        result.put("lastFlushAt", lastFlushAt);
+        result.put("lastRecomputeAt", lastRecomputeAt);
+        return result;
+    }
+
+    private void write(List<Integer> courseIds) {
+        try {
+            courseMapper.syncRatingsFromStats(courseIds);
+            flushedCourseCount.addAndGet(courseIds.size());
+        } catch (Exception e) {
+            // 写失败的课程放回待同步集合，下个窗口重试
+            pending.addAll(courseIds);
+            System.out.println("同步课程评分失败: " + e.getMessage());
+        }
+    }
+}
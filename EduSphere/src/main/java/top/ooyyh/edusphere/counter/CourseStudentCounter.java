@@ -0,0 +1,147 @@
+package top.ooyyh.edusphere.counter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import top.ooyyh.edusphere.event.CourseEnrolledEvent;
+import top.ooyyh.edusphere.mapper.CourseMapper;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 课程学员数计数器
+ *
+ * 购买事务不再更新课程行：事务提交后只在内存中给课程的 LongAdder 加一（分段计数，并发购买互不争用），
+ * 定时任务每隔 flush-millis 把各课程累积的增量合并成一条批量 UPDATE 写回 course.student_count，
+ * 新课上线时的集中购买只在刷新时各写一次课程行。
+ * 每门课程记录已写入的累计值，写入失败时不前移，下次刷新连同新增量一起重试；应用关闭前会把剩余增量写完。
+ * 定时与 user_course 对账，纠正进程异常退出等原因丢失的增量。
+ */
+@Component
+public class CourseStudentCounter {
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Value("${edusphere.student-count.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    private final Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+    private final AtomicLong flushedDelta = new AtomicLong();
+    private volatile LocalDateTime lastFlushAt;
+    private volatile LocalDateTime lastReconcileAt;
+
+    /**
+     * 购买事务提交后累加
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseEnrolled(CourseEnrolledEvent event) {
+        if (event.getCourseId() != null) {
+            counters.computeIfAbsent(event.getCourseId(), id -> new Counter()).total.increment();
+        }
+    }
+
+    /**
+     * 把累积的增量批量写回课程表
+     */
+    @Scheduled(fixedDelayString = "${edusphere.student-count.flush-millis:300}")
+    public synchronized void flush() {
+        List<Integer> courseIds = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        for (Map.Entry<Integer, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long delta = counter.total.sum() - counter.flushed;
+            if (delta == 0) {
+                continue;
+            }
+            courseIds.add(entry.getKey());
+            deltas.add(delta);
+            if (courseIds.size() >= flushBatchSize) {
+                write(courseIds, deltas);
+                courseIds = new ArrayList<>();
+                deltas = new ArrayList<>();
+            }
+        }
+        if (!courseIds.isEmpty()) {
+            write(courseIds, deltas);
+        }
+        lastFlushAt = LocalDateTime.now();
+    }
+
+    /**
+     * 与 user_course 对账：先写完内存中的增量，再按关联表重新统计所有课程的学员数
+     */
+    @Scheduled(cron = "${edusphere.student-count.reconcile-cron:0 0 4 * * ?}")
+    public synchronized void reconcile() {
+        try {
+            flush();
+            courseMapper.reconcileStudentCounts();
+            lastReconcileAt = LocalDateTime.now();
+        } catch (Exception e) {
+            System.out.println("课程学员数对账失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 应用关闭前写完剩余增量
+     */
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+
+    /**
+     * 计数器统计
+     */
+    public Map<String, Object> stats() {
+        long pending = 0;
+        for (Counter counter : counters.values()) {
+            pending += counter.total.sum() - counter.flushed;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("courses", counters.size());
+        result.put("pendingDelta", pending);
+        result.put("flushedDelta", flushedDelta.get());
+        result.put("lastFlushAt", lastFlushAt);
+        result.put("lastReconcileAt", lastReconcileAt);
+        return result;
+    }
+
+    private void write(List<Integer> courseIds, List<Long> deltas) {
+        try {
+            List<Map<String, Object>> items = new ArrayList<>(courseIds.size());
+            for (int i = 0; i < courseIds.size(); i++) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("courseId", courseIds.get(i));
+                item.put("delta", deltas.get(i));
+                items.add(item);
+            }
+            courseMapper.addStudentCounts(items);
+            for (int i = 0; i < courseIds.size(); i++) {
+                counters.get(courseIds.get(i)).flushed += deltas.get(i);
+                flushedDelta.addAndGet(deltas.get(i));
+            }
+        } catch (Exception e) {
+            System.out.println("写入课程学员数失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 单门课程的计数：total 为事件累加的总数，flushed 为已写入数据库的部分（只在持有锁的刷新中修改）
+     */
+    private static final class Counter {
+        private final LongAdder total = new LongAdder();
+        private long flushed;
+    }
+}
@@ -0,0 +1,226 @@
+package top.ooyyh.edusphere.counter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import top.ooyyh.edusphere.entity.EntityCount;
+import top.ooyyh.edusphere.event.CourseChangedEvent;
+import top.ooyyh.edusphere.event.CourseEnrolledEvent;
+import top.ooyyh.edusphere.event.UserChangedEvent;
+import top.ooyyh.edusphere.mapper.EntityCountMapper;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 实体计数器：各状态的课程数、各角色的用户数、有效选课数
+ *
+ * 管理后台的统计不再加载整张课程表、用户表后取 size()：启动时用一条分组查询初始化，
+ * 之后由写路径发布的事件在事务提交后原地增减（新建课程、状态变化、注册、选课），统计接口直接读内存，
+ * 耗时与数据量无关。
+ * 删除课程或用户会级联删除选课记录和讲师的课程，影响的行数在应用中无法得知，删除后立即重新统计；
+ * 另外定时对账，纠正事件丢失（进程异常退出、绕过服务层直接改库）造成的偏差。
+ * 对账查询与并发写入之间的极短窗口内的变化可能被覆盖，下次对账时纠正。
+ */
+@Component
+public class EntityCounters {
+
+    private static final String KIND_COURSE = "course";
+    private static final String KIND_USER = "user";
+    private static final String KIND_ENROLLMENT = "enrollment";
+
+    @Autowired
+    private EntityCountMapper entityCountMapper;
+
+    private final Map<String, AtomicLong> courseCounts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> userCounts = new ConcurrentHashMap<>();
+    private final AtomicLong enrollmentCount = new AtomicLong();
+
+    private final AtomicLong appliedEventCount = new AtomicLong();
+    private final AtomicLong reconcileCount = new AtomicLong();
+    private volatile LocalDateTime lastReconcileAt;
+
+    @PostConstruct
+    public void init() {
+        reconcile();
+    }
+
+    /**
+     * 课程新建、状态变化后更新各状态的课程数；删除后重新统计
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+                add(courseCounts, event.getStatus(), 1);
+                break;
+            case STATUS_CHANGED:
+                if (event.getPreviousStatus() == null || event.getStatus() == null) {
+                    return;
+                }
+                if (event.getPreviousStatus().equals(event.getStatus())) {
+                    return;
+                }
+                add(courseCounts, event.getPreviousStatus(), -1);
+                add(courseCounts, event.getStatus(), 1);
+                break;
+            case DELETED:
+                reconcile();
+                return;
+            default:
+                return;
+        }
+        appliedEventCount.incrementAndGet();
+    }
+
+    /**
+     * 用户注册后累加对应角色的用户数；删除后重新统计
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getType() == UserChangedEvent.Type.DELETED) {
+            reconcile();
+            return;
+        }
+        add(userCounts, event.getRole(), 1);
+        appliedEventCount.incrementAndGet();
+    }
+
+    /**
+     * 选课事务提交后累加选课数
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseEnrolled(CourseEnrolledEvent event) {
+        enrollmentCount.incrementAndGet();
+        appliedEventCount.incrementAndGet();
+    }
+
+    /**
+     * 从数据库重新统计，覆盖内存中的计数
+     */
+    @Scheduled(cron = "${edusphere.entity-counters.reconcile-cron:0 */10 * * * ?}")
+    public synchronized void reconcile() {
+        try {
+            List<EntityCount> rows = entityCountMapper.countAll();
+            Map<String, Long> courses = new HashMap<>();
+            Map<String, Long> users = new HashMap<>();
+            long enrollments = 0;
+            for (EntityCount row : rows) {
+                long count = row.getCount() != null ? row.getCount() : 0;
+                if (KIND_COURSE.equals(row.getKind())) {
+                    courses.put(row.getName(), count);
+                } else if (KIND_USER.equals(row.getKind())) {
+                    users.put(row.getName(), count);
+                } else if (KIND_ENROLLMENT.equals(row.getKind())) {
+                    enrollments = count;
+                }
+            }
+            replace(courseCounts, courses);
+            replace(userCounts, users);
+            enrollmentCount.set(enrollments);
+            reconcileCount.incrementAndGet();
+            lastReconcileAt = LocalDateTime.now();
+        } catch (Exception e) {
+            System.out.println("实体计数对账失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 某状态的课程数
+     */
+    public long getCourseCount(String status) {
+        return get(courseCounts, status);
+    }
+
+    /**
+     * 课程总数
+     */
+    public long getTotalCourses() {
+        return sum(courseCounts);
+    }
+
+    /**
+     * 某角色的用户数
+     */
+    public long getUserCount(String role) {
+        return get(userCounts, role);
+    }
+
+    /**
+     * 用户总数
+     */
+    public long getTotalUsers() {
+        return sum(userCounts);
+    }
+
+    /**
+     * 有效选课数
+     */
+    public long getEnrollmentCount() {
+        return enrollmentCount.get();
+    }
+
+    /**
+     * 计数器统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("courses", snapshot(courseCounts));
+        result.put("users", snapshot(userCounts));
+        result.put("enrollments", enrollmentCount.get());
+        result.put("appliedEventCount", appliedEventCount.get());
+        result.put("reconcileCount", reconcileCount.get());
+        result.put("lastReconcileAt", lastReconcileAt);
+        return result;
+    }
+
+    private static void add(Map<String, AtomicLong> counts, String key, long delta) {
+        if (key != null) {
+            counts.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta);
+        }
+    }
+
+    private static long get(Map<String, AtomicLong> counts, String key) {
+        AtomicLong count = key != null ? counts.get(key) : null;
+        return count != null ? count.get() : 0;
+    }
+
+    private static long sum(Map<String, AtomicLong> counts) {
+        long total = 0;
+        for (AtomicLong count : counts.values()) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    /**
+     * 用统计结果覆盖计数，数据库中已没有的分组归零（保留键，避免与并发的增减竞争删除）
+     */
+    private static void replace(Map<String, AtomicLong> counts, Map<String, Long> values) {
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            if (entry.getKey() != null) {
+                counts.computeIfAbsent(entry.getKey(), k -> new AtomicLong()).set(entry.getValue());
+            }
+        }
+        for (Map.Entry<String, AtomicLong> entry : counts.entrySet()) {
+            if (!values.containsKey(entry.getKey())) {
+                entry.getValue().set(0);
+            }
+        }
+    }
+
+    private static Map<String, Long> snapshot(Map<String, AtomicLong> counts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : counts.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return result;
+    }
+}
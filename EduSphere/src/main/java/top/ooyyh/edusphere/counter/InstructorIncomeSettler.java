@@ -0,0 +1,163 @@
+package top.ooyyh.edusphere.counter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.ooyyh.edusphere.entity.InstructorIncome;
+import top.ooyyh.edusphere.entity.InstructorSettlement;
+import top.ooyyh.edusphere.mapper.InstructorIncomeMapper;
+import top.ooyyh.edusphere.mapper.UserBalanceMapper;
+import top.ooyyh.edusphere.utils.Money;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 讲师收入结算
+ *
+ * 购买事务只向 instructor_income 追加一条待结算收入（settlement_id 为空），不再更新讲师的余额行和台账行，
+ * 同一讲师的并发销售不会在这两行上排队。
+ * 定时任务每隔 interval-millis 在一个事务中：创建结算批次，领取一批待结算收入并标记批次ID，
+ * 按讲师汇总后一条语句累加台账、一条语句累加余额，并填写每条收入的累计值。
+ * 领取标记和入账在同一事务中提交或回滚，每条收入恰好入账一次；多个节点同时结算时，
+ * 已被其他事务领取的记录不会再被领取。
+ * 同一事务中本批购买也计入销售汇总（{@link SalesRollupUpdater}）。
+ */
+@Component
+public class InstructorIncomeSettler {
+
+    @Autowired
+    private InstructorIncomeMapper instructorIncomeMapper;
+
+    @Autowired
+    private UserBalanceMapper userBalanceMapper;
+
+    @Autowired
+    private SalesRollupUpdater salesRollupUpdater;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${edusphere.settlement.batch-size:1000}")
+    private int batchSize;
+
+    private final AtomicLong settledIncomeCount = new AtomicLong();
+    private final AtomicLong settlementCount = new AtomicLong();
+    private volatile LocalDateTime lastSettledAt;
+
+    /**
+     * 结算全部待结算收入，每批最多 batch-size 条
+     */
+    @Scheduled(fixedDelayString = "${edusphere.settlement.interval-millis:5000}")
+    public synchronized void settle() {
+        try {
+            int settled;
+            do {
+                Integer count = transactionTemplate.execute(status -> {
+                    int claimed = settleBatch();
+                    if (claimed == 0) {
+                        // 没有待结算收入，不保留空的结算批次
+                        status.setRollbackOnly();
+                    }
+                    return claimed;
+                });
+                settled = count != null ? count : 0;
+                if (settled > 0) {
+                    settledIncomeCount.addAndGet(settled);
+                    settlementCount.incrementAndGet();
+                }
+            } while (settled >= batchSize);
+            lastSettledAt = LocalDateTime.now();
+        } catch (Exception e) {
+            System.out.println("讲师收入结算失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 应用关闭前结算剩余收入
+     */
+    @PreDestroy
+    public void destroy() {
+        settle();
+    }
+
+    /**
+     * 结算统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settlementCount", settlementCount.get());
+        result.put("settledIncomeCount", settledIncomeCount.get());
+        result.put("lastSettledAt", lastSettledAt);
+        return result;
+    }
+
+    /**
+     * 在当前事务中结算一批收入
+     *
+     * @return 本批结算的收入记录数
+     */
+    private int settleBatch() {
+        InstructorSettlement settlement = new InstructorSettlement();
+        settlement.setCreatedAt(LocalDateTime.now());
+        instructorIncomeMapper.insertSettlement(settlement);
+        Integer settlementId = settlement.getId();
+
+        if (instructorIncomeMapper.claimUnsettled(settlementId, batchSize) == 0) {
+            return 0;
+        }
+        List<InstructorIncome> incomes = instructorIncomeMapper.getBySettlementId(settlementId);
+
+        // 按讲师汇总（保持首次出现的顺序）
+        Map<Integer, Money> amounts = new LinkedHashMap<>();
+        Map<Integer, Integer> counts = new HashMap<>();
+        Money totalAmount = Money.ZERO;
+        for (InstructorIncome income : incomes) {
+            amounts.merge(income.getInstructorId(), income.getIncomeAmount(), Money::add);
+            counts.merge(income.getInstructorId(), 1, Integer::sum);
+            totalAmount = totalAmount.add(income.getIncomeAmount());
+        }
+
+        // 每条收入的累计值 = 结算前台账累计 + 本批中该讲师截至这条的收入
+        Map<Integer, Money> runningTotals = new HashMap<>();
+        for (InstructorIncome ledger : instructorIncomeMapper.getLedgerTotalsForUpdate(amounts.keySet())) {
+            runningTotals.put(ledger.getInstructorId(), ledger.getTotalIncome());
+        }
+        for (InstructorIncome income : incomes) {
+            Money running = runningTotals.getOrDefault(income.getInstructorId(), Money.ZERO).add(income.getIncomeAmount());
+            runningTotals.put(income.getInstructorId(), running);
+            income.setTotalIncome(running);
+        }
+        instructorIncomeMapper.updateTotalIncomes(incomes);
+
+        List<Map<String, Object>> ledgerItems = new ArrayList<>(amounts.size());
+        List<Map<String, Object>> balanceItems = new ArrayList<>(amounts.size());
+        for (Map.Entry<Integer, Money> entry : amounts.entrySet()) {
+            Map<String, Object> ledgerItem = new LinkedHashMap<>();
+            ledgerItem.put("instructorId", entry.getKey());
+            ledgerItem.put("amount", entry.getValue());
+            ledgerItem.put("count", counts.get(entry.getKey()));
+            ledgerItems.add(ledgerItem);
+
+            Map<String, Object> balanceItem = new LinkedHashMap<>();
+            balanceItem.put("userId", entry.getKey());
+            balanceItem.put("amount", entry.getValue());
+            balanceItems.add(balanceItem);
+        }
+        instructorIncomeMapper.addToLedgers(ledgerItems);
+        userBalanceMapper.creditBalances(balanceItems);
+        instructorIncomeMapper.updateSettlementTotals(settlementId, amounts.size(), incomes.size(), totalAmount);
+        
+        // 本批购买计入按小时、按天的销售汇总
+        salesRollupUpdater.addSettlement(settlementId);
+        return incomes.size();
+    }
+}
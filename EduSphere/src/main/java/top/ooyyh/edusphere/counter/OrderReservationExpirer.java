@@ -0,0 +1,165 @@
+package top.ooyyh.edusphere.counter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.ooyyh.edusphere.entity.Order;
+import top.ooyyh.edusphere.mapper.OrderMapper;
+import top.ooyyh.edusphere.mapper.UserBalanceMapper;
+import top.ooyyh.edusphere.utils.HierarchicalTimingWheel;
+import top.ooyyh.edusphere.utils.Money;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 待支付订单过期释放
+ *
+ * 下单时冻结订单金额（frozen_balance），支付时转为扣款；超过 expires_at 仍未支付的订单由这里取消并释放冻结。
+ * 过期时间由分层时间轮在内存中跟踪，不轮询订单表；启动时从数据库恢复所有会过期的待支付订单，
+ * 已经过期的直接进入待释放队列。到期的订单按 expire-batch-size 分批，每批一个事务：
+ * 锁定仍为待支付且已过期的订单 → 一条语句取消 → 按用户汇总后一条语句释放冻结。
+ * 已支付或已取消的订单在锁定时被过滤掉，所以时间轮不需要支持删除。
+ */
+@Component
+public class OrderReservationExpirer {
+
+    // 时间轮每格 1 秒，每层 64 格：第 0 层约 1 分钟，第 1 层约 68 分钟，第 2 层约 3 天
+    private static final long TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 64;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private UserBalanceMapper userBalanceMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${edusphere.order.expire-batch-size:500}")
+    private int batchSize;
+
+    private final HierarchicalTimingWheel<Integer> wheel =
+            new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, System.currentTimeMillis());
+
+    // 已到期、等待释放的订单ID
+    private final Queue<Integer> dueOrders = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong expiredOrderCount = new AtomicLong();
+    private final AtomicLong releaseBatchCount = new AtomicLong();
+    private volatile LocalDateTime lastReleasedAt;
+
+    /**
+     * 启动时从数据库恢复待支付订单的过期时间
+     */
+    @PostConstruct
+    public void restore() {
+        try {
+            List<Order> orders = orderMapper.getPendingExpirations();
+            for (Order order : orders) {
+                schedule(order.getId(), order.getExpiresAt());
+            }
+            System.out.println("待支付订单过期任务已恢复: " + orders.size() + " 个");
+        } catch (Exception e) {
+            System.out.println("恢复待支付订单过期任务失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 登记订单的过期时间
+     */
+    public void schedule(Integer orderId, LocalDateTime expiresAt) {
+        long deadline = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (!wheel.add(orderId, deadline)) {
+            dueOrders.add(orderId);
+        }
+    }
+
+    /**
+     * 推进时间轮，分批释放到期订单
+     */
+    @Scheduled(fixedDelay = TICK_MS)
+    public synchronized void expire() {
+        wheel.advance(System.currentTimeMillis(), dueOrders::add);
+        while (!dueOrders.isEmpty()) {
+            List<Integer> batch = new ArrayList<>(Math.min(batchSize, dueOrders.size()));
+            Integer orderId;
+            while (batch.size() < batchSize && (orderId = dueOrders.poll()) != null) {
+                batch.add(orderId);
+            }
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                Integer released = transactionTemplate.execute(status -> release(batch, now));
+                expiredOrderCount.addAndGet(released != null ? released : 0);
+                releaseBatchCount.incrementAndGet();
+                lastReleasedAt = now;
+            } catch (Exception e) {
+                // 放回队列，下一格重试
+                dueOrders.addAll(batch);
+                System.out.println("释放过期订单失败: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * 在当前事务中取消订单并释放冻结的余额
+     *
+     * @param orderIds      订单ID
+     * @param expiredBefore 不为空时只处理此前已过期的订单
+     * @return 实际取消的订单数（已支付、已取消、未过期的订单不计）
+     */
+    public int release(Collection<Integer> orderIds, LocalDateTime expiredBefore) {
+        List<Order> orders = orderMapper.lockPendingOrders(orderIds, expiredBefore);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        List<Integer> lockedIds = new ArrayList<>(orders.size());
+        Map<Integer, Money> amounts = new LinkedHashMap<>();
+        for (Order order : orders) {
+            lockedIds.add(order.getId());
+            if (order.getReservedAmount() != null && order.getReservedAmount().isPositive()) {
+                amounts.merge(order.getUserId(), order.getReservedAmount(), Money::add);
+            }
+        }
+        orderMapper.cancelOrders(lockedIds);
+
+        if (!amounts.isEmpty()) {
+            List<Map<String, Object>> items = new ArrayList<>(amounts.size());
+            for (Map.Entry<Integer, Money> entry : amounts.entrySet()) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("userId", entry.getKey());
+                item.put("amount", entry.getValue());
+                items.add(item);
+            }
+            userBalanceMapper.releaseFrozenBalances(items);
+        }
+        return orders.size();
+    }
+
+    /**
+     * 过期释放统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pendingExpirations", wheel.size());
+        result.put("dueOrders", dueOrders.size());
+        result.put("expiredOrderCount", expiredOrderCount.get());
+        result.put("releaseBatchCount", releaseBatchCount.get());
+        result.put("lastReleasedAt", lastReleasedAt);
+        return result;
+    }
+}
@@ -0,0 +1,179 @@
+package top.ooyyh.edusphere.counter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.ooyyh.edusphere.mapper.SalesRollupMapper;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 销售汇总维护
+ *
+ * sales_rollup_hourly / sales_rollup_daily 按 (时间桶, 课程) 记录销售笔数、销售额、平台手续费和讲师收入，
+ * 仪表盘的区间统计只读汇总表，耗时与时间桶数成正比，不再随购买记录增长。
+ * 购买事务不写汇总表（热门课程的汇总行会让并发购买排队）：购买提交后由 {@link InstructorIncomeSettler}
+ * 领取它的收入记录，在同一个结算事务中把这一批购买按时间桶汇总后累加进来，每笔购买恰好计入一次，
+ * 汇总最多比购买晚一个结算周期。
+ *
+ * 重建按天切分，多个线程并行，每天一个事务：锁定当天的收入记录 → 删除当天的汇总 → 从购买记录重新生成。
+ * 锁定保证重建与结算互斥：正在结算的批次提交后重建才读取，重建提交前结算不能领取当天的记录，
+ * 所以重建不会漏算或重复计算，也可以在运行中的系统上执行。
+ * 重建与结算一样先锁收入记录、不锁购买记录，加锁顺序一致；重建当天时与新购买的锁冲突仍可能让数据库
+ * 判定死锁或锁等待超时，这类失败的事务已整体回滚，自动重试 rebuild-retries 次，仍失败的日期在结果中返回，重新执行即可。
+ */
+@Component
+public class SalesRollupUpdater {
+
+    @Autowired
+    private SalesRollupMapper salesRollupMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${edusphere.sales-rollup.rebuild-threads:4}")
+    private int rebuildThreads;
+
+    @Value("${edusphere.sales-rollup.rebuild-retries:3}")
+    private int rebuildRetries;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicLong appliedSettlementCount = new AtomicLong();
+    private final AtomicLong rebuiltDayCount = new AtomicLong();
+    private final AtomicLong retriedDayCount = new AtomicLong();
+    private volatile LocalDateTime lastRebuiltAt;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(rebuildThreads, rebuildThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "sales-rollup-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 在结算事务中把一个结算批次的购买记录累加到汇总表
+     */
+    public void addSettlement(Integer settlementId) {
+        salesRollupMapper.addSettlementHourly(settlementId);
+        salesRollupMapper.addSettlementDaily(settlementId);
+        appliedSettlementCount.incrementAndGet();
+    }
+
+    /**
+     * 重建 [from, to] 内每一天的汇总，按天并行
+     *
+     * @param from 起始日期，为空时从第一笔购买开始
+     * @param to   结束日期（含），为空时到今天
+     * @return 重建结果：天数、失败的日期、耗时
+     */
+    public synchronized Map<String, Object> rebuild(LocalDate from, LocalDate to) {
+        long start = System.currentTimeMillis();
+        if (to == null) {
+            to = LocalDate.now();
+        }
+        if (from == null) {
+            LocalDateTime firstPurchase = salesRollupMapper.getFirstPurchaseTime();
+            from = firstPurchase != null ? firstPurchase.toLocalDate() : to;
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("起始日期不能晚于结束日期");
+        }
+
+        List<LocalDate> days = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate chunk = day;
+            days.add(chunk);
+            futures.add(executor.submit(() -> rebuildDayWithRetry(chunk)));
+        }
+
+        List<String> failedDays = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+                rebuiltDayCount.incrementAndGet();
+            } catch (Exception e) {
+                failedDays.add(days.get(i).toString());
+                System.out.println("重建销售汇总失败: " + days.get(i) + " " + e.getMessage());
+            }
+        }
+        lastRebuiltAt = LocalDateTime.now();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", from);
+        result.put("to", to);
+        result.put("days", days.size());
+        result.put("failedDays", failedDays);
+        result.put("elapsedMillis", System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * 在独立事务中重建一天，因死锁或锁等待超时失败时重试
+     */
+    private void rebuildDayWithRetry(LocalDate day) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebuildDay(day));
+                return;
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= rebuildRetries) {
+                    throw e;
+                }
+                retriedDayCount.incrementAndGet();
+                System.out.println("重建销售汇总锁冲突，重试: " + day + " " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 在当前事务中重建一天的小时汇总和日汇总
+     */
+    private void rebuildDay(LocalDate day) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        salesRollupMapper.lockIncomes(dayStart, dayEnd);
+        salesRollupMapper.deleteHourly(dayStart, dayEnd);
+        salesRollupMapper.deleteDaily(day, day.plusDays(1));
+        salesRollupMapper.rebuildHourly(dayStart, dayEnd);
+        salesRollupMapper.rebuildDaily(dayStart, dayEnd);
+    }
+
+    /**
+     * 汇总维护统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("appliedSettlementCount", appliedSettlementCount.get());
+        result.put("rebuiltDayCount", rebuiltDayCount.get());
+        result.put("retriedDayCount", retriedDayCount.get());
+        result.put("lastRebuiltAt", lastRebuiltAt);
+        return result;
+    }
+}
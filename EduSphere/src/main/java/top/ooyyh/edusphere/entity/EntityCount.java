@@ -0,0 +1,14 @@
+package top.ooyyh.edusphere.entity;
+
+import lombok.Data;
+
+/**
+ * 实体计数的一行分组统计
+ * kind 为 course（按状态）、user（按角色）或 enrollment（有效的选课记录，name 为空）
+ */
+@Data
+public class EntityCount {
+    private String kind;
+    private String name;
+    private Long count;
+}
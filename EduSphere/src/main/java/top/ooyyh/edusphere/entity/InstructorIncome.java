@@ -4,8 +4,8 @@ import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.Data;
+import top.ooyyh.edusphere.utils.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -36,12 +36,17 @@ public class InstructorIncome {
     /**
      * 收入金额
      */
-    private BigDecimal incomeAmount;
+    private Money incomeAmount;
     
     /**
-     * 累计收入
+     * 累计收入（结算时填写）
      */
-    private BigDecimal totalIncome;
+    private Money totalIncome;
+    
+    /**
+     * 结算批次ID，null 表示尚未结算
+     */
+    private Integer settlementId;
     
     /**
      * 创建时间
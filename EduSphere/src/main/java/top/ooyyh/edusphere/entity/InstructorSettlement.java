@@ -0,0 +1,35 @@
+package top.ooyyh.edusphere.entity;
+
+import lombok.Data;
+import top.ooyyh.edusphere.utils.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * 讲师收入结算批次实体类
+ */
+@Data
+public class InstructorSettlement {
+    
+    private Integer id;
+    
+    /**
+     * 本批涉及的讲师数
+     */
+    private Integer instructorCount;
+    
+    /**
+     * 本批结算的收入记录数
+     */
+    private Integer incomeCount;
+    
+    /**
+     * 本批结算总金额
+     */
+    private Money totalAmount;
+    
+    /**
+     * 结算时间
+     */
+    private LocalDateTime createdAt;
+}
@@ -1,7 +1,7 @@
 package top.ooyyh.edusphere.entity;
 
 import lombok.Data;
-import java.math.BigDecimal;
+import top.ooyyh.edusphere.utils.Money;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -10,10 +10,12 @@ public class Order {
     private Integer id;
     private String orderNo;
     private Integer userId;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private String status;
     private String paymentMethod;
     private LocalDateTime paymentTime;
+    private Money reservedAmount;
+    private LocalDateTime expiresAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
@@ -1,7 +1,7 @@
 package top.ooyyh.edusphere.entity;
 
 import lombok.Data;
-import java.math.BigDecimal;
+import top.ooyyh.edusphere.utils.Money;
 import java.time.LocalDateTime;
 
 @Data
@@ -10,6 +10,6 @@ public class OrderItem {
     private Integer orderId;
     private Integer courseId;
     private String courseTitle;
-    private BigDecimal coursePrice;
+    private Money coursePrice;
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,32 @@
+package top.ooyyh.edusphere.entity;
+
+import lombok.Data;
+import top.ooyyh.edusphere.utils.Money;
+
+/**
+ * 购买前置数据（一次联表查询的结果，不对应数据表）
+ * 课程价格与状态、讲师、买家可用余额、买家是否已购买
+ */
+@Data
+public class PurchaseContext {
+    
+    private Integer courseId;
+    
+    private String courseTitle;
+    
+    private Money coursePrice;
+    
+    private String courseStatus;
+    
+    private Integer instructorId;
+    
+    /**
+     * 买家可用余额（余额减冻结金额），买家还没有余额记录时为 null
+     */
+    private Money buyerBalance;
+    
+    /**
+     * 买家是否已成功购买过该课程
+     */
+    private Boolean purchased;
+}
@@ -4,8 +4,8 @@ import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.Data;
+import top.ooyyh.edusphere.utils.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -36,27 +36,27 @@ public class PurchaseRecord {
     /**
      * 购买价格
      */
-    private BigDecimal purchasePrice;
+    private Money purchasePrice;
     
     /**
      * 购买前余额
      */
-    private BigDecimal balanceBefore;
+    private Money balanceBefore;
     
     /**
      * 购买后余额
      */
-    private BigDecimal balanceAfter;
+    private Money balanceAfter;
     
     /**
      * 讲师收入
      */
-    private BigDecimal instructorIncome;
+    private Money instructorIncome;
     
     /**
      * 平台手续费
      */
-    private BigDecimal platformFee;
+    private Money platformFee;
     
     /**
      * 购买状态：success-成功，failed-失败，refunded-已退款
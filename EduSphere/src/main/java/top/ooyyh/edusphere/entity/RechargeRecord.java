@@ -4,8 +4,8 @@ import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.Data;
+import top.ooyyh.edusphere.utils.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -26,17 +26,17 @@ public class RechargeRecord {
     /**
      * 充值金额
      */
-    private BigDecimal amount;
+    private Money amount;
     
     /**
      * 充值前余额
      */
-    private BigDecimal balanceBefore;
+    private Money balanceBefore;
     
     /**
      * 充值后余额
      */
-    private BigDecimal balanceAfter;
+    private Money balanceAfter;
     
     /**
      * 充值类型：manual-手动充值，system-系统充值
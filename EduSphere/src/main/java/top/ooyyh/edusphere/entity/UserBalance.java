@@ -4,8 +4,8 @@ import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.Data;
+import top.ooyyh.edusphere.utils.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -26,22 +26,22 @@ public class UserBalance {
     /**
      * 用户余额
      */
-    private BigDecimal balance;
+    private Money balance;
     
     /**
      * 冻结余额
      */
-    private BigDecimal frozenBalance;
+    private Money frozenBalance;
     
     /**
      * 累计充值
      */
-    private BigDecimal totalRecharge;
+    private Money totalRecharge;
     
     /**
      * 累计消费
      */
-    private BigDecimal totalConsumption;
+    private Money totalConsumption;
     
     /**
      * 创建时间
@@ -0,0 +1,51 @@
+package top.ooyyh.edusphere.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 课程变更事件
+ * 课程新建、修改、状态变化或删除后发布，课程目录快照等读模型据此增量更新
+ */
+public class CourseChangedEvent extends ApplicationEvent {
+
+    public enum Type {
+        CREATED, UPDATED, STATUS_CHANGED, DELETED
+    }
+
+    private final Integer courseId;
+    private final Type type;
+    private final String previousStatus;
+    private final String status;
+
+    public CourseChangedEvent(Object source, Integer courseId, Type type) {
+        this(source, courseId, type, null, null);
+    }
+
+    /**
+     * @param previousStatus 变更前的状态，新建时为空
+     * @param status         变更后的状态，删除时为空
+     */
+    public CourseChangedEvent(Object source, Integer courseId, Type type, String previousStatus, String status) {
+        super(source);
+        this.courseId = courseId;
+        this.type = type;
+        this.previousStatus = previousStatus;
+        this.status = status;
+    }
+
+    public Integer getCourseId() {
+        return courseId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
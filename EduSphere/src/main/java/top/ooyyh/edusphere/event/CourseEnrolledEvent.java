@@ -0,0 +1,21 @@
+package top.ooyyh.edusphere.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 学员加入课程事件
+ * 用户购买或领取课程、写入用户课程关联后发布，课程学员数据此累加
+ */
+public class CourseEnrolledEvent extends ApplicationEvent {
+
+    private final Integer courseId;
+
+    public CourseEnrolledEvent(Object source, Integer courseId) {
+        super(source);
+        this.courseId = courseId;
+    }
+
+    public Integer getCourseId() {
+        return courseId;
+    }
+}
@@ -0,0 +1,21 @@
+package top.ooyyh.edusphere.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 课程评分变更事件
+ * 评价新增、改分或审核状态变化、课程评价统计已更新后发布，课程表上的评分字段据此延迟同步
+ */
+public class CourseRatingChangedEvent extends ApplicationEvent {
+
+    private final Integer courseId;
+
+    public CourseRatingChangedEvent(Object source, Integer courseId) {
+        super(source);
+        this.courseId = courseId;
+    }
+
+    public Integer getCourseId() {
+        return courseId;
+    }
+}
@@ -0,0 +1,40 @@
+package top.ooyyh.edusphere.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 用户变更事件
+ * 用户注册或被删除后发布，实体计数器据此更新各角色的用户数
+ */
+public class UserChangedEvent extends ApplicationEvent {
+
+    public enum Type {
+        REGISTERED, DELETED
+    }
+
+    private final Integer userId;
+    private final String role;
+    private final Type type;
+
+    public UserChangedEvent(Object source, Integer userId, String role, Type type) {
+        super(source);
+        this.userId = userId;
+        this.role = role;
+        this.type = type;
+    }
+
+    /**
+     * 用户ID，注册时为空
+     */
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Type getType() {
+        return type;
+    }
+}
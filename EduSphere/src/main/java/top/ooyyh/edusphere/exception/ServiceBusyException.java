@@ -0,0 +1,12 @@
+package top.ooyyh.edusphere.exception;
+
+/**
+ * 服务繁忙异常
+ * 有界线程池或队列已满时抛出，由全局异常处理器转换为 503 响应，客户端稍后重试即可
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -4,6 +4,7 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import top.ooyyh.edusphere.entity.Cart;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -17,6 +18,9 @@ public interface CartMapper {
     // 从购物车移除
     int removeFromCart(@Param("userId") Integer userId, @Param("courseId") Integer courseId);
     
+    // 批量从购物车移除
+    int removeCoursesFromCart(@Param("userId") Integer userId, @Param("courseIds") Collection<Integer> courseIds);
+    
     // 清空购物车
     int clearCart(@Param("userId") Integer userId);
     
@@ -3,35 +3,31 @@ package top.ooyyh.edusphere.mapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import top.ooyyh.edusphere.entity.Course;
-import top.ooyyh.edusphere.request.CourseSearchRequest;
+import top.ooyyh.edusphere.entity.OrderItem;
+import top.ooyyh.edusphere.utils.Money;
 
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface CourseMapper {
     // 根据ID查询课程详情
     Course getCourseById(Integer id);
     
-    // 分页查询课程列表
-    List<Course> getCourseList(CourseSearchRequest request);
+    // 查询全部已发布课程（课程目录快照使用）
+    List<Course> getPublishedCourses();
     
-    // 查询课程总数
-    Integer getCourseCount(CourseSearchRequest request);
+    // 从评价统计表同步一批课程的评分
+    int syncRatingsFromStats(@Param("courseIds") List<Integer> courseIds);
     
-    // 查询热门课程
-    List<Course> getHotCourses(@Param("limit") Integer limit);
+    // 从评价统计表同步全部课程的评分
+    int syncAllRatingsFromStats();
     
-    // 查询最新课程
-    List<Course> getNewCourses(@Param("limit") Integer limit);
+    // 批量累加课程学员数（每项包含 courseId 和 delta）
+    int addStudentCounts(@Param("items") List<Map<String, Object>> items);
     
-    // 根据分类查询课程
-    List<Course> getCoursesByCategory(@Param("categoryId") Integer categoryId, @Param("limit") Integer limit);
-    
-    // 更新课程评分
-    void updateCourseRating(@Param("courseId") Integer courseId);
-    
-    // 更新课程学员数
-    void updateStudentCount(@Param("courseId") Integer courseId);
+    // 按用户课程关联表重新统计所有课程的学员数
+    int reconcileStudentCounts();
     
     // 根据讲师ID查询课程
     List<Course> getCoursesByInstructor(@Param("instructorId") Integer instructorId);
@@ -54,5 +50,9 @@ public interface CourseMapper {
     // 添加用户课程关系
     void insertUserCourse(@Param("userId") Integer userId, 
                          @Param("courseId") Integer courseId, 
-                         @Param("purchasePrice") java.math.BigDecimal purchasePrice);
+                         @Param("purchasePrice") Money purchasePrice);
+    
+    // 批量添加用户课程关系（items 为订单项：课程ID和成交价）
+    void insertUserCourses(@Param("userId") Integer userId,
+                           @Param("items") List<OrderItem> items);
 }
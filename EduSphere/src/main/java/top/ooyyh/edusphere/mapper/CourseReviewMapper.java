@@ -3,13 +3,38 @@ package top.ooyyh.edusphere.mapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import top.ooyyh.edusphere.entity.CourseReview;
+import top.ooyyh.edusphere.response.CourseReviewSummary;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
 public interface CourseReviewMapper {
-    // 根据课程ID查询评价列表
-    List<CourseReview> getReviewsByCourseId(@Param("courseId") Integer courseId);
+    // 按游标分页查询课程评价（sortBy：newest/likes/rating，after* 为上一页最后一条的排序键，首页传 null）
+    List<CourseReview> getReviewPage(@Param("courseId") Integer courseId,
+                                     @Param("sortBy") String sortBy,
+                                     @Param("afterTime") LocalDateTime afterTime,
+                                     @Param("afterValue") Integer afterValue,
+                                     @Param("afterId") Integer afterId,
+                                     @Param("limit") Integer limit);
+    
+    // 读取课程评价统计（评价数、平均分和各星级数量）
+    CourseReviewSummary getReviewSummary(@Param("courseId") Integer courseId);
+    
+    // 把一条评分计入（delta = 1）或移出（delta = -1）课程评价统计
+    int applyRatingDelta(@Param("courseId") Integer courseId, @Param("rating") Integer rating, @Param("delta") Integer delta);
+    
+    // 从评价表全量重算所有课程的评价统计
+    int recomputeReviewStats();
+    
+    // 按ID查询并锁定评价
+    CourseReview getReviewByIdForUpdate(@Param("reviewId") Integer reviewId);
+    
+    // 修改评价显示状态
+    int updateReviewStatus(@Param("reviewId") Integer reviewId, @Param("status") Integer status);
+    
+    // 查询并锁定用户对课程的评价
+    CourseReview getUserReviewForUpdate(@Param("courseId") Integer courseId, @Param("userId") Integer userId);
     
     // 添加课程评价
     int addReview(CourseReview review);
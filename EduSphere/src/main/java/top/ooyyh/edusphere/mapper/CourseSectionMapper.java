@@ -11,6 +11,9 @@ public interface CourseSectionMapper {
     // 根据课程ID查询章节
     List<CourseSection> getSectionsByCourseId(@Param("courseId") Integer courseId);
     
+    // 根据课程ID一次查询全部章节和课时
+    List<CourseSection> getOutlineByCourseId(@Param("courseId") Integer courseId);
+    
     // 根据ID查询章节
     CourseSection getSectionById(@Param("id") Integer id);
     
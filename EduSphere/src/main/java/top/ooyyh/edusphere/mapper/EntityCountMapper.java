@@ -0,0 +1,18 @@
+package top.ooyyh.edusphere.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import top.ooyyh.edusphere.entity.EntityCount;
+
+import java.util.List;
+
+/**
+ * 实体计数Mapper接口
+ */
+@Mapper
+public interface EntityCountMapper {
+
+    /**
+     * 一次查询统计各状态的课程数、各角色的用户数和有效选课数
+     */
+    List<EntityCount> countAll();
+}
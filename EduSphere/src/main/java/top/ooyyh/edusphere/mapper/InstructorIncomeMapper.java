@@ -4,9 +4,13 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import top.ooyyh.edusphere.entity.InstructorIncome;
+import top.ooyyh.edusphere.entity.InstructorSettlement;
+import top.ooyyh.edusphere.response.InstructorIncomeSummary;
+import top.ooyyh.edusphere.utils.Money;
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 讲师收入记录Mapper接口
@@ -20,9 +24,58 @@ public interface InstructorIncomeMapper extends BaseMapper<InstructorIncome> {
     List<InstructorIncome> getByInstructorId(@Param("instructorId") Integer instructorId);
     
     /**
-     * 根据讲师ID获取总收入
+     * 讲师收入概况（已结算 + 待结算）
      */
-    BigDecimal getTotalIncomeByInstructorId(@Param("instructorId") Integer instructorId);
+    InstructorIncomeSummary getIncomeSummary(@Param("instructorId") Integer instructorId);
+    
+    /**
+     * 创建结算批次
+     */
+    int insertSettlement(InstructorSettlement settlement);
+    
+    /**
+     * 按买家对这些课程的购买记录批量追加待结算收入
+     */
+    int insertFromPurchases(@Param("userId") Integer userId,
+                            @Param("courseIds") Collection<Integer> courseIds);
+    
+    /**
+     * 按收入ID顺序领取最多 limit 条待结算收入，标记为该结算批次
+     */
+    int claimUnsettled(@Param("settlementId") Integer settlementId,
+                       @Param("limit") int limit);
+    
+    /**
+     * 获取结算批次包含的收入记录
+     */
+    List<InstructorIncome> getBySettlementId(@Param("settlementId") Integer settlementId);
+    
+    /**
+     * 锁定并读取讲师台账的累计收入
+     *
+     * @return 只填写 instructorId、totalIncome，没有台账行的讲师不返回
+     */
+    List<InstructorIncome> getLedgerTotalsForUpdate(@Param("instructorIds") Collection<Integer> instructorIds);
+    
+    /**
+     * 批量填写收入记录的累计收入
+     */
+    int updateTotalIncomes(@Param("items") List<InstructorIncome> items);
+    
+    /**
+     * 批量累加讲师台账（累计收入和销售笔数）
+     *
+     * @param items 每项包含 instructorId、amount、count
+     */
+    int addToLedgers(@Param("items") List<Map<String, Object>> items);
+    
+    /**
+     * 写入结算批次的汇总
+     */
+    int updateSettlementTotals(@Param("settlementId") Integer settlementId,
+                               @Param("instructorCount") int instructorCount,
+                               @Param("incomeCount") int incomeCount,
+                               @Param("totalAmount") Money totalAmount);
     
     /**
      * 根据讲师ID获取收入记录（分页）
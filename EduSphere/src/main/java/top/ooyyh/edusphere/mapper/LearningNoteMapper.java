@@ -49,4 +49,9 @@ public interface LearningNoteMapper extends BaseMapper<LearningNote> {
      * 获取课程公开笔记
      */
     List<LearningNote> getPublicNotes(@Param("courseId") Integer courseId, @Param("limit") Integer limit);
+
+    /**
+     * 统计用户在课程中的笔记数
+     */
+    int countCourseNotes(@Param("courseId") Integer courseId, @Param("userId") Integer userId);
 }
@@ -11,6 +11,9 @@ public interface OrderItemMapper {
     // 添加订单项
     int addOrderItem(OrderItem orderItem);
     
+    // 批量添加订单项
+    int addOrderItems(@Param("items") List<OrderItem> items);
+    
     // 根据订单ID查询订单项
     List<OrderItem> getOrderItemsByOrderId(@Param("orderId") Integer orderId);
 }
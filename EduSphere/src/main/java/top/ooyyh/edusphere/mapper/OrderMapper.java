@@ -4,6 +4,8 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import top.ooyyh.edusphere.entity.Order;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -22,4 +24,19 @@ public interface OrderMapper {
     
     // 更新订单状态
     int updateOrderStatus(@Param("orderId") Integer orderId, @Param("status") String status);
+    
+    // 标记订单已支付（仅待支付的订单），返回影响行数
+    int markOrderPaid(@Param("orderId") Integer orderId,
+                      @Param("paymentMethod") String paymentMethod,
+                      @Param("paymentTime") LocalDateTime paymentTime);
+    
+    // 锁定一批待支付订单（expiredBefore 不为空时只取此前已过期的）
+    List<Order> lockPendingOrders(@Param("orderIds") Collection<Integer> orderIds,
+                                  @Param("expiredBefore") LocalDateTime expiredBefore);
+    
+    // 批量取消待支付订单
+    int cancelOrders(@Param("orderIds") Collection<Integer> orderIds);
+    
+    // 获取所有会过期的待支付订单（只含ID和过期时间）
+    List<Order> getPendingExpirations();
 }
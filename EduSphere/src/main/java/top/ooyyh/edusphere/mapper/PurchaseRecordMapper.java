@@ -3,8 +3,10 @@ package top.ooyyh.edusphere.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import top.ooyyh.edusphere.entity.PurchaseContext;
 import top.ooyyh.edusphere.entity.PurchaseRecord;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,6 +25,29 @@ public interface PurchaseRecordMapper extends BaseMapper<PurchaseRecord> {
      */
     List<PurchaseRecord> getByInstructorId(@Param("instructorId") Integer instructorId);
     
+    /**
+     * 一次查询获取购买所需的课程、买家余额和已购买状态
+     */
+    PurchaseContext getPurchaseContext(@Param("userId") Integer userId,
+                                       @Param("courseId") Integer courseId);
+    
+    /**
+     * 一次查询获取多门课程的购买前置数据
+     */
+    List<PurchaseContext> getPurchaseContexts(@Param("userId") Integer userId,
+                                              @Param("courseIds") Collection<Integer> courseIds);
+    
+    /**
+     * 一次查询获取购物车中课程的购买前置数据，courseIds 为空时取整个购物车
+     */
+    List<PurchaseContext> getCartPurchaseContexts(@Param("userId") Integer userId,
+                                                  @Param("courseIds") Collection<Integer> courseIds);
+    
+    /**
+     * 批量创建购买记录
+     */
+    int insertBatch(@Param("items") List<PurchaseRecord> items);
+    
     /**
      * 根据用户ID和课程ID获取购买记录
      */
@@ -0,0 +1,91 @@
+package top.ooyyh.edusphere.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import top.ooyyh.edusphere.response.SalesBucket;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 销售汇总Mapper接口
+ *
+ * 汇总只统计已结算的收入对应的购买记录，按购买时间分桶。
+ * 查询条件中 courseId、instructorId 为空时不过滤；日期区间左闭右开。
+ */
+@Mapper
+public interface SalesRollupMapper {
+
+    /**
+     * 把一个结算批次的购买记录累加到小时汇总
+     */
+    int addSettlementHourly(@Param("settlementId") Integer settlementId);
+
+    /**
+     * 把一个结算批次的购买记录累加到日汇总
+     */
+    int addSettlementDaily(@Param("settlementId") Integer settlementId);
+
+    /**
+     * 锁定购买时间在区间内的收入记录，重建期间结算任务不能领取或结算这些记录。
+     * 只锁收入记录，与结算任务的加锁顺序一致
+     */
+    List<Integer> lockIncomes(@Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to);
+
+    int deleteHourly(@Param("from") LocalDateTime from,
+                     @Param("to") LocalDateTime to);
+
+    int deleteDaily(@Param("from") LocalDate from,
+                    @Param("to") LocalDate to);
+
+    /**
+     * 从购买记录重新生成区间内的小时汇总
+     */
+    int rebuildHourly(@Param("from") LocalDateTime from,
+                      @Param("to") LocalDateTime to);
+
+    /**
+     * 从购买记录重新生成区间内的日汇总
+     */
+    int rebuildDaily(@Param("from") LocalDateTime from,
+                     @Param("to") LocalDateTime to);
+
+    /**
+     * 最早的购买时间，没有购买记录时为 null
+     */
+    LocalDateTime getFirstPurchaseTime();
+
+    /**
+     * 区间合计，from、to 为空时不限
+     */
+    SalesBucket getTotals(@Param("courseId") Integer courseId,
+                          @Param("instructorId") Integer instructorId,
+                          @Param("from") LocalDate from,
+                          @Param("to") LocalDate to);
+
+    /**
+     * 按天的销售趋势，没有销售的日期不返回
+     */
+    List<SalesBucket> getDailySeries(@Param("courseId") Integer courseId,
+                                     @Param("instructorId") Integer instructorId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    /**
+     * 按小时的销售趋势，没有销售的小时不返回
+     */
+    List<SalesBucket> getHourlySeries(@Param("courseId") Integer courseId,
+                                      @Param("instructorId") Integer instructorId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    /**
+     * 区间内按课程的合计，按销售额从高到低
+     */
+    List<SalesBucket> getCourseTotals(@Param("instructorId") Integer instructorId,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to,
+                                      @Param("limit") int limit);
+}
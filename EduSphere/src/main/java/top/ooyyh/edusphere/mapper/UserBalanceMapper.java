@@ -4,8 +4,10 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import top.ooyyh.edusphere.entity.UserBalance;
+import top.ooyyh.edusphere.utils.Money;
 
-import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 用户余额Mapper接口
@@ -22,19 +24,51 @@ public interface UserBalanceMapper extends BaseMapper<UserBalance> {
      * 更新用户余额
      */
     int updateBalance(@Param("userId") Integer userId, 
-                     @Param("balance") BigDecimal balance,
-                     @Param("totalRecharge") BigDecimal totalRecharge,
-                     @Param("totalConsumption") BigDecimal totalConsumption);
+                     @Param("balance") Money balance,
+                     @Param("totalRecharge") Money totalRecharge,
+                     @Param("totalConsumption") Money totalConsumption);
     
     /**
      * 增加用户余额
      */
     int addBalance(@Param("userId") Integer userId, 
-                  @Param("amount") BigDecimal amount);
+                  @Param("amount") Money amount);
     
     /**
-     * 减少用户余额
+     * 批量增加用户余额，余额记录不存在时创建
+     *
+     * @param items 每项包含 userId、amount
+     */
+    int creditBalances(@Param("items") List<Map<String, Object>> items);
+    
+    /**
+     * 减少用户余额，可用余额不足时不扣减
+     *
+     * @return 影响行数，0 表示余额不足（或没有余额记录）
      */
     int subtractBalance(@Param("userId") Integer userId, 
-                       @Param("amount") BigDecimal amount);
+                       @Param("amount") Money amount);
+    
+    /**
+     * 冻结余额，可用余额不足时不冻结
+     *
+     * @return 影响行数，0 表示余额不足（或没有余额记录）
+     */
+    int freezeBalance(@Param("userId") Integer userId,
+                      @Param("amount") Money amount);
+    
+    /**
+     * 把冻结的金额转为扣款
+     *
+     * @return 影响行数，0 表示冻结金额不足
+     */
+    int captureFrozenBalance(@Param("userId") Integer userId,
+                             @Param("amount") Money amount);
+    
+    /**
+     * 批量释放冻结金额
+     *
+     * @param items 每项包含 userId、amount，每个用户只能出现一次
+     */
+    int releaseFrozenBalances(@Param("items") List<Map<String, Object>> items);
 }
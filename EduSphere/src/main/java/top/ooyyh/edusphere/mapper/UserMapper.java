@@ -1,6 +1,7 @@
 package top.ooyyh.edusphere.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import top.ooyyh.edusphere.entity.User;
 import top.ooyyh.edusphere.request.UserLoginRequest;
 import top.ooyyh.edusphere.request.UserRegisterRequest;
@@ -12,13 +13,17 @@ public interface UserMapper {
     // 判断用户是否存在
     Boolean isUserExist(String userName);
 
-    User getUserByNamePassRole(UserLoginRequest user);
+    // 根据用户名和角色获取启用状态的用户（密码在服务层校验）
+    User getUserByNameRole(UserLoginRequest user);
 
     int register(UserRegisterRequest user);
 
     // 根据ID获取用户信息
     User getUserById(Integer id);
 
+    // 根据ID获取鉴权所需的身份信息（仅ID、用户名、角色、状态）
+    User getUserIdentityById(Integer id);
+
     // 根据用户名获取用户信息
     User getUserByUsername(String username);
 
@@ -27,6 +32,14 @@ public interface UserMapper {
 
     // 更新用户信息
     void updateUser(User user);
+
+    // 密码未被修改时更新为新的哈希
+    int updatePasswordIfUnchanged(@Param("id") Integer id,
+                                  @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
+
+    // 更新用户状态
+    int updateUserStatus(@Param("id") Integer id, @Param("status") Integer status);
     
     // 获取所有用户
     List<User> getAllUsers();
@@ -2,15 +2,24 @@ package top.ooyyh.edusphere.request;
 
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class CourseSearchRequest {
     private String keyword;
     private String category;
     private String level;
     private String priceRange;
+    // 任意价格区间（含两端），传了就优先于 priceRange
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
     private String sortBy;
     private Integer pageNum = 1;
     private Integer pageSize = 12;
+    // 游标分页：传上一页返回的 nextCursor，此时忽略 pageNum
+    private String cursor;
+    // 是否返回各筛选项的课程数，翻页时不需要
+    private Boolean facets;
     
     // 计算offset
     public Integer getOffset() {
@@ -0,0 +1,58 @@
+package top.ooyyh.edusphere.response;
+
+import lombok.Data;
+import top.ooyyh.edusphere.entity.Course;
+import top.ooyyh.edusphere.entity.CourseSection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 课程详情页DTO（一次请求返回详情页需要的全部数据）
+ *
+ * 除课程本身外，各部分并行加载，任一部分失败或超时时该字段为 null，并记入 unavailableParts，
+ * 前端可以只对这部分单独重试或降级展示。未登录时与用户相关的字段为 null。
+ */
+@Data
+public class CoursePageResponse {
+
+    /**
+     * 课程信息
+     */
+    private Course course;
+
+    /**
+     * 课程大纲（章节和课时）
+     */
+    private List<CourseSection> outline;
+
+    /**
+     * 评价概况
+     */
+    private CourseReviewSummary reviewSummary;
+
+    /**
+     * 当前用户是否已购买
+     */
+    private Boolean purchased;
+
+    /**
+     * 当前用户是否已收藏
+     */
+    private Boolean favorited;
+
+    /**
+     * 当前用户的学习进度
+     */
+    private CourseProgressResponse progress;
+
+    /**
+     * 当前用户在本课程的笔记数
+     */
+    private Integer noteCount;
+
+    /**
+     * 加载失败或超时的部分
+     */
+    private List<String> unavailableParts = new ArrayList<>();
+}
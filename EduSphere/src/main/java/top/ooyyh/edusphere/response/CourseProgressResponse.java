@@ -0,0 +1,37 @@
+package top.ooyyh.edusphere.response;
+
+import lombok.Data;
+
+/**
+ * 课程进度响应DTO
+ */
+@Data
+public class CourseProgressResponse {
+
+    /**
+     * 课程ID
+     */
+    private Integer courseId;
+
+    /**
+     * 课时总数
+     */
+    private Integer totalLessons;
+
+    /**
+     * 已完成课时数
+     */
+    private Integer completedLessons;
+
+    /**
+     * 完成百分比（0-100）
+     */
+    private Integer progress;
+
+    public CourseProgressResponse(Integer courseId, Integer totalLessons, Integer completedLessons) {
+        this.courseId = courseId;
+        this.totalLessons = totalLessons;
+        this.completedLessons = completedLessons;
+        this.progress = totalLessons > 0 ? Math.round((completedLessons * 100.0f) / totalLessons) : 0;
+    }
+}
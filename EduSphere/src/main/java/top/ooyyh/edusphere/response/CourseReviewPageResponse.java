@@ -0,0 +1,20 @@
+package top.ooyyh.edusphere.response;
+
+import lombok.Data;
+import top.ooyyh.edusphere.entity.CourseReview;
+
+import java.util.List;
+
+@Data
+public class CourseReviewPageResponse {
+    private List<CourseReview> reviews;
+    // 下一页游标，没有更多评价时为 null
+    private String nextCursor;
+    // 评价统计，只在第一页返回
+    private CourseReviewSummary summary;
+    
+    public CourseReviewPageResponse(List<CourseReview> reviews, String nextCursor) {
+        this.reviews = reviews;
+        this.nextCursor = nextCursor;
+    }
+}
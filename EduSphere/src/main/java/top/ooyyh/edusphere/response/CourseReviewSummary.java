@@ -0,0 +1,38 @@
+package top.ooyyh.edusphere.response;
+
+import lombok.Data;
+import top.ooyyh.edusphere.entity.CourseReview;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 课程评价概况DTO
+ */
+@Data
+public class CourseReviewSummary {
+
+    /**
+     * 评价数
+     */
+    private Integer reviewCount;
+
+    /**
+     * 平均评分（保留一位小数）
+     */
+    private BigDecimal averageRating;
+
+    /**
+     * 各星级评价数
+     */
+    private Integer fiveStarCount;
+    private Integer fourStarCount;
+    private Integer threeStarCount;
+    private Integer twoStarCount;
+    private Integer oneStarCount;
+
+    /**
+     * 最新的几条评价，完整列表走评价分页接口
+     */
+    private List<CourseReview> recentReviews;
+}
@@ -4,6 +4,7 @@ import lombok.Data;
 import top.ooyyh.edusphere.entity.Course;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 public class CourseSearchResponse {
@@ -11,6 +12,10 @@ public class CourseSearchResponse {
     private Integer total;
     private Integer pageNum;
     private Integer pageSize;
+    // 下一页游标，没有更多结果时为 null
+    private String nextCursor;
+    // 各筛选项的课程数：维度（category/level/price）-> 选项 -> 课程数，未请求时为 null
+    private Map<String, Map<String, Integer>> facets;
     
     public CourseSearchResponse(List<Course> courses, Integer total, Integer pageNum, Integer pageSize) {
         this.courses = courses;
@@ -0,0 +1,38 @@
+package top.ooyyh.edusphere.response;
+
+import lombok.Data;
+import top.ooyyh.edusphere.utils.Money;
+
+/**
+ * 讲师收入概况DTO
+ *
+ * 每笔销售先记为待结算收入，由结算任务定时批量计入讲师余额。
+ */
+@Data
+public class InstructorIncomeSummary {
+
+    /**
+     * 总收入（已结算 + 待结算）
+     */
+    private Money totalIncome;
+
+    /**
+     * 已结算收入（已计入余额）
+     */
+    private Money settledIncome;
+
+    /**
+     * 已结算的销售笔数
+     */
+    private Integer settledCount;
+
+    /**
+     * 待结算收入
+     */
+    private Money pendingSettlement;
+
+    /**
+     * 待结算的销售笔数
+     */
+    private Integer pendingCount;
+}
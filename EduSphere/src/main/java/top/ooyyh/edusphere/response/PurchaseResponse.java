@@ -1,8 +1,8 @@
 package top.ooyyh.edusphere.response;
 
 import lombok.Data;
+import top.ooyyh.edusphere.utils.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -29,12 +29,12 @@ public class PurchaseResponse {
     /**
      * 购买价格
      */
-    private BigDecimal purchasePrice;
+    private Money purchasePrice;
     
     /**
      * 购买后余额
      */
-    private BigDecimal balanceAfter;
+    private Money balanceAfter;
     
     /**
      * 购买时间
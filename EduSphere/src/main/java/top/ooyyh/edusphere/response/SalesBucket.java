@@ -0,0 +1,52 @@
+package top.ooyyh.edusphere.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+import top.ooyyh.edusphere.utils.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * 销售汇总DTO
+ *
+ * 按时间分桶时 bucket 为小时或日期的起点，按课程汇总时 courseId 为课程ID，合计时两者都为空。
+ */
+@Data
+public class SalesBucket {
+
+    /**
+     * 时间桶起点
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime bucket;
+
+    /**
+     * 课程ID
+     */
+    private Integer courseId;
+
+    /**
+     * 课程标题
+     */
+    private String courseTitle;
+
+    /**
+     * 销售笔数
+     */
+    private Integer saleCount;
+
+    /**
+     * 销售额
+     */
+    private Money grossAmount;
+
+    /**
+     * 平台手续费
+     */
+    private Money platformFee;
+
+    /**
+     * 讲师收入
+     */
+    private Money instructorIncome;
+}
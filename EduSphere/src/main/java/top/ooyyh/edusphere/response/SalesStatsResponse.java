@@ -0,0 +1,46 @@
+package top.ooyyh.edusphere.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 销售统计DTO（读销售汇总表）
+ */
+@Data
+public class SalesStatsResponse {
+
+    /**
+     * 起始日期
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate from;
+
+    /**
+     * 结束日期（含）
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate to;
+
+    /**
+     * 趋势粒度：day-按天，hour-按小时
+     */
+    private String granularity;
+
+    /**
+     * 区间合计
+     */
+    private SalesBucket totals;
+
+    /**
+     * 销售趋势，没有销售的时间桶不返回
+     */
+    private List<SalesBucket> series;
+
+    /**
+     * 按课程的合计，按销售额从高到低
+     */
+    private List<SalesBucket> courses;
+}
@@ -1,8 +1,7 @@
 package top.ooyyh.edusphere.response;
 
 import lombok.Data;
-
-import java.math.BigDecimal;
+import top.ooyyh.edusphere.utils.Money;
 
 /**
  * 用户余额响应DTO
@@ -18,25 +17,25 @@ public class UserBalanceResponse {
     /**
      * 用户余额
      */
-    private BigDecimal balance;
+    private Money balance;
     
     /**
      * 冻结余额
      */
-    private BigDecimal frozenBalance;
+    private Money frozenBalance;
     
     /**
      * 累计充值
      */
-    private BigDecimal totalRecharge;
+    private Money totalRecharge;
     
     /**
      * 累计消费
      */
-    private BigDecimal totalConsumption;
+    private Money totalConsumption;
     
     /**
      * 可用余额
      */
-    private BigDecimal availableBalance;
+    private Money availableBalance;
 }
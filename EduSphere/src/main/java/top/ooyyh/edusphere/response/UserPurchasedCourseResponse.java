@@ -1,9 +1,8 @@
 package top.ooyyh.edusphere.response;
 
 import lombok.Data;
-import top.ooyyh.edusphere.entity.PurchaseRecord;
+import top.ooyyh.edusphere.utils.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -36,27 +35,27 @@ public class UserPurchasedCourseResponse {
     /**
      * 购买价格
      */
-    private BigDecimal purchasePrice;
+    private Money purchasePrice;
     
     /**
      * 购买前余额
      */
-    private BigDecimal balanceBefore;
+    private Money balanceBefore;
     
     /**
      * 购买后余额
      */
-    private BigDecimal balanceAfter;
+    private Money balanceAfter;
     
     /**
      * 讲师收入
      */
-    private BigDecimal instructorIncome;
+    private Money instructorIncome;
     
     /**
      * 平台手续费
      */
-    private BigDecimal platformFee;
+    private Money platformFee;
     
     /**
      * 购买状态
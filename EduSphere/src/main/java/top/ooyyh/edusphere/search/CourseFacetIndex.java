@@ -0,0 +1,191 @@
+package top.ooyyh.edusphere.search;
+
+import org.roaringbitmap.RoaringBitmap;
+import top.ooyyh.edusphere.entity.Course;
+import top.ooyyh.edusphere.request.CourseSearchRequest;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 课程筛选位图索引
+ *
+ * 对已发布课程的 ID 按分类、难度、免费/付费、价格区间各建一个压缩位图（Roaring），
+ * 筛选和每个选项的课程数都通过位图求交得到，不需要额外查询。
+ * 随课程目录快照一起构建，课程发布、下架、改价后随快照一起替换，构建完成后不再修改。
+ */
+public final class CourseFacetIndex {
+
+    /**
+     * 价格区间，与原来固定的 priceRange 选项一致，两端都包含
+     */
+    private static final String[] PRICE_BANDS = {"0-100", "100-300", "300-500", "500+"};
+    private static final double[][] PRICE_BAND_BOUNDS = {
+            {0, 100}, {100, 300}, {300, 500}, {Math.nextUp(500.0), Double.POSITIVE_INFINITY}
+    };
+
+    private static final String FREE = "free";
+    private static final String PAID = "paid";
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<String, RoaringBitmap> byLevel = new HashMap<>();
+    private final RoaringBitmap free = new RoaringBitmap();
+    private final RoaringBitmap paid = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byPriceBand = new LinkedHashMap<>();
+
+    // 按价格升序排列的课程 ID 和价格，用于任意价格区间
+    private final int[] idsByPrice;
+    private final double[] sortedPrices;
+
+    public CourseFacetIndex(Collection<Course> courses) {
+        Course[] byPrice = courses.toArray(new Course[0]);
+        Arrays.sort(byPrice, Comparator.comparingDouble(CourseFacetIndex::price));
+        idsByPrice = new int[byPrice.length];
+        sortedPrices = new double[byPrice.length];
+
+        for (int i = 0; i < byPrice.length; i++) {
+            Course course = byPrice[i];
+            int id = course.getId();
+            idsByPrice[i] = id;
+            sortedPrices[i] = price(course);
+
+            all.add(id);
+            if (course.getCategory() != null && course.getCategory().getSlug() != null) {
+                byCategory.computeIfAbsent(course.getCategory().getSlug(), k -> new RoaringBitmap()).add(id);
+            }
+            if (course.getLevel() != null) {
+                byLevel.computeIfAbsent(course.getLevel(), k -> new RoaringBitmap()).add(id);
+            }
+            (Boolean.TRUE.equals(course.getIsFree()) ? free : paid).add(id);
+        }
+        for (int i = 0; i < PRICE_BANDS.length; i++) {
+            byPriceBand.put(PRICE_BANDS[i], priceBetween(PRICE_BAND_BOUNDS[i][0], PRICE_BAND_BOUNDS[i][1]));
+        }
+        all.runOptimize();
+        free.runOptimize();
+        paid.runOptimize();
+    }
+
+    /**
+     * 各筛选项的课程数。
+     * 每个维度统计时应用其他维度的筛选条件、不应用自己的，这样切换同一维度的选项时看到的数字就是切换后的结果数。
+     *
+     * @param matches 关键词命中的课程，null 表示没有关键词
+     */
+    public Map<String, Map<String, Integer>> count(RoaringBitmap matches, CourseSearchRequest request) {
+        RoaringBitmap base = matches != null ? RoaringBitmap.and(matches, all) : all;
+        RoaringBitmap category = hasText(request.getCategory()) ? bitmap(byCategory, request.getCategory()) : null;
+        RoaringBitmap level = hasText(request.getLevel()) ? bitmap(byLevel, request.getLevel()) : null;
+        RoaringBitmap price = priceFilter(request);
+
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        facets.put("category", count(intersect(base, level, price), byCategory));
+        facets.put("level", count(intersect(base, category, price), byLevel));
+
+        RoaringBitmap withoutPrice = intersect(base, category, level);
+        Map<String, Integer> priceCounts = new LinkedHashMap<>();
+        priceCounts.put(FREE, RoaringBitmap.andCardinality(withoutPrice, free));
+        priceCounts.put(PAID, RoaringBitmap.andCardinality(withoutPrice, paid));
+        priceCounts.putAll(count(withoutPrice, byPriceBand));
+        facets.put("price", priceCounts);
+        return facets;
+    }
+
+    /**
+     * 价格在 [min, max] 之间的课程
+     */
+    public RoaringBitmap priceBetween(double min, double max) {
+        int from = lowerBound(min, false);
+        int to = lowerBound(max, true);
+        RoaringBitmap result = new RoaringBitmap();
+        if (from < to) {
+            result.add(Arrays.copyOfRange(idsByPrice, from, to));
+        }
+        return result;
+    }
+
+    /**
+     * 请求中的价格条件：priceRange 为 free 时按免费标记筛选，其余 priceRange 和 minPrice/maxPrice 按价格区间筛选
+     */
+    private RoaringBitmap priceFilter(CourseSearchRequest request) {
+        if (FREE.equals(request.getPriceRange())) {
+            return free;
+        }
+        double[] bounds = priceBounds(request);
+        return bounds != null ? priceBetween(bounds[0], bounds[1]) : null;
+    }
+
+    /**
+     * 请求中的价格区间 {min, max}，没有价格条件或 priceRange 为 free 时返回 null。
+     * 同时传了 priceRange 和 minPrice/maxPrice 时以 minPrice/maxPrice 为准。
+     */
+    static double[] priceBounds(CourseSearchRequest request) {
+        if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+            return new double[]{
+                    request.getMinPrice() != null ? request.getMinPrice().doubleValue() : Double.NEGATIVE_INFINITY,
+                    request.getMaxPrice() != null ? request.getMaxPrice().doubleValue() : Double.POSITIVE_INFINITY
+            };
+        }
+        String priceRange = request.getPriceRange();
+        for (int i = 0; i < PRICE_BANDS.length; i++) {
+            if (PRICE_BANDS[i].equals(priceRange)) {
+                return PRICE_BAND_BOUNDS[i].clone();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 二分查找：第一个价格不小于 value（inclusive 为 true 时为大于 value）的下标
+     */
+    private int lowerBound(double value, boolean inclusive) {
+        int low = 0;
+        int high = sortedPrices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPrices[mid] < value || (inclusive && sortedPrices[mid] == value)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Map<String, Integer> count(RoaringBitmap base, Map<String, RoaringBitmap> values) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, RoaringBitmap> entry : values.entrySet()) {
+            counts.put(entry.getKey(), RoaringBitmap.andCardinality(base, entry.getValue()));
+        }
+        return counts;
+    }
+
+    private static RoaringBitmap intersect(RoaringBitmap base, RoaringBitmap first, RoaringBitmap second) {
+        RoaringBitmap result = base;
+        if (first != null) {
+            result = RoaringBitmap.and(result, first);
+        }
+        if (second != null) {
+            result = RoaringBitmap.and(result, second);
+        }
+        return result;
+    }
+
+    private static RoaringBitmap bitmap(Map<String, RoaringBitmap> values, String key) {
+        RoaringBitmap bitmap = values.get(key);
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+
+    private static double price(Course course) {
+        return course.getPrice() != null ? course.getPrice().doubleValue() : 0.0;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
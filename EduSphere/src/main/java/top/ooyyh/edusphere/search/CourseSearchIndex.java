@@ -0,0 +1,568 @@
+package top.ooyyh.edusphere.search;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.store.FSDirectory;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import top.ooyyh.edusphere.cache.CourseCatalog;
+import top.ooyyh.edusphere.entity.Course;
+import top.ooyyh.edusphere.event.CourseChangedEvent;
+import top.ooyyh.edusphere.request.CourseSearchRequest;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 课程全文索引（Lucene，本地磁盘）
+ *
+ * 标题、副标题、简介、讲师名使用 CJK 二元分词建立倒排索引，按字段加权计算相关度；
+ * 分类、难度、价格等筛选条件和各排序字段也写入索引，一次查询完成筛选、排序、分页和计数，不再对课程表做 LIKE 全表扫描。
+ * 索引只负责找出课程 ID，课程数据从 CourseCatalog 快照中取。
+ *
+ * 首次搜索时从课程目录全量建立索引（覆盖磁盘上的旧索引，避免停机期间数据库变化造成不一致），
+ * 之后按课程变更事件增量更新，并定时全量重建以同步学员数、评分等排序字段。
+ *
+ * 分页支持两种方式：页码（pageNum，兼容旧接口）和游标（cursor，取上一页返回的 nextCursor，翻到多深都只收集一页数据）。
+ * 命中总数按查询缓存，翻页时不再重新统计；索引变化后在后台重新统计，期间返回旧值。
+ */
+@Component
+public class CourseSearchIndex {
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String SUBTITLE = "subtitle";
+    private static final String DESCRIPTION = "description";
+    private static final String INSTRUCTOR = "instructor";
+    private static final String CATEGORY = "category";
+    private static final String LEVEL = "level";
+    private static final String FREE = "free";
+    private static final String PRICE = "price";
+    private static final String CREATED = "created";
+    private static final String STUDENTS = "students";
+    private static final String RATING = "rating";
+
+    /**
+     * 全文字段及权重，标题命中最重要
+     */
+    private static final Map<String, Float> FIELD_BOOSTS = new LinkedHashMap<>();
+
+    static {
+        FIELD_BOOSTS.put(TITLE, 4.0f);
+        FIELD_BOOSTS.put(SUBTITLE, 2.0f);
+        FIELD_BOOSTS.put(INSTRUCTOR, 2.0f);
+        FIELD_BOOSTS.put(DESCRIPTION, 1.0f);
+    }
+
+    /**
+     * 前缀匹配相对完整词项的权重，用于搜索单个汉字或英文单词的开头
+     */
+    private static final float PREFIX_WEIGHT = 0.3f;
+
+    private static final SortField ID_DESC = new SortField(ID, SortField.Type.INT, true);
+
+    private static final String CURSOR_SEPARATOR = "|";
+
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Value("${edusphere.search.index-path:./data/course-index}")
+    private String indexPath;
+
+    // 不过滤停用词，保证 "the"、"a" 之类的关键词和原来的模糊查询一样能搜到结果
+    private final Analyzer analyzer = new CJKAnalyzer(CharArraySet.EMPTY_SET);
+
+    private final Object writeLock = new Object();
+
+    private IndexWriter writer;
+
+    // 首次搜索时打开，避免启动阶段访问数据库
+    private volatile SearcherManager searcherManager;
+
+    // 查询（含筛选条件）-> 命中总数
+    private final LoadingCache<Query, Integer> countCache = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .build(this::count);
+
+    /**
+     * 按关键词和筛选条件查询一页课程 ID；请求带游标时从游标位置往后取，否则按页码取
+     */
+    public Hits search(CourseSearchRequest request) throws IOException {
+        SearcherManager manager = searcherManager();
+        Query query = buildQuery(request);
+        String sortBy = resolveSortBy(request);
+        Sort sort = buildSort(sortBy);
+        int pageSize = Math.max(1, request.getPageSize());
+
+        TopDocs topDocs;
+        IndexSearcher searcher = manager.acquire();
+        try {
+            if (hasText(request.getCursor())) {
+                FieldDoc after = decodeCursor(request.getCursor(), sortBy, sort);
+                TopFieldCollector collector = TopFieldCollector.create(sort, pageSize, after, pageSize);
+                searcher.search(query, collector);
+                topDocs = collector.topDocs();
+            } else {
+                int offset = Math.max(0, request.getOffset());
+                TopFieldCollector collector = TopFieldCollector.create(sort, offset + pageSize, offset + pageSize);
+                searcher.search(query, collector);
+                topDocs = collector.topDocs(offset, pageSize);
+            }
+            List<Integer> ids = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                ids.add(Integer.valueOf(searcher.doc(scoreDoc.doc).get(ID)));
+            }
+            // 不足一页说明已经到底，不再返回游标
+            String nextCursor = topDocs.scoreDocs.length == pageSize
+                    ? encodeCursor(sortBy, (FieldDoc) topDocs.scoreDocs[pageSize - 1]) : null;
+            return new Hits(ids, countCache.get(query), nextCursor);
+        } finally {
+            manager.release(searcher);
+        }
+    }
+
+    /**
+     * 关键词命中的全部课程 ID（不含筛选条件），供筛选项计数；没有关键词时返回 null
+     */
+    public RoaringBitmap match(String keyword) throws IOException {
+        SearcherManager manager = searcherManager();
+        Query query = buildKeywordQuery(keyword);
+        if (query == null) {
+            return null;
+        }
+        RoaringBitmap matches = new RoaringBitmap();
+        IndexSearcher searcher = manager.acquire();
+        try {
+            searcher.search(query, new SimpleCollector() {
+                private NumericDocValues ids;
+
+                @Override
+                protected void doSetNextReader(LeafReaderContext context) throws IOException {
+                    ids = DocValues.getNumeric(context.reader(), ID);
+                }
+
+                @Override
+                public void collect(int doc) throws IOException {
+                    if (ids.advanceExact(doc)) {
+                        matches.add((int) ids.longValue());
+                    }
+                }
+
+                @Override
+                public ScoreMode scoreMode() {
+                    return ScoreMode.COMPLETE_NO_SCORES;
+                }
+            });
+        } finally {
+            manager.release(searcher);
+        }
+        return matches;
+    }
+
+    /**
+     * 课程变更后增量更新索引，排在课程目录之后执行，以便读到最新的课程数据
+     */
+    @Order(2)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        synchronized (writeLock) {
+            if (searcherManager == null) {
+                return;
+            }
+            try {
+                Term id = new Term(ID, String.valueOf(event.getCourseId()));
+                Course course = courseCatalog.getCourse(event.getCourseId());
+                if (course != null) {
+                    writer.updateDocument(id, toDocument(course));
+                } else {
+                    writer.deleteDocuments(id);
+                }
+                writer.commit();
+                searcherManager.maybeRefreshBlocking();
+                refreshCounts();
+            } catch (IOException e) {
+                System.out.println("更新课程索引失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 定时全量重建，同步学员数、评分等排序字段
+     */
+    @Scheduled(initialDelayString = "${edusphere.search.rebuild-millis:300000}",
+            fixedDelayString = "${edusphere.search.rebuild-millis:300000}")
+    public void rebuild() {
+        synchronized (writeLock) {
+            if (searcherManager == null) {
+                return;
+            }
+            try {
+                reindex();
+                searcherManager.maybeRefreshBlocking();
+                refreshCounts();
+            } catch (IOException e) {
+                System.out.println("重建课程索引失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 索引统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        synchronized (writeLock) {
+            result.put("opened", searcherManager != null);
+            result.put("documents", writer != null ? writer.getDocStats().numDocs : 0);
+        }
+        result.put("cachedCounts", countCache.estimatedSize());
+        result.put("indexPath", indexPath);
+        return result;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (searcherManager != null) {
+                searcherManager.close();
+                searcherManager = null;
+            }
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        }
+    }
+
+    private SearcherManager searcherManager() throws IOException {
+        SearcherManager manager = searcherManager;
+        if (manager == null) {
+            synchronized (writeLock) {
+                manager = searcherManager;
+                if (manager == null) {
+                    IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                            .setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+                    writer = new IndexWriter(FSDirectory.open(Paths.get(indexPath)), config);
+                    reindex();
+                    manager = new SearcherManager(writer, null);
+                    searcherManager = manager;
+                }
+            }
+        }
+        return manager;
+    }
+
+    private int count(Query query) throws IOException {
+        SearcherManager manager = searcherManager;
+        IndexSearcher searcher = manager.acquire();
+        try {
+            return searcher.count(query);
+        } finally {
+            manager.release(searcher);
+        }
+    }
+
+    /**
+     * 在后台重新统计已缓存查询的命中总数
+     */
+    private void refreshCounts() {
+        for (Query query : countCache.asMap().keySet()) {
+            countCache.refresh(query);
+        }
+    }
+
+    private void reindex() throws IOException {
+        List<Course> courses = courseCatalog.getPublishedCourses();
+        List<Document> documents = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            documents.add(toDocument(course));
+        }
+        writer.deleteAll();
+        writer.addDocuments(documents);
+        writer.commit();
+    }
+
+    private Document toDocument(Course course) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(course.getId()), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID, course.getId()));
+
+        addText(document, TITLE, course.getTitle());
+        addText(document, SUBTITLE, course.getSubtitle());
+        addText(document, DESCRIPTION, course.getDescription());
+        addText(document, INSTRUCTOR, course.getInstructor() != null ? course.getInstructor().getUsername() : null);
+
+        if (course.getCategory() != null && course.getCategory().getSlug() != null) {
+            document.add(new StringField(CATEGORY, course.getCategory().getSlug(), Field.Store.NO));
+        }
+        if (course.getLevel() != null) {
+            document.add(new StringField(LEVEL, course.getLevel(), Field.Store.NO));
+        }
+        document.add(new StringField(FREE, Boolean.TRUE.equals(course.getIsFree()) ? "1" : "0", Field.Store.NO));
+
+        double price = toDouble(course.getPrice());
+        document.add(new DoublePoint(PRICE, price));
+        document.add(new DoubleDocValuesField(PRICE, price));
+        long created = course.getCreatedAt() != null
+                ? course.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+        document.add(new NumericDocValuesField(CREATED, created));
+        document.add(new NumericDocValuesField(STUDENTS, course.getStudentCount() != null ? course.getStudentCount() : 0));
+        document.add(new DoubleDocValuesField(RATING, toDouble(course.getRating())));
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null && !value.isEmpty()) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+
+    /**
+     * 关键词的每个词项都必须命中（任一全文字段即可），与原来整串模糊匹配的结果范围接近；筛选条件不参与打分
+     */
+    private Query buildQuery(CourseSearchRequest request) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        Query keywordQuery = buildKeywordQuery(request.getKeyword());
+        builder.add(keywordQuery != null ? keywordQuery : new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+
+        if (hasText(request.getCategory())) {
+            builder.add(new TermQuery(new Term(CATEGORY, request.getCategory())), BooleanClause.Occur.FILTER);
+        }
+        if (hasText(request.getLevel())) {
+            builder.add(new TermQuery(new Term(LEVEL, request.getLevel())), BooleanClause.Occur.FILTER);
+        }
+        Query priceFilter = priceFilter(request);
+        if (priceFilter != null) {
+            builder.add(priceFilter, BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 关键词查询，没有有效词项时返回 null
+     */
+    private Query buildKeywordQuery(String keyword) {
+        List<String> terms = analyze(keyword);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String term : terms) {
+            BooleanQuery.Builder termQuery = new BooleanQuery.Builder();
+            for (Map.Entry<String, Float> field : FIELD_BOOSTS.entrySet()) {
+                termQuery.add(new BoostQuery(new TermQuery(new Term(field.getKey(), term)), field.getValue()),
+                        BooleanClause.Occur.SHOULD);
+                termQuery.add(new BoostQuery(new PrefixQuery(new Term(field.getKey(), term)),
+                        field.getValue() * PREFIX_WEIGHT), BooleanClause.Occur.SHOULD);
+            }
+            builder.add(termQuery.build(), BooleanClause.Occur.MUST);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 价格条件，含义与 CourseFacetIndex 一致
+     */
+    private static Query priceFilter(CourseSearchRequest request) {
+        if ("free".equals(request.getPriceRange())) {
+            return new TermQuery(new Term(FREE, "1"));
+        }
+        double[] bounds = CourseFacetIndex.priceBounds(request);
+        return bounds != null ? DoublePoint.newRangeQuery(PRICE, bounds[0], bounds[1]) : null;
+    }
+
+    /**
+     * 排序方式：有关键词时默认按相关度，否则默认按最新发布
+     */
+    private static String resolveSortBy(CourseSearchRequest request) {
+        String sortBy = request.getSortBy();
+        if (!hasText(sortBy)) {
+            return hasText(request.getKeyword()) ? "relevance" : "newest";
+        }
+        switch (sortBy) {
+            case "relevance":
+            case "popular":
+            case "rating":
+            case "price-asc":
+            case "price-desc":
+                return sortBy;
+            default:
+                return "newest";
+        }
+    }
+
+    /**
+     * 每种排序最后都按课程 ID 倒序，保证顺序唯一，游标才能准确定位
+     */
+    private static Sort buildSort(String sortBy) {
+        switch (sortBy) {
+            case "relevance":
+                return new Sort(SortField.FIELD_SCORE, new SortField(CREATED, SortField.Type.LONG, true), ID_DESC);
+            case "popular":
+                return new Sort(new SortField(STUDENTS, SortField.Type.LONG, true), ID_DESC);
+            case "rating":
+                return new Sort(new SortField(RATING, SortField.Type.DOUBLE, true), ID_DESC);
+            case "price-asc":
+                return new Sort(new SortField(PRICE, SortField.Type.DOUBLE), ID_DESC);
+            case "price-desc":
+                return new Sort(new SortField(PRICE, SortField.Type.DOUBLE, true), ID_DESC);
+            default:
+                return new Sort(new SortField(CREATED, SortField.Type.LONG, true), ID_DESC);
+        }
+    }
+
+    /**
+     * 游标 = 排序方式 + 上一页最后一条的各排序字段值，Base64 编码后对调用方不透明
+     */
+    private static String encodeCursor(String sortBy, FieldDoc last) {
+        StringBuilder cursor = new StringBuilder(sortBy);
+        for (Object value : last.fields) {
+            cursor.append(CURSOR_SEPARATOR).append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(cursor.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FieldDoc decodeCursor(String cursor, String sortBy, Sort sort) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\" + CURSOR_SEPARATOR);
+            SortField[] sortFields = sort.getSort();
+            if (!parts[0].equals(sortBy) || parts.length != sortFields.length + 1) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            Object[] values = new Object[sortFields.length];
+            for (int i = 0; i < sortFields.length; i++) {
+                String value = parts[i + 1];
+                switch (sortFields[i].getType()) {
+                    case SCORE:
+                        values[i] = Float.valueOf(value);
+                        break;
+                    case LONG:
+                        values[i] = Long.valueOf(value);
+                        break;
+                    case DOUBLE:
+                        values[i] = Double.valueOf(value);
+                        break;
+                    default:
+                        values[i] = Integer.valueOf(value);
+                        break;
+                }
+            }
+            // 排序字段已包含唯一的课程 ID，文档号不参与比较
+            return new FieldDoc(Integer.MAX_VALUE, Float.NaN, values);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+
+    private List<String> analyze(String keyword) {
+        if (!hasText(keyword)) {
+            return Collections.emptyList();
+        }
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(TITLE, keyword)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                String value = term.toString();
+                if (!terms.contains(value)) {
+                    terms.add(value);
+                }
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    /**
+     * 一页搜索结果：按顺序排列的课程 ID、命中总数和下一页游标
+     */
+    public static final class Hits {
+        private final List<Integer> ids;
+        private final int total;
+        private final String nextCursor;
+
+        Hits(List<Integer> ids, int total, String nextCursor) {
+            this.ids = ids;
+            this.total = total;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<Integer> getIds() {
+            return ids;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * 下一页游标，没有更多结果时为 null
+         */
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import top.ooyyh.edusphere.entity.Course;
 import top.ooyyh.edusphere.entity.User;
 import top.ooyyh.edusphere.utils.Result;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -80,6 +81,21 @@ public interface AdminService {
      */
     Result<Map<String, Object>> getLearningStats();
 
+    /**
+     * 获取缓存统计（命中、未命中、淘汰次数）
+     */
+    Result<Map<String, Object>> getCacheStats();
+    
+    /**
+     * 从评价表全量重算课程评分
+     */
+    Result<String> recomputeCourseRatings();
+    
+    /**
+     * 从购买记录重建 [from, to] 内的销售汇总，日期为空时从第一笔购买到今天
+     */
+    Result<Map<String, Object>> rebuildSalesRollups(LocalDate from, LocalDate to);
+    
     /**
      * 获取用户详细信息
      */
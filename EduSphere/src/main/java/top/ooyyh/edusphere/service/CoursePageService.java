@@ -0,0 +1,18 @@
+package top.ooyyh.edusphere.service;
+
+import top.ooyyh.edusphere.response.CoursePageResponse;
+import top.ooyyh.edusphere.utils.Result;
+
+/**
+ * 课程详情页服务
+ * 一次返回详情页需要的课程、大纲、评价概况和当前用户的购买/收藏/进度/笔记数据
+ */
+public interface CoursePageService {
+
+    /**
+     * 获取课程详情页数据
+     *
+     * @param userId 当前用户ID，未登录时为 null
+     */
+    Result<CoursePageResponse> getCoursePage(Integer courseId, Integer userId);
+}
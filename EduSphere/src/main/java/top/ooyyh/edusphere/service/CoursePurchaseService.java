@@ -2,9 +2,12 @@ package top.ooyyh.edusphere.service;
 
 import top.ooyyh.edusphere.entity.PurchaseRecord;
 import top.ooyyh.edusphere.request.PurchaseRequest;
+import top.ooyyh.edusphere.response.InstructorIncomeSummary;
 import top.ooyyh.edusphere.response.PurchaseResponse;
+import top.ooyyh.edusphere.response.SalesStatsResponse;
 import top.ooyyh.edusphere.response.UserPurchasedCourseResponse;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -38,7 +41,16 @@ public interface CoursePurchaseService {
     List<PurchaseRecord> getInstructorSales(Integer instructorId);
     
     /**
-     * 获取讲师总收入
+     * 获取讲师总收入（含待结算收入）
      */
-    Double getInstructorTotalIncome(Integer instructorId);
+    InstructorIncomeSummary getInstructorTotalIncome(Integer instructorId);
+    
+    /**
+     * 讲师销售统计（读销售汇总表）
+     *
+     * @param from        起始日期，为空时为 to 之前 29 天
+     * @param to          结束日期（含），为空时为今天
+     * @param granularity 趋势粒度：day 或 hour
+     */
+    SalesStatsResponse getInstructorSalesStats(Integer instructorId, LocalDate from, LocalDate to, String granularity);
 }
@@ -1,14 +1,16 @@
 package top.ooyyh.edusphere.service;
 
-import top.ooyyh.edusphere.entity.CourseReview;
 import top.ooyyh.edusphere.request.CourseReviewRequest;
+import top.ooyyh.edusphere.response.CourseReviewPageResponse;
+import top.ooyyh.edusphere.response.CourseReviewSummary;
 import top.ooyyh.edusphere.utils.Result;
 
-import java.util.List;
-
 public interface CourseReviewService {
-    // 获取课程评价列表
-    Result<List<CourseReview>> getCourseReviews(Integer courseId);
+    // 按游标分页获取课程评价（sortBy：newest/likes/rating，cursor 为上一页返回的 nextCursor）
+    Result<CourseReviewPageResponse> getCourseReviews(Integer courseId, String sortBy, String cursor, Integer size);
+    
+    // 获取课程评价统计
+    Result<CourseReviewSummary> getReviewSummary(Integer courseId);
     
     // 添加课程评价
     Result<String> addCourseReview(CourseReviewRequest request, Integer userId);
@@ -18,4 +20,7 @@ public interface CourseReviewService {
     
     // 点赞评论
     Result<String> likeReview(Integer reviewId);
+    
+    // 审核评价：显示（1）或隐藏（0）
+    Result<String> moderateReview(Integer reviewId, Integer status);
 }
@@ -1,7 +1,7 @@
 package top.ooyyh.edusphere.service;
 
-import top.ooyyh.edusphere.controller.LearningController.CourseProgressResponse;
 import top.ooyyh.edusphere.entity.LearningProgress;
+import top.ooyyh.edusphere.response.CourseProgressResponse;
 
 import java.util.List;
 
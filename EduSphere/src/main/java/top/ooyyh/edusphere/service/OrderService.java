@@ -9,12 +9,18 @@ public interface OrderService {
     // 创建订单
     Result<Order> createOrder(Integer userId, List<Integer> courseIds);
     
+    // 购物车结算：下单并用余额支付，courseIds 为空时结算整个购物车
+    Result<Order> checkout(Integer userId, List<Integer> courseIds);
+    
     // 获取用户订单列表
     Result<List<Order>> getUserOrders(Integer userId);
     
-    // 根据订单号查询订单
-    Result<Order> getOrderByOrderNo(String orderNo);
+    // 根据订单号查询当前用户的订单，不属于该用户时按订单不存在处理
+    Result<Order> getOrderByOrderNo(Integer userId, String orderNo);
     
     // 支付订单
-    Result<String> payOrder(String orderNo);
+    Result<String> payOrder(Integer userId, String orderNo);
+    
+    // 取消订单（释放冻结的余额）
+    Result<String> cancelOrder(Integer userId, String orderNo);
 }
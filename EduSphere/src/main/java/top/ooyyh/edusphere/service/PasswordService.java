@@ -0,0 +1,29 @@
+package top.ooyyh.edusphere.service;
+
+/**
+ * 密码哈希服务
+ * 哈希和校验都在专用的有界线程池中执行，线程池饱和时抛出 ServiceBusyException
+ */
+public interface PasswordService {
+
+    /**
+     * 计算密码哈希
+     */
+    String encode(String rawPassword);
+
+    /**
+     * 校验密码，兼容尚未升级的明文密码
+     */
+    boolean matches(String rawPassword, String storedPassword);
+
+    /**
+     * 用户不存在时调用：对固定的哑哈希做一次同等强度的校验，
+     * 使"用户不存在"和"密码错误"耗时相同，不泄露账号是否存在
+     */
+    void matchDummy(String rawPassword);
+
+    /**
+     * 存储的密码是否需要重新哈希（明文密码或哈希强度低于当前配置）
+     */
+    boolean needsUpgrade(String storedPassword);
+}
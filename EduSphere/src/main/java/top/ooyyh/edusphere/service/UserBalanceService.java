@@ -4,8 +4,8 @@ import top.ooyyh.edusphere.entity.RechargeRecord;
 import top.ooyyh.edusphere.entity.UserBalance;
 import top.ooyyh.edusphere.request.RechargeRequest;
 import top.ooyyh.edusphere.response.UserBalanceResponse;
+import top.ooyyh.edusphere.utils.Money;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -26,17 +26,17 @@ public interface UserBalanceService {
     /**
      * 检查用户余额是否足够
      */
-    boolean checkBalance(Integer userId, BigDecimal amount);
+    boolean checkBalance(Integer userId, Money amount);
     
     /**
      * 扣减用户余额
      */
-    boolean deductBalance(Integer userId, BigDecimal amount);
+    boolean deductBalance(Integer userId, Money amount);
     
     /**
      * 增加用户余额
      */
-    boolean addBalance(Integer userId, BigDecimal amount);
+    boolean addBalance(Integer userId, Money amount);
     
     /**
      * 初始化用户余额
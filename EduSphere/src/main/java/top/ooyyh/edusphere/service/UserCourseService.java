@@ -12,7 +12,4 @@ public interface UserCourseService {
     
     // 检查用户是否已购买课程
     Result<Boolean> hasUserPurchased(Integer userId, Integer courseId);
-    
-    // 购买课程
-    Result<String> purchaseCourse(Integer userId, Integer courseId);
 }
@@ -7,6 +7,8 @@ import top.ooyyh.edusphere.request.UserLoginRequest;
 import top.ooyyh.edusphere.request.UserRegisterRequest;
 import top.ooyyh.edusphere.utils.Result;
 
+import java.util.Date;
+
 public interface UserService {
     
     /**
@@ -38,4 +40,9 @@ public interface UserService {
      * 修改密码
      */
     Result<String> updatePassword(Integer userId, PasswordUpdateRequest request);
+    
+    /**
+     * 退出登录，吊销当前 token
+     */
+    Result<String> logout(String tokenId, Date expiration);
 }
\ No newline at end of file
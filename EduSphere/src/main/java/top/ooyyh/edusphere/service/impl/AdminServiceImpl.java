@@ -1,17 +1,37 @@
 package top.ooyyh.edusphere.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import top.ooyyh.edusphere.cache.CourseCatalog;
+import top.ooyyh.edusphere.cache.CourseOutlineCache;
+import top.ooyyh.edusphere.cache.IdempotencyStore;
+import top.ooyyh.edusphere.cache.RateLimiter;
+import top.ooyyh.edusphere.cache.TokenRevocationStore;
+import top.ooyyh.edusphere.cache.UserIdentityCache;
+import top.ooyyh.edusphere.counter.CourseRatingAggregator;
+import top.ooyyh.edusphere.counter.CourseStudentCounter;
+import top.ooyyh.edusphere.counter.EntityCounters;
+import top.ooyyh.edusphere.counter.InstructorIncomeSettler;
+import top.ooyyh.edusphere.counter.OrderReservationExpirer;
+import top.ooyyh.edusphere.counter.SalesRollupUpdater;
+import top.ooyyh.edusphere.utils.SnowflakeIdGenerator;
 import top.ooyyh.edusphere.entity.Course;
 import top.ooyyh.edusphere.entity.User;
+import top.ooyyh.edusphere.event.CourseChangedEvent;
+import top.ooyyh.edusphere.event.UserChangedEvent;
 import top.ooyyh.edusphere.mapper.CourseMapper;
 import top.ooyyh.edusphere.mapper.UserMapper;
 import top.ooyyh.edusphere.mapper.UserBalanceMapper;
 import top.ooyyh.edusphere.mapper.PurchaseRecordMapper;
 import top.ooyyh.edusphere.mapper.LearningProgressMapper;
+import top.ooyyh.edusphere.mapper.SalesRollupMapper;
+import top.ooyyh.edusphere.response.SalesBucket;
+import top.ooyyh.edusphere.search.CourseSearchIndex;
 import top.ooyyh.edusphere.service.AdminService;
 import top.ooyyh.edusphere.utils.Result;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -35,6 +55,54 @@ public class AdminServiceImpl implements AdminService {
     @Autowired
     private LearningProgressMapper learningProgressMapper;
     
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+    
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+    
+    @Autowired
+    private RateLimiter rateLimiter;
+    
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    
+    @Autowired
+    private CourseCatalog courseCatalog;
+    
+    @Autowired
+    private CourseSearchIndex courseSearchIndex;
+    
+    @Autowired
+    private CourseOutlineCache courseOutlineCache;
+    
+    @Autowired
+    private CourseRatingAggregator courseRatingAggregator;
+    
+    @Autowired
+    private CourseStudentCounter courseStudentCounter;
+    
+    @Autowired
+    private InstructorIncomeSettler instructorIncomeSettler;
+    
+    @Autowired
+    private OrderReservationExpirer orderReservationExpirer;
+    
+    @Autowired
+    private SalesRollupUpdater salesRollupUpdater;
+    
+    @Autowired
+    private EntityCounters entityCounters;
+    
+    @Autowired
+    private SalesRollupMapper salesRollupMapper;
+    
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Override
     public Result<List<Course>> getPendingCourses() {
         try {
@@ -60,6 +128,8 @@ public class AdminServiceImpl implements AdminService {
             course.setStatus("published");
             course.setUpdatedAt(LocalDateTime.now());
             courseMapper.updateCourse(course);
+            eventPublisher.publishEvent(new CourseChangedEvent(this, courseId, CourseChangedEvent.Type.STATUS_CHANGED,
+                    "pending", "published"));
             
             return Result.success("课程审核通过，已发布");
         } catch (Exception e) {
@@ -82,6 +152,8 @@ public class AdminServiceImpl implements AdminService {
             course.setStatus("rejected");
             course.setUpdatedAt(LocalDateTime.now());
             courseMapper.updateCourse(course);
+            eventPublisher.publishEvent(new CourseChangedEvent(this, courseId, CourseChangedEvent.Type.STATUS_CHANGED,
+                    "pending", "rejected"));
             
             String message = "课程审核未通过";
             if (reason != null && !reason.trim().isEmpty()) {
@@ -113,6 +185,7 @@ public class AdminServiceImpl implements AdminService {
             }
             
             courseMapper.deleteCourse(courseId);
+            eventPublisher.publishEvent(new CourseChangedEvent(this, courseId, CourseChangedEvent.Type.DELETED));
             return Result.success("课程删除成功");
         } catch (Exception e) {
             return Result.error("删除课程失败: " + e.getMessage());
@@ -124,20 +197,12 @@ public class AdminServiceImpl implements AdminService {
         try {
             Map<String, Object> stats = new HashMap<>();
             
-            // 课程总数
-            int totalCourses = courseMapper.getAllCourses().size();
-            stats.put("totalCourses", totalCourses);
-            
-            // 各状态课程数量
-            int draftCourses = courseMapper.getCoursesByStatus("draft").size();
-            int pendingCourses = courseMapper.getCoursesByStatus("pending").size();
-            int publishedCourses = courseMapper.getCoursesByStatus("published").size();
-            int rejectedCourses = courseMapper.getCoursesByStatus("rejected").size();
-            
-            stats.put("draftCourses", draftCourses);
-            stats.put("pendingCourses", pendingCourses);
-            stats.put("publishedCourses", publishedCourses);
-            stats.put("rejectedCourses", rejectedCourses);
+            // 课程总数与各状态课程数量，读实体计数器
+            stats.put("totalCourses", entityCounters.getTotalCourses());
+            stats.put("draftCourses", entityCounters.getCourseCount("draft"));
+            stats.put("pendingCourses", entityCounters.getCourseCount("pending"));
+            stats.put("publishedCourses", entityCounters.getCourseCount("published"));
+            stats.put("rejectedCourses", entityCounters.getCourseCount("rejected"));
             
             return Result.success(stats);
         } catch (Exception e) {
@@ -162,18 +227,11 @@ public class AdminServiceImpl implements AdminService {
         try {
             Map<String, Object> stats = new HashMap<>();
             
-            List<User> allUsers = userMapper.getAllUsers();
-            int totalUsers = allUsers.size();
-            
-            // 按角色统计
-            long adminCount = allUsers.stream().filter(u -> "admin".equals(u.getRole())).count();
-            long teacherCount = allUsers.stream().filter(u -> "teacher".equals(u.getRole())).count();
-            long studentCount = allUsers.stream().filter(u -> "student".equals(u.getRole())).count();
-            
-            stats.put("totalUsers", totalUsers);
-            stats.put("adminCount", adminCount);
-            stats.put("teacherCount", teacherCount);
-            stats.put("studentCount", studentCount);
+            // 用户总数与按角色统计，读实体计数器
+            stats.put("totalUsers", entityCounters.getTotalUsers());
+            stats.put("adminCount", entityCounters.getUserCount("admin"));
+            stats.put("teacherCount", entityCounters.getUserCount("teacher"));
+            stats.put("studentCount", entityCounters.getUserCount("student"));
             
             return Result.success(stats);
         } catch (Exception e) {
@@ -189,12 +247,20 @@ public class AdminServiceImpl implements AdminService {
                 return Result.error("用户不存在");
             }
             
-            // 切换用户状态（这里假设User实体有status字段）
-            // 如果没有status字段，可以添加一个
-            user.setUpdatedAt(LocalDateTime.now());
-            userMapper.updateUser(user);
+            // 不能禁用管理员
+            if ("admin".equals(user.getRole())) {
+                return Result.error("不能禁用管理员用户");
+            }
+            
+            // 切换用户状态：1-启用，0-禁用
+            int newStatus = Integer.valueOf(1).equals(user.getStatus()) ? 0 : 1;
+            userMapper.updateUserStatus(userId, newStatus);
+            userIdentityCache.invalidate(userId);
+            if (newStatus == 0) {
+                tokenRevocationStore.revokeUser(userId);
+            }
             
-            return Result.success("用户状态更新成功");
+            return Result.success(newStatus == 1 ? "用户已启用" : "用户已禁用");
         } catch (Exception e) {
             return Result.error("更新用户状态失败: " + e.getMessage());
         }
@@ -214,6 +280,9 @@ public class AdminServiceImpl implements AdminService {
             }
             
             userMapper.deleteUser(userId);
+            userIdentityCache.invalidate(userId);
+            tokenRevocationStore.revokeUser(userId);
+            eventPublisher.publishEvent(new UserChangedEvent(this, userId, user.getRole(), UserChangedEvent.Type.DELETED));
             return Result.success("用户删除成功");
         } catch (Exception e) {
             return Result.error("删除用户失败: " + e.getMessage());
@@ -227,19 +296,20 @@ public class AdminServiceImpl implements AdminService {
         try {
             Map<String, Object> overview = new HashMap<>();
             
-            // 用户统计
-            List<User> allUsers = userMapper.getAllUsers();
-            overview.put("totalUsers", allUsers.size());
-            
-            // 课程统计
-            List<Course> allCourses = courseMapper.getAllCourses();
-            overview.put("totalCourses", allCourses.size());
-            overview.put("publishedCourses", courseMapper.getCoursesByStatus("published").size());
-            overview.put("pendingCourses", courseMapper.getCoursesByStatus("pending").size());
+            // 用户、课程、选课统计，读实体计数器
+            overview.put("totalUsers", entityCounters.getTotalUsers());
+            overview.put("totalCourses", entityCounters.getTotalCourses());
+            overview.put("publishedCourses", entityCounters.getCourseCount("published"));
+            overview.put("pendingCourses", entityCounters.getCourseCount("pending"));
+            overview.put("totalEnrollments", entityCounters.getEnrollmentCount());
             
-            // 收入统计（简化版）
-            overview.put("totalIncome", 0); // 这里需要从购买记录中计算
-            overview.put("todayIncome", 0);
+            // 收入统计（平台手续费），读按天的销售汇总
+            LocalDate today = LocalDate.now();
+            SalesBucket total = salesRollupMapper.getTotals(null, null, null, null);
+            SalesBucket todayTotal = salesRollupMapper.getTotals(null, null, today, today.plusDays(1));
+            overview.put("totalSales", total.getGrossAmount());
+            overview.put("totalIncome", total.getPlatformFee());
+            overview.put("todayIncome", todayTotal.getPlatformFee());
             
             return Result.success(overview);
         } catch (Exception e) {
@@ -252,12 +322,22 @@ public class AdminServiceImpl implements AdminService {
         try {
             Map<String, Object> stats = new HashMap<>();
             
-            // 这里需要根据实际的收入表结构来实现
-            // 暂时返回模拟数据
-            stats.put("totalIncome", 0);
-            stats.put("monthlyIncome", 0);
-            stats.put("dailyIncome", 0);
-            stats.put("courseSales", 0);
+            // 收入为平台手续费，全部读销售汇总表，耗时与天数成正比
+            LocalDate today = LocalDate.now();
+            LocalDate tomorrow = today.plusDays(1);
+            SalesBucket total = salesRollupMapper.getTotals(null, null, null, null);
+            SalesBucket monthTotal = salesRollupMapper.getTotals(null, null, today.withDayOfMonth(1), tomorrow);
+            SalesBucket todayTotal = salesRollupMapper.getTotals(null, null, today, tomorrow);
+            stats.put("totalIncome", total.getPlatformFee());
+            stats.put("monthlyIncome", monthTotal.getPlatformFee());
+            stats.put("dailyIncome", todayTotal.getPlatformFee());
+            stats.put("courseSales", total.getSaleCount());
+            stats.put("totalSales", total.getGrossAmount());
+            stats.put("instructorIncome", total.getInstructorIncome());
+            
+            // 最近 7 天的趋势（没有销售的日期不返回）和本月销售额最高的课程
+            stats.put("dailyTrend", salesRollupMapper.getDailySeries(null, null, today.minusDays(6), tomorrow));
+            stats.put("topCourses", salesRollupMapper.getCourseTotals(null, today.withDayOfMonth(1), tomorrow, 10));
             
             return Result.success(stats);
         } catch (Exception e) {
@@ -285,6 +365,49 @@ public class AdminServiceImpl implements AdminService {
         }
     }
 
+    @Override
+    public Result<Map<String, Object>> getCacheStats() {
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("userIdentity", userIdentityCache.stats());
+            stats.put("tokenRevocation", tokenRevocationStore.stats());
+            stats.put("rateLimitBuckets", rateLimiter.stats());
+            stats.put("idempotencyKeys", idempotencyStore.stats());
+            stats.put("courseCatalog", courseCatalog.stats());
+            stats.put("courseSearchIndex", courseSearchIndex.stats());
+            stats.put("courseOutline", courseOutlineCache.stats());
+            stats.put("courseRating", courseRatingAggregator.stats());
+            stats.put("courseStudentCount", courseStudentCounter.stats());
+            stats.put("instructorSettlement", instructorIncomeSettler.stats());
+            stats.put("orderExpiry", orderReservationExpirer.stats());
+            stats.put("salesRollup", salesRollupUpdater.stats());
+            stats.put("entityCounters", entityCounters.stats());
+            stats.put("idGenerator", idGenerator.stats());
+            return Result.success(stats);
+        } catch (Exception e) {
+            return Result.error("获取缓存统计失败: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public Result<String> recomputeCourseRatings() {
+        try {
+            courseRatingAggregator.recompute();
+            return Result.success("课程评分重算完成");
+        } catch (Exception e) {
+            return Result.error("重算课程评分失败: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public Result<Map<String, Object>> rebuildSalesRollups(LocalDate from, LocalDate to) {
+        try {
+            return Result.success(salesRollupUpdater.rebuild(from, to));
+        } catch (Exception e) {
+            return Result.error("重建销售汇总失败: " + e.getMessage());
+        }
+    }
+    
     @Override
     public Result<Map<String, Object>> getUserDetail(Integer userId) {
         try {
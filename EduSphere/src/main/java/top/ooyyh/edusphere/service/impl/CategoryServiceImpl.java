@@ -2,6 +2,7 @@ package top.ooyyh.edusphere.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import top.ooyyh.edusphere.cache.CourseCatalog;
 import top.ooyyh.edusphere.entity.Category;
 import top.ooyyh.edusphere.mapper.CategoryMapper;
 import top.ooyyh.edusphere.service.CategoryService;
@@ -15,10 +16,14 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private CategoryMapper categoryMapper;
     
+    @Autowired
+    private CourseCatalog courseCatalog;
+    
     @Override
     public Result<List<Category>> getAllCategories() {
         try {
-            List<Category> categories = categoryMapper.getAllCategories();
+            // 分类随课程目录快照一起缓存
+            List<Category> categories = courseCatalog.getCategories();
             return Result.success(categories);
         } catch (Exception e) {
             return Result.error("获取分类列表失败: " + e.getMessage());
@@ -0,0 +1,184 @@
+package top.ooyyh.edusphere.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import top.ooyyh.edusphere.cache.CourseCatalog;
+import top.ooyyh.edusphere.cache.CourseOutline;
+import top.ooyyh.edusphere.cache.CourseOutlineCache;
+import top.ooyyh.edusphere.entity.Course;
+import top.ooyyh.edusphere.mapper.CourseFavoriteMapper;
+import top.ooyyh.edusphere.mapper.CourseMapper;
+import top.ooyyh.edusphere.mapper.CourseReviewMapper;
+import top.ooyyh.edusphere.mapper.LearningNoteMapper;
+import top.ooyyh.edusphere.mapper.LearningProgressMapper;
+import top.ooyyh.edusphere.mapper.PurchaseRecordMapper;
+import top.ooyyh.edusphere.response.CoursePageResponse;
+import top.ooyyh.edusphere.response.CourseProgressResponse;
+import top.ooyyh.edusphere.response.CourseReviewSummary;
+import top.ooyyh.edusphere.service.CoursePageService;
+import top.ooyyh.edusphere.utils.Result;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 课程详情页服务实现类
+ *
+ * 详情页原来要分别请求课程详情、大纲、购买记录、收藏状态等接口，耗时是各请求之和。
+ * 这里课程本身从目录快照读取，其余各部分同时提交到专用的有界线程池并行加载，耗时取决于最慢的一部分：
+ * 每部分最多等待 timeout-millis（从请求开始计时），失败、超时或线程池已满时该部分返回 null，其余部分照常返回。
+ */
+@Service
+public class CoursePageServiceImpl implements CoursePageService {
+
+    /**
+     * 详情页展示的最新评价条数
+     */
+    private static final int RECENT_REVIEW_COUNT = 5;
+
+    @Autowired
+    private CourseCatalog courseCatalog;
+
+    @Autowired
+    private CourseOutlineCache courseOutlineCache;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Autowired
+    private CourseReviewMapper courseReviewMapper;
+
+    @Autowired
+    private PurchaseRecordMapper purchaseRecordMapper;
+
+    @Autowired
+    private CourseFavoriteMapper courseFavoriteMapper;
+
+    @Autowired
+    private LearningProgressMapper learningProgressMapper;
+
+    @Autowired
+    private LearningNoteMapper learningNoteMapper;
+
+    @Value("${edusphere.course-page.threads:8}")
+    private int threads;
+
+    @Value("${edusphere.course-page.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${edusphere.course-page.timeout-millis:1000}")
+    private long timeoutMillis;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "course-page-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    @Override
+    public Result<CoursePageResponse> getCoursePage(Integer courseId, Integer userId) {
+        try {
+            // 已发布课程直接读目录快照，未发布的课程（教师预览）再查库
+            Course course = courseCatalog.getCourse(courseId);
+            if (course == null) {
+                course = courseMapper.getCourseById(courseId);
+            }
+            if (course == null) {
+                return Result.error("课程不存在");
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            Future<CourseOutline> outline = submit(() -> courseOutlineCache.get(courseId));
+            Future<CourseReviewSummary> reviewSummary = submit(() -> loadReviewSummary(courseId));
+            Future<Boolean> purchased = null;
+            Future<Boolean> favorited = null;
+            Future<CourseProgressResponse> progress = null;
+            Future<Integer> noteCount = null;
+            if (userId != null) {
+                purchased = submit(() -> purchaseRecordMapper.getByUserIdAndCourseId(userId, courseId) != null);
+                favorited = submit(() -> Boolean.TRUE.equals(courseFavoriteMapper.isFavorited(userId, courseId)));
+                progress = submit(() -> new CourseProgressResponse(courseId,
+                        courseOutlineCache.get(courseId).getLessonCount(),
+                        learningProgressMapper.getCompletedLessonsByUserAndCourse(userId, courseId)));
+                noteCount = submit(() -> learningNoteMapper.countCourseNotes(courseId, userId));
+            }
+
+            CoursePageResponse page = new CoursePageResponse();
+            page.setCourse(course);
+            CourseOutline loadedOutline = await("outline", outline, deadline, page);
+            page.setOutline(loadedOutline != null ? loadedOutline.getSections() : null);
+            page.setReviewSummary(await("reviewSummary", reviewSummary, deadline, page));
+            if (userId != null) {
+                page.setPurchased(await("purchased", purchased, deadline, page));
+                page.setFavorited(await("favorited", favorited, deadline, page));
+                page.setProgress(await("progress", progress, deadline, page));
+                page.setNoteCount(await("noteCount", noteCount, deadline, page));
+            }
+            return Result.success(page);
+        } catch (Exception e) {
+            return Result.error("获取课程详情页失败: " + e.getMessage());
+        }
+    }
+
+    private CourseReviewSummary loadReviewSummary(Integer courseId) {
+        CourseReviewSummary summary = courseReviewMapper.getReviewSummary(courseId);
+        summary.setRecentReviews(courseReviewMapper.getReviewPage(courseId, "newest", null, null, null, RECENT_REVIEW_COUNT));
+        return summary;
+    }
+
+    /**
+     * 提交到线程池，线程池已满时返回 null（该部分按不可用处理）
+     */
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 在截止时间前等待某部分的结果，失败或超时记入 unavailableParts 并返回 null
+     */
+    private <T> T await(String part, Future<T> future, long deadlineNanos, CoursePageResponse page) {
+        if (future != null) {
+            try {
+                return future.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                System.out.println("加载课程详情页[" + part + "]超时");
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                System.out.println("加载课程详情页[" + part + "]失败: " + e.getCause().getMessage());
+            }
+        }
+        page.getUnavailableParts().add(part);
+        return null;
+    }
+}
@@ -1,24 +1,32 @@
 package top.ooyyh.edusphere.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import top.ooyyh.edusphere.entity.Course;
 import top.ooyyh.edusphere.entity.InstructorIncome;
+import top.ooyyh.edusphere.entity.PurchaseContext;
 import top.ooyyh.edusphere.entity.PurchaseRecord;
-import top.ooyyh.edusphere.entity.UserBalance;
+import top.ooyyh.edusphere.event.CourseEnrolledEvent;
 import top.ooyyh.edusphere.mapper.CourseMapper;
 import top.ooyyh.edusphere.mapper.InstructorIncomeMapper;
 import top.ooyyh.edusphere.mapper.PurchaseRecordMapper;
+import top.ooyyh.edusphere.mapper.SalesRollupMapper;
 import top.ooyyh.edusphere.mapper.UserBalanceMapper;
 import top.ooyyh.edusphere.mapper.UserMapper;
 import top.ooyyh.edusphere.request.PurchaseRequest;
+import top.ooyyh.edusphere.response.InstructorIncomeSummary;
 import top.ooyyh.edusphere.response.PurchaseResponse;
+import top.ooyyh.edusphere.response.SalesStatsResponse;
 import top.ooyyh.edusphere.response.UserPurchasedCourseResponse;
 import top.ooyyh.edusphere.service.CoursePurchaseService;
 import top.ooyyh.edusphere.service.UserBalanceService;
+import top.ooyyh.edusphere.utils.Money;
+import top.ooyyh.edusphere.utils.PlatformFee;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -47,67 +55,64 @@ public class CoursePurchaseServiceImpl implements CoursePurchaseService {
     @Autowired
     private UserMapper userMapper;
     
-    // 平台手续费比例（5%）
-    private static final BigDecimal PLATFORM_FEE_RATE = new BigDecimal("0.05");
+    @Autowired
+    private SalesRollupMapper salesRollupMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // 按小时的趋势最多 31 天
+    private static final int MAX_HOURLY_DAYS = 31;
+    
+    // 按课程的合计最多返回的课程数
+    private static final int MAX_COURSE_TOTALS = 50;
     
     @Override
     @Transactional
     public PurchaseResponse purchaseCourse(Integer userId, PurchaseRequest request) {
         try {
-            // 1. 检查课程是否存在且已发布
-            Course course = courseMapper.getCourseById(request.getCourseId());
-            if (course == null || !"published".equals(course.getStatus())) {
+            // 1. 一次查询取回课程、买家余额和已购买状态
+            PurchaseContext context = purchaseRecordMapper.getPurchaseContext(userId, request.getCourseId());
+            if (context == null || !"published".equals(context.getCourseStatus())) {
                 throw new RuntimeException("课程不存在或未发布");
             }
             
             // 2. 检查用户是否已购买
-            if (hasPurchasedCourse(userId, request.getCourseId())) {
+            if (Boolean.TRUE.equals(context.getPurchased())) {
                 throw new RuntimeException("您已购买过此课程");
             }
             
-            // 3. 检查余额是否足够
-            BigDecimal coursePrice = course.getPrice();
-            UserBalance userBalance = userBalanceMapper.getByUserId(userId);
-            if (userBalance == null) {
+            // 3. 检查余额是否足够（快速失败，最终以条件扣减的结果为准）
+            Money coursePrice = context.getCoursePrice();
+            Money availableBalance = context.getBuyerBalance();
+            if (availableBalance == null) {
                 // 如果用户没有余额记录，初始化一个
                 userBalanceService.initUserBalance(userId);
-                userBalance = userBalanceMapper.getByUserId(userId);
+                availableBalance = Money.ZERO;
             }
             
-            if (userBalance == null || userBalance.getBalance().compareTo(coursePrice) < 0) {
-                throw new RuntimeException("余额不足，当前余额: ¥" + (userBalance != null ? userBalance.getBalance() : "0.00") + "，需要: ¥" + coursePrice);
+            if (availableBalance.isLessThan(coursePrice)) {
+                throw new RuntimeException("余额不足，当前余额: ¥" + availableBalance + "，需要: ¥" + coursePrice);
             }
             
-            // 4. 计算费用分配
-            BigDecimal platformFee = coursePrice.multiply(PLATFORM_FEE_RATE);
-            BigDecimal instructorIncome = coursePrice.subtract(platformFee);
-            
-            // 5. 扣减用户余额
-            BigDecimal balanceBefore = userBalance.getBalance();
-            BigDecimal balanceAfter = balanceBefore.subtract(coursePrice);
-            userBalanceMapper.subtractBalance(userId, coursePrice);
-            
-            // 6. 增加讲师余额
-            UserBalance instructorBalance = userBalanceMapper.getByUserId(course.getInstructorId());
-            if (instructorBalance == null) {
-                // 如果讲师没有余额记录，初始化一个
-                UserBalance newBalance = new UserBalance();
-                newBalance.setUserId(course.getInstructorId());
-                newBalance.setBalance(BigDecimal.ZERO);
-                newBalance.setFrozenBalance(BigDecimal.ZERO);
-                newBalance.setTotalRecharge(BigDecimal.ZERO);
-                newBalance.setTotalConsumption(BigDecimal.ZERO);
-                newBalance.setCreatedAt(LocalDateTime.now());
-                newBalance.setUpdatedAt(LocalDateTime.now());
-                userBalanceMapper.insert(newBalance);
+            // 4. 计算费用分配（手续费四舍五入到分，讲师收入取差额）
+            Money platformFee = PlatformFee.feeOf(coursePrice);
+            Money instructorIncome = PlatformFee.instructorIncomeOf(coursePrice, platformFee);
+            
+            // 5. 条件扣减用户余额：并发购买时查询到的余额可能已过期，影响行数为 0 说明余额不足
+            if (userBalanceMapper.subtractBalance(userId, coursePrice) == 0) {
+                throw new RuntimeException("余额不足，需要: ¥" + coursePrice);
             }
-            userBalanceMapper.addBalance(course.getInstructorId(), instructorIncome);
+            // 扣减后本事务持有该行的锁，读到的就是本次扣减后的余额
+            Money balanceAfter = userBalanceMapper.getByUserId(userId).getBalance();
+            Money balanceBefore = balanceAfter.add(coursePrice);
             
-            // 7. 创建购买记录
+            // 6. 创建购买记录
+            Integer instructorId = context.getInstructorId();
             PurchaseRecord purchaseRecord = new PurchaseRecord();
             purchaseRecord.setUserId(userId);
             purchaseRecord.setCourseId(request.getCourseId());
-            purchaseRecord.setInstructorId(course.getInstructorId());
+            purchaseRecord.setInstructorId(instructorId);
             purchaseRecord.setPurchasePrice(coursePrice);
             purchaseRecord.setBalanceBefore(balanceBefore);
             purchaseRecord.setBalanceAfter(balanceAfter);
@@ -118,34 +123,26 @@ public class CoursePurchaseServiceImpl implements CoursePurchaseService {
             
             purchaseRecordMapper.insert(purchaseRecord);
             
-            // 8. 创建讲师收入记录
+            // 7. 追加待结算的讲师收入，由结算任务批量计入讲师余额和台账（不在购买事务中更新讲师的余额行）
             InstructorIncome incomeRecord = new InstructorIncome();
-            incomeRecord.setInstructorId(course.getInstructorId());
+            incomeRecord.setInstructorId(instructorId);
             incomeRecord.setCourseId(request.getCourseId());
             incomeRecord.setPurchaseRecordId(purchaseRecord.getId());
             incomeRecord.setIncomeAmount(instructorIncome);
-            
-            // 计算讲师累计收入
-            BigDecimal totalIncome = instructorIncomeMapper.getTotalIncomeByInstructorId(course.getInstructorId());
-            if (totalIncome == null) {
-                totalIncome = BigDecimal.ZERO;
-            }
-            incomeRecord.setTotalIncome(totalIncome.add(instructorIncome));
             incomeRecord.setCreatedAt(LocalDateTime.now());
-            
             instructorIncomeMapper.insert(incomeRecord);
             
-            // 9. 更新课程学员数量
-            courseMapper.updateStudentCount(request.getCourseId());
-            
-            // 10. 添加到用户课程表
+            // 8. 添加到用户课程表
             courseMapper.insertUserCourse(userId, request.getCourseId(), coursePrice);
             
-            // 11. 构建响应
+            // 9. 课程学员数在事务提交后由计数器累加，批量写回
+            eventPublisher.publishEvent(new CourseEnrolledEvent(this, request.getCourseId()));
+            
+            // 10. 构建响应
             PurchaseResponse response = new PurchaseResponse();
             response.setPurchaseRecordId(purchaseRecord.getId());
             response.setCourseId(request.getCourseId());
-            response.setCourseTitle(course.getTitle());
+            response.setCourseTitle(context.getCourseTitle());
             response.setPurchasePrice(coursePrice);
             response.setBalanceAfter(balanceAfter);
             response.setPurchaseTime(purchaseRecord.getCreatedAt());
@@ -153,6 +150,9 @@ public class CoursePurchaseServiceImpl implements CoursePurchaseService {
             
             return response;
             
+        } catch (DuplicateKeyException e) {
+            // 并发或重试的重复购买被 (user_id, course_id) 唯一键拦下，整个事务回滚
+            throw new RuntimeException("购买失败: 您已购买过此课程");
         } catch (Exception e) {
             e.printStackTrace();
             throw new RuntimeException("购买失败: " + e.getMessage());
@@ -215,8 +215,39 @@ public class CoursePurchaseServiceImpl implements CoursePurchaseService {
     }
     
     @Override
-    public Double getInstructorTotalIncome(Integer instructorId) {
-        BigDecimal totalIncome = instructorIncomeMapper.getTotalIncomeByInstructorId(instructorId);
-        return totalIncome != null ? totalIncome.doubleValue() : 0.0;
+    public InstructorIncomeSummary getInstructorTotalIncome(Integer instructorId) {
+        InstructorIncomeSummary summary = instructorIncomeMapper.getIncomeSummary(instructorId);
+        summary.setTotalIncome(summary.getSettledIncome().add(summary.getPendingSettlement()));
+        return summary;
+    }
+    
+    @Override
+    public SalesStatsResponse getInstructorSalesStats(Integer instructorId, LocalDate from, LocalDate to, String granularity) {
+        if (to == null) {
+            to = LocalDate.now();
+        }
+        if (from == null) {
+            from = to.minusDays(29);
+        }
+        if (from.isAfter(to)) {
+            throw new RuntimeException("起始日期不能晚于结束日期");
+        }
+        boolean hourly = "hour".equals(granularity);
+        if (hourly && from.plusDays(MAX_HOURLY_DAYS).isBefore(to.plusDays(1))) {
+            throw new RuntimeException("按小时统计最多 " + MAX_HOURLY_DAYS + " 天");
+        }
+        
+        // 汇总表的区间左闭右开
+        LocalDate end = to.plusDays(1);
+        SalesStatsResponse response = new SalesStatsResponse();
+        response.setFrom(from);
+        response.setTo(to);
+        response.setGranularity(hourly ? "hour" : "day");
+        response.setTotals(salesRollupMapper.getTotals(null, instructorId, from, end));
+        response.setSeries(hourly
+                ? salesRollupMapper.getHourlySeries(null, instructorId, from.atStartOfDay(), end.atStartOfDay())
+                : salesRollupMapper.getDailySeries(null, instructorId, from, end));
+        response.setCourses(salesRollupMapper.getCourseTotals(instructorId, from, end, MAX_COURSE_TOTALS));
+        return response;
     }
 }
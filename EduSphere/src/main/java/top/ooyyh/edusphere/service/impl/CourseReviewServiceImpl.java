@@ -1,35 +1,107 @@
 package top.ooyyh.edusphere.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import top.ooyyh.edusphere.entity.CourseReview;
+import top.ooyyh.edusphere.event.CourseRatingChangedEvent;
 import top.ooyyh.edusphere.mapper.CourseReviewMapper;
 import top.ooyyh.edusphere.request.CourseReviewRequest;
+import top.ooyyh.edusphere.response.CourseReviewPageResponse;
+import top.ooyyh.edusphere.response.CourseReviewSummary;
 import top.ooyyh.edusphere.service.CourseReviewService;
 import top.ooyyh.edusphere.utils.Result;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 
+/**
+ * 课程评价服务实现类
+ *
+ * 评价列表按游标分页，每页只查询一页数据；评价统计（评价数、评分总和、各星级数量）
+ * 保存在 course_review_stats 中，添加和修改评价时在同一事务内增量更新，读取统计只需按主键查一行，
+ * 与评价数量无关。课程表上的评分由 CourseRatingAggregator 在事务提交后批量同步。
+ */
 @Service
 public class CourseReviewServiceImpl implements CourseReviewService {
     
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final String SORT_NEWEST = "newest";
+    private static final String SORT_LIKES = "likes";
+    private static final String SORT_RATING = "rating";
+    private static final String CURSOR_SEPARATOR = "|";
+    
     @Autowired
     private CourseReviewMapper courseReviewMapper;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Override
-    public Result<List<CourseReview>> getCourseReviews(Integer courseId) {
+    public Result<CourseReviewPageResponse> getCourseReviews(Integer courseId, String sortBy, String cursor, Integer size) {
         try {
-            List<CourseReview> reviews = courseReviewMapper.getReviewsByCourseId(courseId);
-            return Result.success(reviews);
+            String sort = SORT_LIKES.equals(sortBy) || SORT_RATING.equals(sortBy) ? sortBy : SORT_NEWEST;
+            int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+            
+            LocalDateTime afterTime = null;
+            Integer afterValue = null;
+            Integer afterId = null;
+            boolean firstPage = cursor == null || cursor.trim().isEmpty();
+            if (!firstPage) {
+                String[] parts = decodeCursor(cursor, sort);
+                if (parts == null) {
+                    return Result.error("无效的分页游标");
+                }
+                if (SORT_NEWEST.equals(sort)) {
+                    afterTime = LocalDateTime.parse(parts[1]);
+                } else {
+                    afterValue = Integer.valueOf(parts[1]);
+                }
+                afterId = Integer.valueOf(parts[2]);
+            }
+            
+            // 多取一条判断是否还有下一页
+            List<CourseReview> reviews = courseReviewMapper.getReviewPage(courseId, sort, afterTime, afterValue, afterId, pageSize + 1);
+            String nextCursor = null;
+            if (reviews.size() > pageSize) {
+                reviews = reviews.subList(0, pageSize);
+                nextCursor = encodeCursor(sort, reviews.get(pageSize - 1));
+            }
+            
+            CourseReviewPageResponse response = new CourseReviewPageResponse(reviews, nextCursor);
+            if (firstPage) {
+                response.setSummary(courseReviewMapper.getReviewSummary(courseId));
+            }
+            return Result.success(response);
         } catch (Exception e) {
             return Result.error("获取课程评价失败: " + e.getMessage());
         }
     }
     
     @Override
+    public Result<CourseReviewSummary> getReviewSummary(Integer courseId) {
+        try {
+            return Result.success(courseReviewMapper.getReviewSummary(courseId));
+        } catch (Exception e) {
+            return Result.error("获取评价统计失败: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    @Transactional
     public Result<String> addCourseReview(CourseReviewRequest request, Integer userId) {
         try {
+            if (!isValidRating(request.getRating())) {
+                return Result.error("评分必须在1到5之间");
+            }
+            
             // 检查用户是否已评价该课程
             if (courseReviewMapper.hasUserReviewed(request.getCourseId(), userId)) {
                 return Result.error("您已经评价过该课程");
@@ -45,18 +117,36 @@ public class CourseReviewServiceImpl implements CourseReviewService {
             
             int result = courseReviewMapper.addReview(review);
             if (result > 0) {
+                courseReviewMapper.applyRatingDelta(review.getCourseId(), review.getRating(), 1);
+                eventPublisher.publishEvent(new CourseRatingChangedEvent(this, review.getCourseId()));
                 return Result.success("评价成功");
             } else {
                 return Result.error("评价失败");
             }
+        } catch (DuplicateKeyException e) {
+            // 同一用户并发提交，唯一索引拦截了第二条
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Result.error("您已经评价过该课程");
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return Result.error("添加评价失败: " + e.getMessage());
         }
     }
     
     @Override
+    @Transactional
     public Result<String> updateCourseReview(CourseReviewRequest request, Integer userId) {
         try {
+            if (!isValidRating(request.getRating())) {
+                return Result.error("评分必须在1到5之间");
+            }
+            
+            // 锁定原评价，读取原评分用于增量更新统计
+            CourseReview existing = courseReviewMapper.getUserReviewForUpdate(request.getCourseId(), userId);
+            if (existing == null) {
+                return Result.error("评价不存在");
+            }
+            
             CourseReview review = new CourseReview();
             review.setCourseId(request.getCourseId());
             review.setUserId(userId);
@@ -66,11 +156,18 @@ public class CourseReviewServiceImpl implements CourseReviewService {
             
             int result = courseReviewMapper.updateReview(review);
             if (result > 0) {
+                // 只有显示中的评价计入统计
+                if (Integer.valueOf(1).equals(existing.getStatus()) && !existing.getRating().equals(review.getRating())) {
+                    courseReviewMapper.applyRatingDelta(review.getCourseId(), existing.getRating(), -1);
+                    courseReviewMapper.applyRatingDelta(review.getCourseId(), review.getRating(), 1);
+                    eventPublisher.publishEvent(new CourseRatingChangedEvent(this, review.getCourseId()));
+                }
                 return Result.success("更新评价成功");
             } else {
                 return Result.error("更新评价失败");
             }
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return Result.error("更新评价失败: " + e.getMessage());
         }
     }
@@ -88,4 +185,74 @@ public class CourseReviewServiceImpl implements CourseReviewService {
             return Result.error("点赞失败: " + e.getMessage());
         }
     }
+    
+    @Override
+    @Transactional
+    public Result<String> moderateReview(Integer reviewId, Integer status) {
+        try {
+            if (status == null || (status != 0 && status != 1)) {
+                return Result.error("无效的评价状态");
+            }
+            
+            // 锁定评价，读取原状态用于增量更新统计
+            CourseReview existing = courseReviewMapper.getReviewByIdForUpdate(reviewId);
+            if (existing == null) {
+                return Result.error("评价不存在");
+            }
+            if (status.equals(existing.getStatus())) {
+                return Result.success("评价状态未变化");
+            }
+            
+            courseReviewMapper.updateReviewStatus(reviewId, status);
+            // 显示 -> 隐藏移出统计，隐藏 -> 显示计入统计
+            courseReviewMapper.applyRatingDelta(existing.getCourseId(), existing.getRating(), status == 1 ? 1 : -1);
+            eventPublisher.publishEvent(new CourseRatingChangedEvent(this, existing.getCourseId()));
+            return Result.success(status == 1 ? "评价已恢复显示" : "评价已隐藏");
+        } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Result.error("审核评价失败: " + e.getMessage());
+        }
+    }
+    
+    private static boolean isValidRating(Integer rating) {
+        return rating != null && rating >= 1 && rating <= 5;
+    }
+    
+    /**
+     * 游标 = 排序方式 + 上一页最后一条的排序键和评价ID，Base64 编码后对调用方不透明
+     */
+    private static String encodeCursor(String sortBy, CourseReview last) {
+        Object key;
+        if (SORT_LIKES.equals(sortBy)) {
+            key = last.getLikeCount() != null ? last.getLikeCount() : 0;
+        } else if (SORT_RATING.equals(sortBy)) {
+            key = last.getRating();
+        } else {
+            key = last.getCreatedAt();
+        }
+        String cursor = sortBy + CURSOR_SEPARATOR + key + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 解析游标，格式不对或排序方式与本次请求不一致时返回 null
+     */
+    private static String[] decodeCursor(String cursor, String sortBy) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\" + CURSOR_SEPARATOR);
+            if (parts.length != 3 || !parts[0].equals(sortBy)) {
+                return null;
+            }
+            if (SORT_NEWEST.equals(sortBy)) {
+                LocalDateTime.parse(parts[1]);
+            } else {
+                Integer.parseInt(parts[1]);
+            }
+            Integer.parseInt(parts[2]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
 }
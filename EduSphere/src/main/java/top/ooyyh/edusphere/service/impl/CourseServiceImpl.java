@@ -1,24 +1,32 @@
 package top.ooyyh.edusphere.service.impl;
 
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import top.ooyyh.edusphere.cache.CourseCatalog;
+import top.ooyyh.edusphere.cache.CourseOutlineCache;
 import top.ooyyh.edusphere.entity.Course;
 import top.ooyyh.edusphere.entity.CourseSection;
-import top.ooyyh.edusphere.entity.CourseLesson;
 import top.ooyyh.edusphere.mapper.CourseMapper;
 import top.ooyyh.edusphere.mapper.CourseSectionMapper;
-import top.ooyyh.edusphere.mapper.CourseLessonMapper;
 import top.ooyyh.edusphere.mapper.CourseReviewMapper;
 import top.ooyyh.edusphere.request.CourseSearchRequest;
 import top.ooyyh.edusphere.response.CourseSearchResponse;
+import top.ooyyh.edusphere.search.CourseSearchIndex;
 import top.ooyyh.edusphere.service.CourseService;
 import top.ooyyh.edusphere.utils.Result;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class CourseServiceImpl implements CourseService {
     
+    /**
+     * 课程详情中附带的最新评价条数，完整列表走评价分页接口
+     */
+    private static final int DETAIL_REVIEW_COUNT = 10;
+    
     @Autowired
     private CourseMapper courseMapper;
     
@@ -26,10 +34,16 @@ public class CourseServiceImpl implements CourseService {
     private CourseSectionMapper courseSectionMapper;
     
     @Autowired
-    private CourseLessonMapper courseLessonMapper;
+    private CourseReviewMapper courseReviewMapper;
     
     @Autowired
-    private CourseReviewMapper courseReviewMapper;
+    private CourseCatalog courseCatalog;
+    
+    @Autowired
+    private CourseOutlineCache courseOutlineCache;
+    
+    @Autowired
+    private CourseSearchIndex courseSearchIndex;
     
     @Override
     public Result<Course> getCourseDetail(Integer courseId) {
@@ -43,7 +57,7 @@ public class CourseServiceImpl implements CourseService {
             course.setSections(courseSectionMapper.getSectionsByCourseId(courseId));
             
             // 获取课程评价
-            course.setReviews(courseReviewMapper.getReviewsByCourseId(courseId));
+            course.setReviews(courseReviewMapper.getReviewPage(courseId, "newest", null, null, null, DETAIL_REVIEW_COUNT));
             
             return Result.success(course);
         } catch (Exception e) {
@@ -54,14 +68,26 @@ public class CourseServiceImpl implements CourseService {
     @Override
     public Result<CourseSearchResponse> searchCourses(CourseSearchRequest request) {
         try {
-            List<Course> courses = courseMapper.getCourseList(request);
-            Integer total = courseMapper.getCourseCount(request);
+            // 全文索引负责匹配、筛选、排序和计数，课程数据从目录快照中取
+            CourseSearchIndex.Hits hits = courseSearchIndex.search(request);
+            List<Course> courses = new ArrayList<>(hits.getIds().size());
+            for (Integer id : hits.getIds()) {
+                Course course = courseCatalog.getCourse(id);
+                if (course != null) {
+                    courses.add(course);
+                }
+            }
             CourseSearchResponse response = new CourseSearchResponse(
                 courses, 
-                total, 
+                hits.getTotal(), 
                 request.getPageNum(), 
                 request.getPageSize()
             );
+            response.setNextCursor(hits.getNextCursor());
+            if (Boolean.TRUE.equals(request.getFacets())) {
+                RoaringBitmap matches = courseSearchIndex.match(request.getKeyword());
+                response.setFacets(courseCatalog.getFacetIndex().count(matches, request));
+            }
             return Result.success(response);
         } catch (Exception e) {
             return Result.error("搜索课程失败: " + e.getMessage());
@@ -71,7 +97,8 @@ public class CourseServiceImpl implements CourseService {
     @Override
     public Result<List<Course>> getHotCourses(Integer limit) {
         try {
-            List<Course> courses = courseMapper.getHotCourses(limit);
+            // 从课程目录快照读取，不查库
+            List<Course> courses = courseCatalog.getHotCourses(limit);
             return Result.success(courses);
         } catch (Exception e) {
             return Result.error("获取热门课程失败: " + e.getMessage());
@@ -81,7 +108,7 @@ public class CourseServiceImpl implements CourseService {
     @Override
     public Result<List<Course>> getNewCourses(Integer limit) {
         try {
-            List<Course> courses = courseMapper.getNewCourses(limit);
+            List<Course> courses = courseCatalog.getNewCourses(limit);
             return Result.success(courses);
         } catch (Exception e) {
             return Result.error("获取最新课程失败: " + e.getMessage());
@@ -91,7 +118,7 @@ public class CourseServiceImpl implements CourseService {
     @Override
     public Result<List<Course>> getCoursesByCategory(Integer categoryId, Integer limit) {
         try {
-            List<Course> courses = courseMapper.getCoursesByCategory(categoryId, limit);
+            List<Course> courses = courseCatalog.getCoursesByCategory(categoryId, limit);
             return Result.success(courses);
         } catch (Exception e) {
             return Result.error("获取分类课程失败: " + e.getMessage());
@@ -101,22 +128,13 @@ public class CourseServiceImpl implements CourseService {
     @Override
     public Result<List<CourseSection>> getCourseOutline(Integer courseId) {
         try {
-            // 检查课程是否存在
-            Course course = courseMapper.getCourseById(courseId);
-            if (course == null) {
+            // 检查课程是否存在（已发布课程直接查目录快照）
+            if (courseCatalog.getCourse(courseId) == null && courseMapper.getCourseById(courseId) == null) {
                 return Result.error("课程不存在");
             }
             
-            // 获取课程章节
-            List<CourseSection> sections = courseSectionMapper.getSectionsByCourseId(courseId);
-            
-            // 为每个章节加载课时
-            for (CourseSection section : sections) {
-                List<CourseLesson> lessons = courseLessonMapper.getLessonsBySectionId(section.getId());
-                section.setLessons(lessons);
-            }
-            
-            return Result.success(sections);
+            // 章节和课时从大纲缓存读取
+            return Result.success(courseOutlineCache.get(courseId).getSections());
         } catch (Exception e) {
             return Result.error("获取课程大纲失败: " + e.getMessage());
         }
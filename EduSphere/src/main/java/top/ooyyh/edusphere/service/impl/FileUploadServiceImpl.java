@@ -5,14 +5,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import top.ooyyh.edusphere.config.FileUploadConfig;
 import top.ooyyh.edusphere.service.FileUploadService;
+import top.ooyyh.edusphere.utils.SnowflakeIdGenerator;
 
 import java.io.File;
 import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * 文件上传服务实现类
@@ -22,6 +24,19 @@ public class FileUploadServiceImpl implements FileUploadService {
 
     @Autowired
     private FileUploadConfig fileUploadConfig;
+    
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+    
+    // 上传文件按URL公开访问，文件名需要不可猜测；每个线程一个 SHA1PRNG（只在创建时取一次系统熵），
+    // 避免所有上传共用一个 SecureRandom 时的锁竞争
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(() -> {
+        try {
+            return SecureRandom.getInstance("SHA1PRNG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    });
 
     // 允许的图片格式
     private static final List<String> IMAGE_EXTENSIONS = Arrays.asList("jpg", "jpeg", "png", "gif", "bmp", "webp");
@@ -86,10 +101,10 @@ public class FileUploadServiceImpl implements FileUploadService {
             throw new IllegalArgumentException("不支持的" + fileType + "格式: " + extension + "。支持的格式: " + allowedExtensions);
         }
 
-        // 3. 生成新文件名（使用日期 + UUID避免重名）
+        // 3. 生成新文件名（日期 + 按时间递增的ID保证不重名 + 64 位随机数保证不可猜测）
         String dateStr = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String uuid = UUID.randomUUID().toString().replace("-", "");
-        String newFilename = dateStr + "_" + uuid + "." + extension;
+        String fileId = idGenerator.nextIdString() + SnowflakeIdGenerator.toString(RANDOM.get().nextLong());
+        String newFilename = dateStr + "_" + fileId + "." + extension;
 
         // 4. 创建日期子目录
         String datePath = uploadPath + dateStr + "/";
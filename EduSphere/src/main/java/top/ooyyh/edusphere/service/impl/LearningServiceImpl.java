@@ -2,12 +2,12 @@ package top.ooyyh.edusphere.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import top.ooyyh.edusphere.controller.LearningController.CourseProgressResponse;
 import top.ooyyh.edusphere.entity.CourseLesson;
 import top.ooyyh.edusphere.entity.LearningProgress;
 import top.ooyyh.edusphere.mapper.CourseLessonMapper;
 import top.ooyyh.edusphere.mapper.CourseSectionMapper;
 import top.ooyyh.edusphere.mapper.LearningProgressMapper;
+import top.ooyyh.edusphere.response.CourseProgressResponse;
 import top.ooyyh.edusphere.service.LearningService;
 
 import java.time.LocalDateTime;
@@ -1,21 +1,50 @@
 package top.ooyyh.edusphere.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import top.ooyyh.edusphere.entity.Course;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import top.ooyyh.edusphere.counter.OrderReservationExpirer;
 import top.ooyyh.edusphere.entity.Order;
 import top.ooyyh.edusphere.entity.OrderItem;
+import top.ooyyh.edusphere.entity.PurchaseContext;
+import top.ooyyh.edusphere.entity.PurchaseRecord;
+import top.ooyyh.edusphere.entity.UserBalance;
+import top.ooyyh.edusphere.event.CourseEnrolledEvent;
+import top.ooyyh.edusphere.mapper.CartMapper;
 import top.ooyyh.edusphere.mapper.CourseMapper;
+import top.ooyyh.edusphere.mapper.InstructorIncomeMapper;
 import top.ooyyh.edusphere.mapper.OrderItemMapper;
 import top.ooyyh.edusphere.mapper.OrderMapper;
+import top.ooyyh.edusphere.mapper.PurchaseRecordMapper;
+import top.ooyyh.edusphere.mapper.UserBalanceMapper;
 import top.ooyyh.edusphere.service.OrderService;
+import top.ooyyh.edusphere.utils.Money;
+import top.ooyyh.edusphere.utils.PlatformFee;
 import top.ooyyh.edusphere.utils.Result;
+import top.ooyyh.edusphere.utils.SnowflakeIdGenerator;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
+/**
+ * 订单服务实现类
+ *
+ * 多门课程的订单按批处理：课程信息（连同买家余额和已购买状态）一次查出，订单项、购买记录、
+ * 讲师收入和用户课程各用一条多行插入，余额只做一次条件扣减。支付在一个事务中完成，任一步失败整体回滚。
+ *
+ * 先下单后支付的订单在下单时冻结订单金额（frozen_balance），支付时冻结转为扣款，
+ * 超过 expire-minutes 未支付由 {@link OrderReservationExpirer} 取消并释放冻结。
+ * 冻结是下单事务的最后一条语句，余额行只在提交前的很短时间内被锁住。
+ */
 @Service
 public class OrderServiceImpl implements OrderService {
     
@@ -28,50 +57,116 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private CourseMapper courseMapper;
     
+    @Autowired
+    private CartMapper cartMapper;
+    
+    @Autowired
+    private PurchaseRecordMapper purchaseRecordMapper;
+    
+    @Autowired
+    private UserBalanceMapper userBalanceMapper;
+    
+    @Autowired
+    private InstructorIncomeMapper instructorIncomeMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private OrderReservationExpirer orderReservationExpirer;
+    
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+    
+    @Value("${edusphere.order.expire-minutes:15}")
+    private long expireMinutes;
+    
+    private static final String PAYMENT_METHOD_BALANCE = "balance";
+    
     @Override
+    @Transactional
     public Result<Order> createOrder(Integer userId, List<Integer> courseIds) {
         try {
-            // 计算订单总金额
-            BigDecimal totalAmount = BigDecimal.ZERO;
-            for (Integer courseId : courseIds) {
-                Course course = courseMapper.getCourseById(courseId);
-                if (course != null) {
-                    totalAmount = totalAmount.add(course.getPrice());
+            // 去重并保持顺序，一次查出全部课程
+            List<Integer> distinctIds = new ArrayList<>(new LinkedHashSet<>(courseIds));
+            List<PurchaseContext> contexts = purchaseRecordMapper.getPurchaseContexts(userId, distinctIds);
+            Map<Integer, PurchaseContext> byId = new LinkedHashMap<>();
+            for (PurchaseContext context : contexts) {
+                byId.put(context.getCourseId(), context);
+            }
+            // 不存在的课程跳过
+            List<PurchaseContext> ordered = new ArrayList<>();
+            for (Integer courseId : distinctIds) {
+                if (byId.containsKey(courseId)) {
+                    ordered.add(byId.get(courseId));
                 }
             }
             
-            // 创建订单
-            Order order = new Order();
-            order.setOrderNo(UUID.randomUUID().toString().replace("-", ""));
-            order.setUserId(userId);
-            order.setTotalAmount(totalAmount);
-            order.setStatus("pending");
-            order.setCreatedAt(LocalDateTime.now());
+            String error = checkPurchasable(ordered);
+            if (error == null) {
+                error = checkAvailableBalance(ordered);
+            }
+            if (error != null) {
+                return Result.error(error);
+            }
             
-            int result = orderMapper.createOrder(order);
-            if (result > 0) {
-                // 创建订单项
-                for (Integer courseId : courseIds) {
-                    Course course = courseMapper.getCourseById(courseId);
-                    if (course != null) {
-                        OrderItem orderItem = new OrderItem();
-                        orderItem.setOrderId(order.getId());
-                        orderItem.setCourseId(courseId);
-                        orderItem.setCourseTitle(course.getTitle());
-                        orderItem.setCoursePrice(course.getPrice());
-                        orderItem.setCreatedAt(LocalDateTime.now());
-                        orderItemMapper.addOrderItem(orderItem);
-                    }
-                }
-                return Result.success(order);
-            } else {
-                return Result.error("创建订单失败");
+            // 创建订单，最后冻结订单金额，超时未支付自动释放
+            Order order = placeOrder(userId, ordered, true);
+            Money reservedAmount = order.getReservedAmount();
+            if (reservedAmount.isPositive() && userBalanceMapper.freezeBalance(userId, reservedAmount) == 0) {
+                throw new RuntimeException("余额不足，需要: ¥" + reservedAmount);
             }
+            orderReservationExpirer.schedule(order.getId(), order.getExpiresAt());
+            return Result.success(order);
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return Result.error("创建订单失败: " + e.getMessage());
         }
     }
     
+    @Override
+    @Transactional
+    public Result<Order> checkout(Integer userId, List<Integer> courseIds) {
+        try {
+            // 1. 一次查出购物车中的课程、买家余额和已购买状态
+            List<PurchaseContext> contexts = purchaseRecordMapper.getCartPurchaseContexts(userId, courseIds);
+            if (contexts.isEmpty()) {
+                return Result.error("购物车中没有可结算的课程");
+            }
+            String error = checkPurchasable(contexts);
+            
+            // 2. 余额快速检查，最终以条件扣减的结果为准
+            if (error == null) {
+                error = checkAvailableBalance(contexts);
+            }
+            if (error != null) {
+                return Result.error(error);
+            }
+            
+            // 3. 创建订单和订单项（立即支付，不冻结）
+            Order order = placeOrder(userId, contexts, false);
+            
+            // 4. 扣款、写购买记录、开通课程
+            payWithBalance(userId, order, contexts);
+            
+            // 5. 移除购物车中已结算的课程
+            List<Integer> paidIds = new ArrayList<>(contexts.size());
+            for (PurchaseContext context : contexts) {
+                paidIds.add(context.getCourseId());
+            }
+            cartMapper.removeCoursesFromCart(userId, paidIds);
+            
+            return Result.success(order);
+        } catch (DuplicateKeyException e) {
+            // 并发购买了其中的课程，(user_id, course_id) 唯一键拦下，整单回滚
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Result.error("结算失败: 订单中有已购买的课程");
+        } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Result.error("结算失败: " + e.getMessage());
+        }
+    }
+    
     @Override
     public Result<List<Order>> getUserOrders(Integer userId) {
         try {
@@ -83,10 +178,11 @@ public class OrderServiceImpl implements OrderService {
     }
     
     @Override
-    public Result<Order> getOrderByOrderNo(String orderNo) {
+    public Result<Order> getOrderByOrderNo(Integer userId, String orderNo) {
         try {
             Order order = orderMapper.getOrderByOrderNo(orderNo);
-            if (order == null) {
+            // 订单号按时间递增可被枚举，只返回当前用户自己的订单
+            if (order == null || !order.getUserId().equals(userId)) {
                 return Result.error("订单不存在");
             }
             return Result.success(order);
@@ -96,10 +192,11 @@ public class OrderServiceImpl implements OrderService {
     }
     
     @Override
-    public Result<String> payOrder(String orderNo) {
+    @Transactional
+    public Result<String> payOrder(Integer userId, String orderNo) {
         try {
             Order order = orderMapper.getOrderByOrderNo(orderNo);
-            if (order == null) {
+            if (order == null || !order.getUserId().equals(userId)) {
                 return Result.error("订单不存在");
             }
             
@@ -107,14 +204,217 @@ public class OrderServiceImpl implements OrderService {
                 return Result.error("订单状态不正确");
             }
             
-            int result = orderMapper.updateOrderStatus(order.getId(), "paid");
-            if (result > 0) {
-                return Result.success("支付成功");
-            } else {
-                return Result.error("支付失败");
+            // 按订单项的成交价支付，课程状态和已购买状态一次查出
+            List<OrderItem> items = orderItemMapper.getOrderItemsByOrderId(order.getId());
+            if (items.isEmpty()) {
+                return Result.error("订单中没有课程");
+            }
+            List<Integer> courseIds = new ArrayList<>(items.size());
+            for (OrderItem item : items) {
+                courseIds.add(item.getCourseId());
+            }
+            Map<Integer, PurchaseContext> byId = new LinkedHashMap<>();
+            for (PurchaseContext context : purchaseRecordMapper.getPurchaseContexts(userId, courseIds)) {
+                byId.put(context.getCourseId(), context);
+            }
+            List<PurchaseContext> contexts = new ArrayList<>(items.size());
+            for (OrderItem item : items) {
+                PurchaseContext context = byId.get(item.getCourseId());
+                if (context == null) {
+                    return Result.error("课程不存在或未发布: " + item.getCourseTitle());
+                }
+                context.setCoursePrice(item.getCoursePrice());
+                contexts.add(context);
+            }
+            String error = checkPurchasable(contexts);
+            if (error != null) {
+                return Result.error(error);
             }
+            
+            order.setOrderItems(items);
+            payWithBalance(userId, order, contexts);
+            return Result.success("支付成功");
+        } catch (DuplicateKeyException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Result.error("支付失败: 订单中有已购买的课程");
         } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return Result.error("支付失败: " + e.getMessage());
         }
     }
+    
+    @Override
+    @Transactional
+    public Result<String> cancelOrder(Integer userId, String orderNo) {
+        try {
+            Order order = orderMapper.getOrderByOrderNo(orderNo);
+            if (order == null || !order.getUserId().equals(userId)) {
+                return Result.error("订单不存在");
+            }
+            
+            // 与支付、过期释放互斥：只有仍为待支付的订单会被取消并释放冻结
+            if (orderReservationExpirer.release(Collections.singletonList(order.getId()), null) == 0) {
+                return Result.error("订单状态不正确");
+            }
+            return Result.success("订单已取消");
+        } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Result.error("取消订单失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 检查课程是否都可以购买，返回错误信息，全部可以购买时返回 null
+     */
+    private String checkPurchasable(List<PurchaseContext> contexts) {
+        if (contexts.isEmpty()) {
+            return "请选择要购买的课程";
+        }
+        for (PurchaseContext context : contexts) {
+            if (!"published".equals(context.getCourseStatus())) {
+                return "课程不存在或未发布: " + context.getCourseTitle();
+            }
+            if (Boolean.TRUE.equals(context.getPurchased())) {
+                return "您已购买过此课程: " + context.getCourseTitle();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 检查买家可用余额（余额 - 已冻结）是否足够，足够时返回 null
+     */
+    private String checkAvailableBalance(List<PurchaseContext> contexts) {
+        Money totalAmount = totalPrice(contexts);
+        Money availableBalance = Money.orZero(contexts.get(0).getBuyerBalance());
+        if (availableBalance.isLessThan(totalAmount)) {
+            return "余额不足，当前余额: ¥" + availableBalance + "，需要: ¥" + totalAmount;
+        }
+        return null;
+    }
+    
+    /**
+     * 课程成交价合计
+     */
+    private static Money totalPrice(List<PurchaseContext> contexts) {
+        long cents = 0;
+        for (PurchaseContext context : contexts) {
+            cents = Math.addExact(cents, context.getCoursePrice().getCents());
+        }
+        return Money.ofCents(cents);
+    }
+    
+    /**
+     * 创建待支付订单，订单项一条语句批量插入
+     *
+     * @param reserve 是否冻结订单金额（先下单后支付）；为 true 时订单带过期时间，冻结由调用方执行
+     */
+    private Order placeOrder(Integer userId, List<PurchaseContext> contexts, boolean reserve) {
+        // 过期时间取整到秒，与数据库 DATETIME 的精度一致
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Money totalAmount = totalPrice(contexts);
+        
+        Order order = new Order();
+        // 订单号按时间递增，插入 uk_order_no 时总是追加在索引末尾
+        order.setOrderNo(idGenerator.nextIdString());
+        order.setUserId(userId);
+        order.setTotalAmount(totalAmount);
+        order.setStatus("pending");
+        order.setReservedAmount(reserve ? totalAmount : Money.ZERO);
+        order.setExpiresAt(reserve ? now.plusMinutes(expireMinutes) : null);
+        order.setCreatedAt(now);
+        if (orderMapper.createOrder(order) == 0) {
+            throw new RuntimeException("创建订单失败");
+        }
+        
+        List<OrderItem> items = new ArrayList<>(contexts.size());
+        for (PurchaseContext context : contexts) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrderId(order.getId());
+            orderItem.setCourseId(context.getCourseId());
+            orderItem.setCourseTitle(context.getCourseTitle());
+            orderItem.setCoursePrice(context.getCoursePrice());
+            orderItem.setCreatedAt(now);
+            items.add(orderItem);
+        }
+        orderItemMapper.addOrderItems(items);
+        order.setOrderItems(items);
+        return order;
+    }
+    
+    /**
+     * 用余额支付订单（在调用方的事务中）：
+     * 标记已支付（仅未过期的待支付订单）→ 冻结转扣款或一次条件扣减订单总额 → 批量写购买记录
+     * → 批量追加讲师待结算收入 → 批量开通课程
+     * contexts 与 order.getOrderItems() 一一对应
+     */
+    private void payWithBalance(Integer userId, Order order, List<PurchaseContext> contexts) {
+        LocalDateTime now = LocalDateTime.now();
+        
+        // 1. 并发支付同一订单时只有一个能把状态从 pending 改为 paid，已过期的订单不能支付
+        if (orderMapper.markOrderPaid(order.getId(), PAYMENT_METHOD_BALANCE, now) == 0) {
+            throw new RuntimeException("订单状态不正确或已过期");
+        }
+        
+        // 2. 下单时冻结过的订单把冻结转为扣款，否则一次条件扣减订单总额，影响行数为 0 说明余额不足
+        Money totalAmount = order.getTotalAmount();
+        Money reservedAmount = order.getReservedAmount();
+        Money balanceAfter;
+        if (reservedAmount != null && reservedAmount.isPositive()) {
+            if (userBalanceMapper.captureFrozenBalance(userId, reservedAmount) == 0) {
+                throw new RuntimeException("冻结金额不足");
+            }
+            balanceAfter = userBalanceMapper.getByUserId(userId).getBalance();
+        } else if (totalAmount.isPositive()) {
+            if (userBalanceMapper.subtractBalance(userId, totalAmount) == 0) {
+                throw new RuntimeException("余额不足，需要: ¥" + totalAmount);
+            }
+            balanceAfter = userBalanceMapper.getByUserId(userId).getBalance();
+        } else {
+            UserBalance userBalance = userBalanceMapper.getByUserId(userId);
+            balanceAfter = userBalance != null ? userBalance.getBalance() : Money.ZERO;
+        }
+        
+        // 3. 每门课程一条购买记录，余额变化按订单项顺序依次分摊
+        List<OrderItem> items = order.getOrderItems();
+        List<PurchaseRecord> records = new ArrayList<>(items.size());
+        List<Integer> courseIds = new ArrayList<>(items.size());
+        Money running = balanceAfter.add(totalAmount);
+        for (int i = 0; i < items.size(); i++) {
+            OrderItem item = items.get(i);
+            Money price = item.getCoursePrice();
+            Money platformFee = PlatformFee.feeOf(price);
+            
+            PurchaseRecord record = new PurchaseRecord();
+            record.setUserId(userId);
+            record.setCourseId(item.getCourseId());
+            record.setInstructorId(contexts.get(i).getInstructorId());
+            record.setPurchasePrice(price);
+            record.setBalanceBefore(running);
+            running = running.subtract(price);
+            record.setBalanceAfter(running);
+            record.setInstructorIncome(PlatformFee.instructorIncomeOf(price, platformFee));
+            record.setPlatformFee(platformFee);
+            record.setStatus("success");
+            record.setCreatedAt(now);
+            records.add(record);
+            courseIds.add(item.getCourseId());
+        }
+        purchaseRecordMapper.insertBatch(records);
+        
+        // 4. 讲师收入按购买记录追加为待结算，由结算任务批量入账
+        instructorIncomeMapper.insertFromPurchases(userId, courseIds);
+        
+        // 5. 批量开通课程
+        courseMapper.insertUserCourses(userId, items);
+        
+        // 6. 课程学员数在事务提交后由计数器累加
+        for (Integer courseId : courseIds) {
+            eventPublisher.publishEvent(new CourseEnrolledEvent(this, courseId));
+        }
+        
+        order.setStatus("paid");
+        order.setPaymentMethod(PAYMENT_METHOD_BALANCE);
+        order.setPaymentTime(now);
+    }
 }
@@ -0,0 +1,128 @@
+package top.ooyyh.edusphere.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import top.ooyyh.edusphere.exception.ServiceBusyException;
+import top.ooyyh.edusphere.service.PasswordService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 密码哈希服务实现类
+ *
+ * BCrypt 每次计算都是几十毫秒的纯 CPU 开销，放在 Tomcat 请求线程里做的话，
+ * 登录高峰会占满 CPU 和请求线程，拖慢所有接口。这里用固定大小的线程池 + 有界队列隔离：
+ * 队列满时立即拒绝（503），等待超时也按繁忙处理，其余接口不受影响。
+ */
+@Service
+public class PasswordServiceImpl implements PasswordService {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+
+    @Value("${edusphere.password.bcrypt-strength:10}")
+    private int strength;
+
+    @Value("${edusphere.password.threads:0}")
+    private int threads;
+
+    @Value("${edusphere.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${edusphere.password.timeout-millis:3000}")
+    private long timeoutMillis;
+
+    private BCryptPasswordEncoder encoder;
+
+    // 启动时按当前强度生成的哑哈希，与真实密码哈希的计算量相同
+    private String dummyHash;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        encoder = new BCryptPasswordEncoder(strength);
+        dummyHash = encoder.encode(UUID.randomUUID().toString());
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String encode(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return false;
+        }
+        if (!isHashed(storedPassword)) {
+            // 旧数据中的明文密码，用常量时间比较
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        return submit(() -> encoder.matches(rawPassword, storedPassword));
+    }
+
+    @Override
+    public void matchDummy(String rawPassword) {
+        submit(() -> encoder.matches(rawPassword != null ? rawPassword : "", dummyHash));
+    }
+
+    @Override
+    public boolean needsUpgrade(String storedPassword) {
+        return storedPassword != null && (!isHashed(storedPassword) || encoder.upgradeEncoding(storedPassword));
+    }
+
+    private boolean isHashed(String storedPassword) {
+        return BCRYPT_PATTERN.matcher(storedPassword).matches();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("登录请求过多，请稍后再试");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceBusyException("登录请求过多，请稍后再试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("请求被中断，请稍后再试");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("密码哈希计算失败", e.getCause());
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package top.ooyyh.edusphere.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import top.ooyyh.edusphere.cache.CourseOutline;
+import top.ooyyh.edusphere.cache.CourseOutlineCache;
 import top.ooyyh.edusphere.entity.Course;
 import top.ooyyh.edusphere.entity.CourseSection;
 import top.ooyyh.edusphere.entity.CourseLesson;
+import top.ooyyh.edusphere.event.CourseChangedEvent;
 import top.ooyyh.edusphere.mapper.CourseMapper;
 import top.ooyyh.edusphere.mapper.CourseSectionMapper;
 import top.ooyyh.edusphere.mapper.CourseLessonMapper;
@@ -32,6 +36,12 @@ public class TeacherServiceImpl implements TeacherService {
     @Autowired
     private CourseLessonMapper courseLessonMapper;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CourseOutlineCache courseOutlineCache;
+    
     @Override
     public Result<List<Course>> getTeacherCourses(Integer teacherId) {
         try {
@@ -67,6 +77,8 @@ public class TeacherServiceImpl implements TeacherService {
             course.setUpdatedAt(LocalDateTime.now());
             
             courseMapper.insertCourse(course);
+            eventPublisher.publishEvent(new CourseChangedEvent(this, course.getId(), CourseChangedEvent.Type.CREATED,
+                    null, course.getStatus()));
             return Result.success(course);
         } catch (Exception e) {
             return Result.error("创建课程失败: " + e.getMessage());
@@ -101,6 +113,7 @@ public class TeacherServiceImpl implements TeacherService {
             course.setUpdatedAt(LocalDateTime.now());
             
             courseMapper.updateCourse(course);
+            eventPublisher.publishEvent(new CourseChangedEvent(this, courseId, CourseChangedEvent.Type.UPDATED));
             return Result.success(course);
         } catch (Exception e) {
             return Result.error("更新课程失败: " + e.getMessage());
@@ -121,6 +134,7 @@ public class TeacherServiceImpl implements TeacherService {
             }
             
             courseMapper.deleteCourse(courseId);
+            eventPublisher.publishEvent(new CourseChangedEvent(this, courseId, CourseChangedEvent.Type.DELETED));
             return Result.success("删除课程成功");
         } catch (Exception e) {
             return Result.error("删除课程失败: " + e.getMessage());
@@ -147,11 +161,14 @@ public class TeacherServiceImpl implements TeacherService {
                 return Result.error("无权限操作此课程");
             }
             
+            String previousStatus = course.getStatus();
             course.setStatus("pending"); // 提交审核
             course.setUpdatedAt(LocalDateTime.now());
             System.out.println("准备更新课程状态为: pending");
             
             courseMapper.updateCourse(course);
+            eventPublisher.publishEvent(new CourseChangedEvent(this, courseId, CourseChangedEvent.Type.STATUS_CHANGED,
+                    previousStatus, course.getStatus()));
             System.out.println("数据库更新完成");
             
             return Result.success("课程已提交审核，等待管理员审核");
@@ -175,9 +192,12 @@ public class TeacherServiceImpl implements TeacherService {
                 return Result.error("无权限操作此课程");
             }
             
+            String previousStatus = course.getStatus();
             course.setStatus("draft"); // 撤回为草稿
             course.setUpdatedAt(LocalDateTime.now());
             courseMapper.updateCourse(course);
+            eventPublisher.publishEvent(new CourseChangedEvent(this, courseId, CourseChangedEvent.Type.STATUS_CHANGED,
+                    previousStatus, course.getStatus()));
             return Result.success("课程已撤回为草稿状态");
         } catch (Exception e) {
             return Result.error("下架课程失败: " + e.getMessage());
@@ -224,6 +244,7 @@ public class TeacherServiceImpl implements TeacherService {
             section.setUpdatedAt(LocalDateTime.now());
             
             courseSectionMapper.insertSection(section);
+            courseOutlineCache.bump(section.getCourseId());
             return Result.success(section);
         } catch (Exception e) {
             return Result.error("创建章节失败: " + e.getMessage());
@@ -250,6 +271,7 @@ public class TeacherServiceImpl implements TeacherService {
             section.setUpdatedAt(LocalDateTime.now());
             
             courseSectionMapper.updateSection(section);
+            courseOutlineCache.bump(section.getCourseId());
             return Result.success(section);
         } catch (Exception e) {
             return Result.error("更新章节失败: " + e.getMessage());
@@ -271,6 +293,7 @@ public class TeacherServiceImpl implements TeacherService {
             }
             
             courseSectionMapper.deleteSection(sectionId);
+            courseOutlineCache.bump(section.getCourseId());
             return Result.success("删除章节成功");
         } catch (Exception e) {
             return Result.error("删除章节失败: " + e.getMessage());
@@ -330,6 +353,7 @@ public class TeacherServiceImpl implements TeacherService {
             lesson.setUpdatedAt(LocalDateTime.now());
             
             courseLessonMapper.insertLesson(lesson);
+            courseOutlineCache.bump(section.getCourseId());
             return Result.success(lesson);
         } catch (Exception e) {
             return Result.error("创建课时失败: " + e.getMessage());
@@ -370,6 +394,7 @@ public class TeacherServiceImpl implements TeacherService {
             lesson.setUpdatedAt(LocalDateTime.now());
             
             courseLessonMapper.updateLesson(lesson);
+            courseOutlineCache.bump(section.getCourseId());
             return Result.success(lesson);
         } catch (Exception e) {
             return Result.error("更新课时失败: " + e.getMessage());
@@ -396,6 +421,7 @@ public class TeacherServiceImpl implements TeacherService {
             }
             
             courseLessonMapper.deleteLesson(lessonId);
+            courseOutlineCache.bump(section.getCourseId());
             return Result.success("删除课时成功");
         } catch (Exception e) {
             return Result.error("删除课时失败: " + e.getMessage());
@@ -418,16 +444,10 @@ public class TeacherServiceImpl implements TeacherService {
                 return Result.error("无权限查看此课程的统计信息");
             }
             
-            // 获取章节数
-            List<CourseSection> sections = courseSectionMapper.getSectionsByCourseId(courseId);
-            int sectionCount = sections.size();
-            
-            // 获取课时数
-            int lessonCount = 0;
-            for (CourseSection section : sections) {
-                List<CourseLesson> lessons = courseLessonMapper.getLessonsBySectionId(section.getId());
-                lessonCount += lessons.size();
-            }
+            // 章节数和课时数从大纲缓存读取
+            CourseOutline outline = courseOutlineCache.get(courseId);
+            int sectionCount = outline.getSectionCount();
+            int lessonCount = outline.getLessonCount();
             
             stats.put("courseId", courseId);
             stats.put("title", course.getTitle());
@@ -10,8 +10,8 @@ import top.ooyyh.edusphere.mapper.UserBalanceMapper;
 import top.ooyyh.edusphere.request.RechargeRequest;
 import top.ooyyh.edusphere.response.UserBalanceResponse;
 import top.ooyyh.edusphere.service.UserBalanceService;
+import top.ooyyh.edusphere.utils.Money;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -57,16 +57,18 @@ public class UserBalanceServiceImpl implements UserBalanceService {
                 userBalance = userBalanceMapper.getByUserId(userId);
             }
             
-            BigDecimal balanceBefore = userBalance.getBalance();
-            BigDecimal balanceAfter = balanceBefore.add(request.getAmount());
+            // 金额精确到分，超过两位小数时 Money.of 抛出异常
+            Money amount = Money.of(request.getAmount());
+            Money balanceBefore = userBalance.getBalance();
+            Money balanceAfter = balanceBefore.add(amount);
             
             // 更新用户余额
-            userBalanceMapper.addBalance(userId, request.getAmount());
+            userBalanceMapper.addBalance(userId, amount);
             
             // 记录充值记录
             RechargeRecord rechargeRecord = new RechargeRecord();
             rechargeRecord.setUserId(userId);
-            rechargeRecord.setAmount(request.getAmount());
+            rechargeRecord.setAmount(amount);
             rechargeRecord.setBalanceBefore(balanceBefore);
             rechargeRecord.setBalanceAfter(balanceAfter);
             rechargeRecord.setRechargeType("manual");
@@ -83,26 +85,22 @@ public class UserBalanceServiceImpl implements UserBalanceService {
     }
     
     @Override
-    public boolean checkBalance(Integer userId, BigDecimal amount) {
+    public boolean checkBalance(Integer userId, Money amount) {
         UserBalance userBalance = userBalanceMapper.getByUserId(userId);
         if (userBalance == null) {
             return false;
         }
         
-        BigDecimal availableBalance = userBalance.getBalance().subtract(userBalance.getFrozenBalance());
-        return availableBalance.compareTo(amount) >= 0;
+        Money availableBalance = userBalance.getBalance().subtract(userBalance.getFrozenBalance());
+        return !availableBalance.isLessThan(amount);
     }
     
     @Override
     @Transactional
-    public boolean deductBalance(Integer userId, BigDecimal amount) {
+    public boolean deductBalance(Integer userId, Money amount) {
         try {
-            if (!checkBalance(userId, amount)) {
-                return false;
-            }
-            
-            userBalanceMapper.subtractBalance(userId, amount);
-            return true;
+            // 条件扣减，余额不足时影响行数为 0
+            return userBalanceMapper.subtractBalance(userId, amount) > 0;
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -111,7 +109,7 @@ public class UserBalanceServiceImpl implements UserBalanceService {
     
     @Override
     @Transactional
-    public boolean addBalance(Integer userId, BigDecimal amount) {
+    public boolean addBalance(Integer userId, Money amount) {
         try {
             userBalanceMapper.addBalance(userId, amount);
             return true;
@@ -127,10 +125,10 @@ public class UserBalanceServiceImpl implements UserBalanceService {
         try {
             UserBalance userBalance = new UserBalance();
             userBalance.setUserId(userId);
-            userBalance.setBalance(BigDecimal.ZERO);
-            userBalance.setFrozenBalance(BigDecimal.ZERO);
-            userBalance.setTotalRecharge(BigDecimal.ZERO);
-            userBalance.setTotalConsumption(BigDecimal.ZERO);
+            userBalance.setBalance(Money.ZERO);
+            userBalance.setFrozenBalance(Money.ZERO);
+            userBalance.setTotalRecharge(Money.ZERO);
+            userBalance.setTotalConsumption(Money.ZERO);
             userBalance.setCreatedAt(LocalDateTime.now());
             userBalance.setUpdatedAt(LocalDateTime.now());
             
@@ -10,7 +10,6 @@ import top.ooyyh.edusphere.service.UserCourseService;
 import top.ooyyh.edusphere.utils.Result;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -49,38 +48,4 @@ public class UserCourseServiceImpl implements UserCourseService {
             return Result.error("检查购买状态失败: " + e.getMessage());
         }
     }
-    
-    @Override
-    public Result<String> purchaseCourse(Integer userId, Integer courseId) {
-        try {
-            // 检查是否已购买
-            if (userCourseMapper.hasUserPurchased(userId, courseId)) {
-                return Result.error("您已经购买过该课程");
-            }
-            
-            // 获取课程信息
-            Course course = courseMapper.getCourseById(courseId);
-            if (course == null) {
-                return Result.error("课程不存在");
-            }
-            
-            // 创建用户课程关系
-            UserCourse userCourse = new UserCourse();
-            userCourse.setUserId(userId);
-            userCourse.setCourseId(courseId);
-            userCourse.setPurchasePrice(course.getPrice());
-            userCourse.setPurchaseTime(LocalDateTime.now());
-            userCourse.setStatus(1);
-            userCourse.setCreatedAt(LocalDateTime.now());
-            
-            int result = userCourseMapper.addUserCourse(userCourse);
-            if (result > 0) {
-                return Result.success("购买成功");
-            } else {
-                return Result.error("购买失败");
-            }
-        } catch (Exception e) {
-            return Result.error("购买课程失败: " + e.getMessage());
-        }
-    }
 }
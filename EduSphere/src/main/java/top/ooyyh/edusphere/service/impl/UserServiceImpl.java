@@ -1,17 +1,24 @@
 package top.ooyyh.edusphere.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import top.ooyyh.edusphere.cache.TokenRevocationStore;
+import top.ooyyh.edusphere.cache.UserIdentityCache;
 import top.ooyyh.edusphere.entity.User;
+import top.ooyyh.edusphere.event.UserChangedEvent;
+import top.ooyyh.edusphere.exception.ServiceBusyException;
 import top.ooyyh.edusphere.mapper.UserMapper;
 import top.ooyyh.edusphere.request.PasswordUpdateRequest;
 import top.ooyyh.edusphere.request.UserUpdateRequest;
 import top.ooyyh.edusphere.request.UserLoginRequest;
 import top.ooyyh.edusphere.request.UserRegisterRequest;
+import top.ooyyh.edusphere.service.PasswordService;
 import top.ooyyh.edusphere.service.UserService;
 import top.ooyyh.edusphere.utils.Result;
 
 import java.time.LocalDateTime;
+import java.util.Date;
 
 @Service
 public class UserServiceImpl implements UserService {
@@ -19,6 +26,18 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public Boolean isUserExist(String username) {
         try {
@@ -31,7 +50,15 @@ public class UserServiceImpl implements UserService {
     @Override
     public int register(UserRegisterRequest request) {
         try {
-            return userMapper.register(request);
+            // 密码以 BCrypt 哈希存储
+            request.setPassword(passwordService.encode(request.getPassword()));
+            int rows = userMapper.register(request);
+            if (rows > 0) {
+                eventPublisher.publishEvent(new UserChangedEvent(this, null, request.getRole(), UserChangedEvent.Type.REGISTERED));
+            }
+            return rows;
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return 0;
         }
@@ -40,14 +67,44 @@ public class UserServiceImpl implements UserService {
     @Override
     public User login(UserLoginRequest request) {
         try {
-            // 根据用户名、密码和角色查询用户
-            User user = userMapper.getUserByNamePassRole(request);
+            // 根据用户名和角色查询用户，再校验密码哈希
+            User user = userMapper.getUserByNameRole(request);
+            if (user == null) {
+                // 用户不存在时同样做一次哈希校验，响应时间不泄露账号是否存在
+                passwordService.matchDummy(request.getPassword());
+                return null;
+            }
+            if (!passwordService.matches(request.getPassword(), user.getPassword())) {
+                return null;
+            }
+
+            // 明文密码或低强度哈希在登录成功后透明升级
+            if (passwordService.needsUpgrade(user.getPassword())) {
+                upgradePassword(user, request.getPassword());
+            }
             return user;
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return null;
         }
     }
 
+    /**
+     * 升级密码哈希，失败不影响本次登录，下次登录再试
+     */
+    private void upgradePassword(User user, String rawPassword) {
+        try {
+            String hash = passwordService.encode(rawPassword);
+            // 只在密码未被并发修改时更新
+            if (userMapper.updatePasswordIfUnchanged(user.getId(), user.getPassword(), hash) > 0) {
+                user.setPassword(hash);
+            }
+        } catch (Exception e) {
+            System.out.println("升级用户 " + user.getId() + " 的密码哈希失败: " + e.getMessage());
+        }
+    }
+
     @Override
     public Result<User> getUserById(Integer userId) {
         try {
@@ -100,6 +157,7 @@ public class UserServiceImpl implements UserService {
             user.setUpdatedAt(LocalDateTime.now());
 
             userMapper.updateUser(user);
+            userIdentityCache.invalidate(userId);
             return Result.success("个人信息更新成功");
         } catch (Exception e) {
             return Result.error("更新个人信息失败: " + e.getMessage());
@@ -114,19 +172,34 @@ public class UserServiceImpl implements UserService {
                 return Result.error("用户不存在");
             }
 
-            // 验证旧密码（简单验证，不加密）
-            if (!request.getOldPassword().equals(user.getPassword())) {
+            // 验证旧密码
+            if (!passwordService.matches(request.getOldPassword(), user.getPassword())) {
                 return Result.error("旧密码错误");
             }
 
-            // 更新密码（直接存储，不加密）
-            user.setPassword(request.getNewPassword());
+            // 更新密码（BCrypt 哈希）
+            user.setPassword(passwordService.encode(request.getNewPassword()));
             user.setUpdatedAt(LocalDateTime.now());
 
             userMapper.updateUser(user);
-            return Result.success("密码修改成功");
+            userIdentityCache.invalidate(userId);
+            // 修改密码后此前签发的 token 全部失效
+            tokenRevocationStore.revokeUser(userId);
+            return Result.success("密码修改成功，请重新登录");
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return Result.error("修改密码失败: " + e.getMessage());
         }
     }
+
+    @Override
+    public Result<String> logout(String tokenId, Date expiration) {
+        try {
+            tokenRevocationStore.revokeToken(tokenId, expiration);
+            return Result.success("退出登录成功");
+        } catch (Exception e) {
+            return Result.error("退出登录失败: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package top.ooyyh.edusphere.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮
+ *
+ * 第 0 层每格 tickMs，一圈 tickMs * wheelSize；放不下的条目交给上一层（每格等于下一层一圈），
+ * 上层的格子到期后把条目重新插入，逐层下降直到真正过期。
+ * 插入和每次推进都是 O(1)（与条目总数无关），适合大量只需到点删除、不需要取消的条目。
+ * 条目不会早于到期时间触发，最多晚一个 tickMs。
+ *
+ * 由外部定时调用 {@link #advance(long, Consumer)} 推进时钟。
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final List<Level<T>> levels = new ArrayList<>();
+    private final int wheelSize;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMs 必须大于 0，wheelSize 必须大于 1");
+        }
+        this.wheelSize = wheelSize;
+        levels.add(new Level<T>(tickMs, wheelSize, startMs));
+    }
+
+    /**
+     * 添加条目，到期时间为 deadlineMs（毫秒时间戳）
+     *
+     * @return false 表示已经到期，没有加入时间轮
+     */
+    public synchronized boolean add(T item, long deadlineMs) {
+        // 第 0 层在格子起点触发，把到期时间向后对齐一格，保证不会提前触发
+        long expiration = deadlineMs + levels.get(0).tickMs - 1;
+        if (!insert(new Entry<T>(item, expiration))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * 把时钟推进到 nowMs，到期条目交给 onExpire 处理
+     */
+    public synchronized void advance(long nowMs, Consumer<T> onExpire) {
+        Level<T> first = levels.get(0);
+        if (size == 0) {
+            // 时间轮为空时直接对齐时钟，不必逐格推进
+            for (Level<T> level : levels) {
+                level.advanceTo(nowMs);
+            }
+            return;
+        }
+
+        List<Entry<T>> due = new ArrayList<>();
+        while (first.currentTime + first.tickMs <= nowMs) {
+            long time = first.currentTime + first.tickMs;
+            for (Level<T> level : levels) {
+                if (level.advanceTo(time)) {
+                    level.drainCurrent(due);
+                }
+            }
+            // 高层格子里的条目重新插入会落到低层，第 0 层的条目此时已经到期
+            for (Entry<T> entry : due) {
+                if (!insert(entry)) {
+                    size--;
+                    onExpire.accept(entry.item);
+                }
+            }
+            due.clear();
+        }
+    }
+
+    /**
+     * 时间轮中的条目数
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private boolean insert(Entry<T> entry) {
+        for (int i = 0; ; i++) {
+            if (i == levels.size()) {
+                Level<T> lower = levels.get(i - 1);
+                levels.add(new Level<T>(lower.interval, wheelSize, lower.currentTime));
+            }
+            Level<T> level = levels.get(i);
+            if (entry.expiration < level.currentTime + level.tickMs) {
+                // 只可能发生在第 0 层：已经到期
+                return false;
+            }
+            if (entry.expiration < level.currentTime + level.interval) {
+                level.bucketOf(entry.expiration).add(entry);
+                return true;
+            }
+        }
+    }
+
+    private static final class Entry<T> {
+        final T item;
+        final long expiration;
+
+        Entry(T item, long expiration) {
+            this.item = item;
+            this.expiration = expiration;
+        }
+    }
+
+    private static final class Level<T> {
+        final long tickMs;
+        final long interval;
+        final ArrayDeque<Entry<T>>[] buckets;
+        long currentTime;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.interval = tickMs * wheelSize;
+            this.buckets = new ArrayDeque[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new ArrayDeque<>();
+            }
+            this.currentTime = startMs - (startMs % tickMs);
+        }
+
+        ArrayDeque<Entry<T>> bucketOf(long time) {
+            return buckets[(int) ((time / tickMs) % buckets.length)];
+        }
+
+        /**
+         * 推进到 time 所在的格子，返回是否进入了新格子
+         */
+        boolean advanceTo(long time) {
+            if (time < currentTime + tickMs) {
+                return false;
+            }
+            currentTime = time - (time % tickMs);
+            return true;
+        }
+
+        void drainCurrent(List<Entry<T>> out) {
+            ArrayDeque<Entry<T>> bucket = bucketOf(currentTime);
+            out.addAll(bucket);
+            bucket.clear();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package top.ooyyh.edusphere.utils;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.security.Key;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JWT 密钥环
+ *
+ * 一个签名密钥（activeKeyId）加若干验签密钥，每个密钥都有 kid。
+ * 签发时把 kid 写入 token 头，验签时按 kid 直接查表取密钥。
+ * 轮换方式：先把新密钥加入所有节点的验签列表，再切换签名密钥，旧 token 全部过期后移除旧密钥。
+ */
+public final class JwtKeyRing {
+
+    private final String activeKeyId;
+    private final Key activeKey;
+    private final Map<String, Key> keys;
+
+    public JwtKeyRing(String activeKeyId, Map<String, Key> keys) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("JWT 密钥环不能为空");
+        }
+        Key active = keys.get(activeKeyId);
+        if (active == null) {
+            throw new IllegalArgumentException("签名密钥 " + activeKeyId + " 不在密钥环中");
+        }
+        this.activeKeyId = activeKeyId;
+        this.activeKey = active;
+        this.keys = Collections.unmodifiableMap(new HashMap<>(keys));
+    }
+
+    /**
+     * 生成只有一个随机密钥的密钥环（未配置密钥时使用，仅适合单节点开发环境）
+     */
+    public static JwtKeyRing random() {
+        String kid = "random-" + UUID.randomUUID().toString().substring(0, 8);
+        Map<String, Key> keys = new HashMap<>();
+        keys.put(kid, Keys.secretKeyFor(SignatureAlgorithm.HS256));
+        return new JwtKeyRing(kid, keys);
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public Key getActiveKey() {
+        return activeKey;
+    }
+
+    /**
+     * 按 kid 查找验签密钥，不存在时返回 null
+     */
+    public Key getKey(String kid) {
+        return kid == null ? null : keys.get(kid);
+    }
+
+    public Set<String> getKeyIds() {
+        return keys.keySet();
+    }
+}
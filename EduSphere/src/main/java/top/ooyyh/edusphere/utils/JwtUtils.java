@@ -1,47 +1,89 @@
 package top.ooyyh.edusphere.utils;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 public class JwtUtils {
 
-    // 生成秘钥
-    private static final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    // 用户ID声明
+    public static final String CLAIM_USER_ID = "uid";
+    // 角色声明
+    public static final String CLAIM_ROLE = "role";
+
+    // 密钥环，启动时由 JwtKeyConfig 按配置安装；未安装时使用随机密钥
+    private static volatile JwtKeyRing keyRing = JwtKeyRing.random();
+    // 解析器是线程安全的，按 kid 从当前密钥环取验签密钥，所有请求共用
+    private static final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    Key key = keyRing.getKey(header.getKeyId());
+                    if (key == null) {
+                        throw new SignatureException("未知的签名密钥: " + header.getKeyId());
+                    }
+                    return key;
+                }
+            })
+            .build();
     // 有效期 1 小时
     private static final long EXPIRATION = 1000 * 60 * 60;
 
-    // 生成 token
-    public static String generateToken(String username, String role) {
+    // 安装密钥环（签名密钥 + 全部验签密钥）
+    public static void install(JwtKeyRing ring) {
+        keyRing = ring;
+    }
+
+    // 当前密钥环
+    public static JwtKeyRing getKeyRing() {
+        return keyRing;
+    }
+
+    // token 有效期（毫秒）
+    public static long getExpirationMillis() {
+        return EXPIRATION;
+    }
+
+    // 生成 token，携带用户ID和角色，拦截器无需再查库
+    public static String generateToken(Integer userId, String username, String role) {
+        JwtKeyRing ring = keyRing;
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, ring.getActiveKeyId()) // 签名密钥ID
+                .setId(UUID.randomUUID().toString()) // token ID，用于退出登录时单独吊销
                 .setSubject(username)  // 设置主题，一般用用户名
-                .claim("role", role)   // 携带角色
+                .claim(CLAIM_USER_ID, userId) // 携带用户ID
+                .claim(CLAIM_ROLE, role)   // 携带角色
                 .setIssuedAt(new Date()) // 签发时间
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION)) // 过期时间
-                .signWith(key) // 签名
+                .signWith(ring.getActiveKey()) // 签名
                 .compact();
     }
 
+    // 校验签名和有效期并解析全部声明，一次解析即可拿到用户名、用户ID和角色
+    public static Claims parseToken(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    // 从声明中获取用户ID，旧版 token 中不存在时返回 null
+    public static Integer getUserId(Claims claims) {
+        Object userId = claims.get(CLAIM_USER_ID);
+        return userId instanceof Number ? ((Number) userId).intValue() : null;
+    }
+
     // 解析 token，获取用户名
     public static String getUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseToken(token).getSubject();
     }
 
     // 获取角色
     public static String getRole(String token) {
-        return (String) Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role");
+        return parseToken(token).get(CLAIM_ROLE, String.class);
     }
 }
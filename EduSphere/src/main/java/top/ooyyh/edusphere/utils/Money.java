@@ -0,0 +1,158 @@
+package top.ooyyh.edusphere.utils;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 金额（不可变），以 long 保存的分为单位
+ *
+ * 数据库中的金额列都是两位小数的 DECIMAL，这里精确对应，不会有 double 的误差。
+ * 加减和比较只是 long 运算，不像 BigDecimal 每次运算都分配新对象；按比例计算（如平台手续费）
+ * 必须显式给出舍入方式，结果总是精确到分。
+ * 与 BigDecimal 互转只发生在数据库读写（MoneyTypeHandler）和 JSON 序列化时，JSON 中仍是普通数字。
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    // 一万个基点 = 100%
+    private static final long BASIS_POINTS_PER_UNIT = 10000;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * 按分创建
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * 从 BigDecimal 创建，小数超过两位且不为 0 时抛出 ArithmeticException
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return ofCents(amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * 从字符串创建，如 "99.90"
+     */
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    /**
+     * 为 null 时按 0 处理
+     */
+    public static Money orZero(Money money) {
+        return money != null ? money : ZERO;
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money add(Money other) {
+        return other.cents == 0 ? this : ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money subtract(Money other) {
+        return other.cents == 0 ? this : ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money multiply(long factor) {
+        return ofCents(Math.multiplyExact(cents, factor));
+    }
+
+    /**
+     * 按比例计算，比例以基点表示（500 = 5%），结果按 roundingMode 舍入到分
+     */
+    public Money multiplyBasisPoints(long basisPoints, RoundingMode roundingMode) {
+        long product = Math.multiplyExact(cents, basisPoints);
+        long quotient = product / BASIS_POINTS_PER_UNIT;
+        long remainder = product % BASIS_POINTS_PER_UNIT;
+        if (remainder == 0) {
+            return ofCents(quotient);
+        }
+        int sign = product < 0 ? -1 : 1;
+        long twiceRemainder = Math.abs(remainder) * 2;
+        boolean roundAway;
+        switch (roundingMode) {
+            case UP:
+                roundAway = true;
+                break;
+            case DOWN:
+                roundAway = false;
+                break;
+            case CEILING:
+                roundAway = sign > 0;
+                break;
+            case FLOOR:
+                roundAway = sign < 0;
+                break;
+            case HALF_UP:
+                roundAway = twiceRemainder >= BASIS_POINTS_PER_UNIT;
+                break;
+            case HALF_DOWN:
+                roundAway = twiceRemainder > BASIS_POINTS_PER_UNIT;
+                break;
+            case HALF_EVEN:
+                roundAway = twiceRemainder > BASIS_POINTS_PER_UNIT
+                        || (twiceRemainder == BASIS_POINTS_PER_UNIT && (quotient & 1) != 0);
+                break;
+            default:
+                throw new ArithmeticException("需要舍入: " + this + " × " + basisPoints + "bp");
+        }
+        return ofCents(roundAway ? quotient + sign : quotient);
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money && ((Money) o).cents == cents);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * 两位小数的字符串，如 "99.90"、"-0.05"
+     */
+    @Override
+    public String toString() {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        return (cents < 0 ? "-" : "") + abs / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
@@ -0,0 +1,35 @@
+package top.ooyyh.edusphere.utils;
+
+import java.math.RoundingMode;
+
+/**
+ * 平台手续费分成
+ *
+ * 手续费 = 成交价 × 5%，四舍五入到分；讲师收入 = 成交价 - 手续费。
+ * 讲师收入由差额得出而不是单独舍入，两者相加总是等于成交价，不会多出或少掉一分钱。
+ * 单门课程购买和订单支付都用这里的规则。
+ */
+public final class PlatformFee {
+
+    // 平台手续费比例（500 个基点 = 5%）
+    public static final long RATE_BASIS_POINTS = 500;
+
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+
+    private PlatformFee() {
+    }
+
+    /**
+     * 成交价对应的平台手续费
+     */
+    public static Money feeOf(Money price) {
+        return price.multiplyBasisPoints(RATE_BASIS_POINTS, ROUNDING);
+    }
+
+    /**
+     * 成交价扣除手续费后的讲师收入
+     */
+    public static Money instructorIncomeOf(Money price, Money platformFee) {
+        return price.subtract(platformFee);
+    }
+}
@@ -0,0 +1,127 @@
+package top.ooyyh.edusphere.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 按时间递增的 64 位ID生成器（Snowflake 布局）
+ *
+ * 最高位为 0，其后 41 位为自 EPOCH 起的毫秒数（约 69 年），10 位节点ID（0-1023），12 位毫秒内序号。
+ * 同一节点生成的ID严格递增，不同节点只要节点ID不同就不会重复。
+ * 上一个ID保存在一个 AtomicLong 中，生成时只做一次 CAS，不加锁，除返回的字符串外不分配对象。
+ *
+ * 时钟保护：ID 中的时间部分从不回退。系统时钟回拨时沿用上一个ID的时间继续累加序号，
+ * 同一毫秒内序号用完时借用下一毫秒，因此回拨或突发时ID仍然唯一且递增，只是时间部分暂时超前于实际时间。
+ *
+ * 字符串形式为固定 13 位的 Crockford Base32（0-9、A-Z 去掉 I L O U），字典序与数值顺序一致。
+ */
+public class SnowflakeIdGenerator {
+
+    // 2024-01-01T00:00:00Z
+    public static final long EPOCH = 1704067200000L;
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final char[] BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    public static final int STRING_LENGTH = 13;
+
+    private final long nodeBits;
+    private final AtomicLong lastId;
+    private final LongSupplier clock;
+
+    // 时间部分超前于系统时钟的ID数（时钟回拨或序号用完借用了下一毫秒）
+    private final LongAdder aheadOfClockCount = new LongAdder();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    /**
+     * 指定时钟（毫秒时间戳），测试时模拟时钟回拨和同一毫秒内的突发
+     */
+    SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("节点ID必须在 0-" + MAX_NODE_ID + " 之间: " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.lastId = new AtomicLong(nodeBits);
+        this.clock = clock;
+    }
+
+    /**
+     * 生成下一个ID
+     */
+    public long nextId() {
+        while (true) {
+            long last = lastId.get();
+            long lastTime = last >>> TIMESTAMP_SHIFT;
+            long now = clock.getAsLong() - EPOCH;
+            long next;
+            if (now > lastTime) {
+                next = (now << TIMESTAMP_SHIFT) | nodeBits;
+            } else if ((last & SEQUENCE_MASK) != SEQUENCE_MASK) {
+                next = last + 1;
+            } else {
+                next = ((lastTime + 1) << TIMESTAMP_SHIFT) | nodeBits;
+            }
+            if (lastId.compareAndSet(last, next)) {
+                if (next >>> TIMESTAMP_SHIFT > now) {
+                    aheadOfClockCount.increment();
+                }
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 生成下一个ID的字符串形式
+     */
+    public String nextIdString() {
+        return toString(nextId());
+    }
+
+    /**
+     * ID 转为 13 位 Crockford Base32 字符串
+     */
+    public static String toString(long id) {
+        char[] chars = new char[STRING_LENGTH];
+        for (int i = STRING_LENGTH - 1; i >= 0; i--) {
+            chars[i] = BASE32[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * ID 中的生成时间（毫秒时间戳）
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+
+    /**
+     * ID 中的节点ID
+     */
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    /**
+     * 生成器统计
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("nodeId", nodeBits >>> SEQUENCE_BITS);
+        result.put("lastId", toString(lastId.get()));
+        result.put("aheadOfClockCount", aheadOfClockCount.sum());
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+package top.ooyyh.edusphere.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶
+ *
+ * 用 GCRA（通用信元速率算法）实现：只保存一个"理论到达时间" TAT，
+ * 每取一个令牌 TAT 向后推一个发放间隔，TAT 超出当前时间太多（超过桶容量对应的时间）就拒绝。
+ * 与"令牌数 + 上次补充时间"的写法等价，但状态只有一个 long，一次 CAS 即可完成，不需要加锁。
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param capacity          桶容量（允许的突发请求数）
+     * @param refillPerSecond   每秒补充的令牌数
+     * @param nowNanos          当前时间（System.nanoTime），初始时桶是满的
+     */
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity 必须大于 0，refillPerSecond 必须大于 0");
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * 尝试取一个令牌
+     *
+     * @return 0 表示成功；大于 0 表示被拒绝，值为还需等待的纳秒数
+     */
+    public long tryAcquire(long nowNanos) {
+        for (;;) {
+            long tat = theoreticalArrival.get();
+            long next = (tat - nowNanos > 0 ? tat : nowNanos) + emissionIntervalNanos;
+            long wait = next - nowNanos - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+}
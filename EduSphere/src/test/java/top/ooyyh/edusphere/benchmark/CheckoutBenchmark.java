@@ -0,0 +1,266 @@
+package top.ooyyh.edusphere.benchmark;
+
+import com.baomidou.mybatisplus.extension.spring.MybatisSqlSessionFactoryBean;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.ooyyh.edusphere.entity.Cart;
+import top.ooyyh.edusphere.entity.Course;
+import top.ooyyh.edusphere.entity.Order;
+import top.ooyyh.edusphere.entity.OrderItem;
+import top.ooyyh.edusphere.mapper.CartMapper;
+import top.ooyyh.edusphere.mapper.CourseMapper;
+import top.ooyyh.edusphere.mapper.InstructorIncomeMapper;
+import top.ooyyh.edusphere.mapper.OrderItemMapper;
+import top.ooyyh.edusphere.mapper.OrderMapper;
+import top.ooyyh.edusphere.mapper.PurchaseRecordMapper;
+import top.ooyyh.edusphere.mapper.UserBalanceMapper;
+import top.ooyyh.edusphere.request.PurchaseRequest;
+import top.ooyyh.edusphere.service.impl.CoursePurchaseServiceImpl;
+import top.ooyyh.edusphere.service.impl.OrderServiceImpl;
+import top.ooyyh.edusphere.utils.Money;
+import top.ooyyh.edusphere.utils.Result;
+import top.ooyyh.edusphere.utils.SnowflakeIdGenerator;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 购物车结算的耗时，cartSize 为购物车中的课程数：
+ * - checkout：当前的结算流程（一次查出全部课程，订单项、购买记录、讲师收入、用户课程各一条多行插入，余额扣减一次）
+ * - legacyCheckout：旧的下单流程（每门课程查两次课程、逐条插入订单项），再逐门调用单门购买开通课程
+ * 每次调用后回滚，数据保持不变。
+ *
+ * 使用 H2 内存库（MySQL 兼容模式）执行真实的 Mapper XML。H2 与 MySQL 的绝对耗时没有可比性，
+ * 这里主要看语句数的差别：真实环境下每条语句还有一次网络往返，差距只会更大。
+ *
+ * 运行：mvn test-compile 后执行本类的 main 方法
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    private static final int INSTRUCTOR_ID = 1;
+    private static final int BUYER_ID = 2;
+
+    @Param({"20"})
+    private int cartSize;
+
+    private SqlSession session;
+
+    private OrderServiceImpl orderService;
+
+    private CoursePurchaseServiceImpl purchaseService;
+
+    private CartMapper cartMapper;
+
+    private CourseMapper courseMapper;
+
+    private OrderMapper orderMapper;
+
+    private OrderItemMapper orderItemMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // 关闭 MyBatis 的 SQL 调试日志，避免日志输出计入耗时
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:checkout" + cartSize + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection()) {
+            createSchema(connection);
+            seed(connection);
+        }
+
+        MybatisSqlSessionFactoryBean factoryBean = new MybatisSqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setTransactionFactory(new JdbcTransactionFactory());
+        factoryBean.setMapperLocations(new PathMatchingResourcePatternResolver().getResources("classpath:/mapper/**/*.xml"));
+        factoryBean.setTypeHandlersPackage("top.ooyyh.edusphere.handler");
+        SqlSessionFactory sqlSessionFactory = factoryBean.getObject();
+        session = sqlSessionFactory.openSession(false);
+
+        cartMapper = session.getMapper(CartMapper.class);
+        courseMapper = session.getMapper(CourseMapper.class);
+        orderMapper = session.getMapper(OrderMapper.class);
+        orderItemMapper = session.getMapper(OrderItemMapper.class);
+        ApplicationEventPublisher eventPublisher = event -> { };
+
+        orderService = new OrderServiceImpl();
+        ReflectionTestUtils.setField(orderService, "orderMapper", orderMapper);
+        ReflectionTestUtils.setField(orderService, "orderItemMapper", orderItemMapper);
+        ReflectionTestUtils.setField(orderService, "courseMapper", courseMapper);
+        ReflectionTestUtils.setField(orderService, "cartMapper", cartMapper);
+        ReflectionTestUtils.setField(orderService, "purchaseRecordMapper", session.getMapper(PurchaseRecordMapper.class));
+        ReflectionTestUtils.setField(orderService, "userBalanceMapper", session.getMapper(UserBalanceMapper.class));
+        ReflectionTestUtils.setField(orderService, "instructorIncomeMapper", session.getMapper(InstructorIncomeMapper.class));
+        ReflectionTestUtils.setField(orderService, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(orderService, "idGenerator", new SnowflakeIdGenerator(0));
+
+        purchaseService = new CoursePurchaseServiceImpl();
+        ReflectionTestUtils.setField(purchaseService, "purchaseRecordMapper", session.getMapper(PurchaseRecordMapper.class));
+        ReflectionTestUtils.setField(purchaseService, "userBalanceMapper", session.getMapper(UserBalanceMapper.class));
+        ReflectionTestUtils.setField(purchaseService, "courseMapper", courseMapper);
+        ReflectionTestUtils.setField(purchaseService, "instructorIncomeMapper", session.getMapper(InstructorIncomeMapper.class));
+        ReflectionTestUtils.setField(purchaseService, "eventPublisher", eventPublisher);
+
+        Result<Order> probe = checkout();
+        if (probe.getCode() != 0 || probe.getData().getOrderItems().size() != cartSize) {
+            throw new IllegalStateException("结算失败: " + probe.getMsg());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public Result<Order> checkout() {
+        try {
+            return orderService.checkout(BUYER_ID, null);
+        } finally {
+            session.rollback(true);
+        }
+    }
+
+    @Benchmark
+    public Order legacyCheckout() {
+        try {
+            List<Cart> cart = cartMapper.getUserCart(BUYER_ID);
+
+            // 旧的 createOrder：先逐门查课程算总价，建单后再逐门查课程、逐条插入订单项
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            for (Cart item : cart) {
+                Course course = courseMapper.getCourseById(item.getCourseId());
+                if (course != null) {
+                    totalAmount = totalAmount.add(course.getPrice());
+                }
+            }
+            Order order = new Order();
+            order.setOrderNo(UUID.randomUUID().toString().replace("-", ""));
+            order.setUserId(BUYER_ID);
+            order.setTotalAmount(Money.of(totalAmount));
+            order.setStatus("pending");
+            order.setCreatedAt(LocalDateTime.now());
+            orderMapper.createOrder(order);
+            for (Cart item : cart) {
+                Course course = courseMapper.getCourseById(item.getCourseId());
+                if (course != null) {
+                    OrderItem orderItem = new OrderItem();
+                    orderItem.setOrderId(order.getId());
+                    orderItem.setCourseId(item.getCourseId());
+                    orderItem.setCourseTitle(course.getTitle());
+                    orderItem.setCoursePrice(Money.of(course.getPrice()));
+                    orderItem.setCreatedAt(LocalDateTime.now());
+                    orderItemMapper.addOrderItem(orderItem);
+                }
+            }
+
+            // 旧的 payOrder 只改状态，开通课程只能逐门走单门购买
+            for (Cart item : cart) {
+                PurchaseRequest request = new PurchaseRequest();
+                request.setCourseId(item.getCourseId());
+                purchaseService.purchaseCourse(BUYER_ID, request);
+            }
+            orderMapper.updateOrderStatus(order.getId(), "paid");
+            cartMapper.clearCart(BUYER_ID);
+            return order;
+        } finally {
+            session.rollback(true);
+        }
+    }
+
+    /**
+     * 结算流程涉及的表，字段和索引与 init.sql 一致（省略外键）
+     */
+    private static void createSchema(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TABLE user (id INT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(50), avatar VARCHAR(255),"
+                    + " email VARCHAR(100))");
+            st.execute("CREATE TABLE category (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(50))");
+            st.execute("CREATE TABLE course (id INT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(200), price DECIMAL(10,2),"
+                    + " cover_image VARCHAR(255), status VARCHAR(20), instructor_id INT, category_id INT)");
+            st.execute("CREATE TABLE cart (id INT AUTO_INCREMENT PRIMARY KEY, user_id INT, course_id INT, created_at DATETIME)");
+            st.execute("CREATE UNIQUE INDEX uk_cart_user_course ON cart (user_id, course_id)");
+            st.execute("CREATE TABLE `order` (id INT AUTO_INCREMENT PRIMARY KEY, order_no VARCHAR(50) NOT NULL UNIQUE,"
+                    + " user_id INT, total_amount DECIMAL(10,2), status VARCHAR(20), payment_method VARCHAR(20),"
+                    + " payment_time DATETIME, reserved_amount DECIMAL(10,2) NOT NULL DEFAULT 0, expires_at DATETIME,"
+                    + " created_at DATETIME, updated_at DATETIME)");
+            st.execute("CREATE TABLE order_item (id INT AUTO_INCREMENT PRIMARY KEY, order_id INT, course_id INT,"
+                    + " course_title VARCHAR(200), course_price DECIMAL(10,2), created_at DATETIME)");
+            st.execute("CREATE INDEX idx_order_id ON order_item (order_id)");
+            st.execute("CREATE TABLE user_balance (id INT AUTO_INCREMENT PRIMARY KEY, user_id INT NOT NULL UNIQUE,"
+                    + " balance DECIMAL(10,2) NOT NULL DEFAULT 0, frozen_balance DECIMAL(10,2) NOT NULL DEFAULT 0,"
+                    + " total_recharge DECIMAL(10,2) NOT NULL DEFAULT 0, total_consumption DECIMAL(10,2) NOT NULL DEFAULT 0,"
+                    + " created_at DATETIME, updated_at DATETIME)");
+            st.execute("CREATE TABLE purchase_record (id INT AUTO_INCREMENT PRIMARY KEY, user_id INT, course_id INT,"
+                    + " instructor_id INT, purchase_price DECIMAL(10,2), balance_before DECIMAL(10,2),"
+                    + " balance_after DECIMAL(10,2), instructor_income DECIMAL(10,2), platform_fee DECIMAL(10,2),"
+                    + " status VARCHAR(20), created_at DATETIME)");
+            st.execute("CREATE UNIQUE INDEX uk_user_course ON purchase_record (user_id, course_id)");
+            st.execute("CREATE TABLE instructor_income (id INT AUTO_INCREMENT PRIMARY KEY, instructor_id INT,"
+                    + " course_id INT, purchase_record_id INT, income_amount DECIMAL(10,2),"
+                    + " total_income DECIMAL(10,2) NOT NULL DEFAULT 0, settlement_id INT, created_at DATETIME)");
+            st.execute("CREATE INDEX idx_instructor_settlement ON instructor_income (instructor_id, settlement_id)");
+            st.execute("CREATE TABLE user_course (id INT AUTO_INCREMENT PRIMARY KEY, user_id INT, course_id INT,"
+                    + " purchase_price DECIMAL(10,2), purchase_time DATETIME, status INT, created_at DATETIME)");
+            st.execute("CREATE UNIQUE INDEX uk_user_course_user_course ON user_course (user_id, course_id)");
+        }
+    }
+
+    /**
+     * cartSize 门已发布课程，全部在买家的购物车中，买家余额充足
+     */
+    private void seed(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("INSERT INTO user (id, username) VALUES (" + INSTRUCTOR_ID + ", 'instructor'), (" + BUYER_ID + ", 'buyer')");
+            st.execute("INSERT INTO category (id, name) VALUES (1, 'Benchmark')");
+            st.execute("INSERT INTO course (id, title, price, status, instructor_id, category_id)"
+                    + " SELECT x, CONCAT('Course ', x), 99.00, 'published', " + INSTRUCTOR_ID + ", 1"
+                    + " FROM SYSTEM_RANGE(1, " + cartSize + ")");
+            st.execute("INSERT INTO cart (user_id, course_id, created_at)"
+                    + " SELECT " + BUYER_ID + ", x, NOW() FROM SYSTEM_RANGE(1, " + cartSize + ")");
+            st.execute("INSERT INTO user_balance (user_id, balance) VALUES (" + BUYER_ID + ", 99999999.00)");
+            st.execute("INSERT INTO user_balance (user_id, balance) VALUES (" + INSTRUCTOR_ID + ", 0)");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CheckoutBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package top.ooyyh.edusphere.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import top.ooyyh.edusphere.utils.JwtUtils;
+
+import java.security.Key;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtInterceptor 认证开销对比：旧实现每次请求解析三次 token（每次新建解析器）并按用户名查库，
+ * 新实现使用共享解析器只解析一次，用户ID直接取自声明。
+ *
+ * 旧实现中的查库用内存 Map 代替，真实环境下还要再加一次数据库往返，所以这里测出的差距是下限。
+ * 只比较 token 解析部分，拦截器后续的内存查询都是哈希查找，不计入。
+ *
+ * 运行：mvn test-compile 后执行本类的 main 方法
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtInterceptorBenchmark {
+
+    private final Key legacyKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+
+    private final Map<String, Integer> legacyUserTable = Collections.singletonMap("student1", 4);
+
+    private String token;
+
+    private String legacyToken;
+
+    @Setup
+    public void setUp() {
+        token = JwtUtils.generateToken(4, "student1", "student");
+        legacyToken = Jwts.builder()
+                .setSubject("student1")
+                .claim("role", "student")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60))
+                .signWith(legacyKey)
+                .compact();
+    }
+
+    @Benchmark
+    public Object legacyPreHandle() {
+        MockHttpServletRequest request = newRequest(legacyToken);
+        String authHeader = request.getHeader("Authorization");
+        String token = authHeader.substring(7);
+        String username = Jwts.parserBuilder().setSigningKey(legacyKey).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        String role = (String) Jwts.parserBuilder().setSigningKey(legacyKey).build()
+                .parseClaimsJws(token).getBody().get("role");
+        String lookupName = Jwts.parserBuilder().setSigningKey(legacyKey).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        Integer userId = legacyUserTable.get(lookupName);
+        request.setAttribute("username", username);
+        request.setAttribute("role", role);
+        request.setAttribute("userId", userId);
+        return request;
+    }
+
+    @Benchmark
+    public Object singleParsePreHandle() {
+        MockHttpServletRequest request = newRequest(token);
+        String authHeader = request.getHeader("Authorization");
+        Claims claims = JwtUtils.parseToken(authHeader.substring(7));
+        request.setAttribute("username", claims.getSubject());
+        request.setAttribute("role", claims.get(JwtUtils.CLAIM_ROLE, String.class));
+        request.setAttribute("userId", JwtUtils.getUserId(claims));
+        return request;
+    }
+
+    private MockHttpServletRequest newRequest(String bearer) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/profile");
+        request.addHeader("Authorization", "Bearer " + bearer);
+        return request;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtInterceptorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,141 @@
+package top.ooyyh.edusphere.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import top.ooyyh.edusphere.utils.Money;
+import top.ooyyh.edusphere.utils.PlatformFee;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单支付中的金额计算，items 为订单中的课程数：
+ * - feeSplit / legacyFeeSplit：逐门计算平台手续费和讲师收入（Money 与旧的 BigDecimal.multiply(0.05)）
+ * - cartTotal / legacyCartTotal：合计订单总价并与可用余额比较
+ * - payItems / legacyPayItems：支付时逐门分摊余额变化并拆分手续费，即 OrderServiceImpl 中写购买记录前的计算
+ *
+ * 只比较内存中的计算，不含数据库读写；价格固定随机生成，两种实现的输入相同。
+ *
+ * 运行：mvn test-compile 后执行本类的 main 方法
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final BigDecimal LEGACY_FEE_RATE = new BigDecimal("0.05");
+
+    @Param({"1", "20"})
+    private int items;
+
+    private Money[] prices;
+
+    private BigDecimal[] legacyPrices;
+
+    private Money balance;
+
+    private BigDecimal legacyBalance;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        prices = new Money[items];
+        legacyPrices = new BigDecimal[items];
+        long totalCents = 0;
+        for (int i = 0; i < items; i++) {
+            // 0.99 - 999.99 元
+            long cents = 99 + random.nextInt(99901);
+            prices[i] = Money.ofCents(cents);
+            legacyPrices[i] = BigDecimal.valueOf(cents, 2);
+            totalCents += cents;
+        }
+        balance = Money.ofCents(totalCents * 2);
+        legacyBalance = BigDecimal.valueOf(totalCents * 2, 2);
+    }
+
+    @Benchmark
+    public void feeSplit(Blackhole blackhole) {
+        for (Money price : prices) {
+            Money platformFee = PlatformFee.feeOf(price);
+            blackhole.consume(platformFee);
+            blackhole.consume(PlatformFee.instructorIncomeOf(price, platformFee));
+        }
+    }
+
+    @Benchmark
+    public void legacyFeeSplit(Blackhole blackhole) {
+        for (BigDecimal price : legacyPrices) {
+            BigDecimal platformFee = price.multiply(LEGACY_FEE_RATE);
+            blackhole.consume(platformFee);
+            blackhole.consume(price.subtract(platformFee));
+        }
+    }
+
+    @Benchmark
+    public boolean cartTotal() {
+        // 与 OrderServiceImpl 一样按分累加，只在最后创建一个 Money
+        long cents = 0;
+        for (Money price : prices) {
+            cents = Math.addExact(cents, price.getCents());
+        }
+        return balance.isLessThan(Money.ofCents(cents));
+    }
+
+    @Benchmark
+    public boolean legacyCartTotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal price : legacyPrices) {
+            total = total.add(price);
+        }
+        return legacyBalance.compareTo(total) < 0;
+    }
+
+    @Benchmark
+    public void payItems(Blackhole blackhole) {
+        Money running = balance;
+        for (Money price : prices) {
+            Money platformFee = PlatformFee.feeOf(price);
+            blackhole.consume(running);
+            running = running.subtract(price);
+            blackhole.consume(running);
+            blackhole.consume(PlatformFee.instructorIncomeOf(price, platformFee));
+            blackhole.consume(platformFee);
+        }
+    }
+
+    @Benchmark
+    public void legacyPayItems(Blackhole blackhole) {
+        BigDecimal running = legacyBalance;
+        for (BigDecimal price : legacyPrices) {
+            BigDecimal platformFee = price.multiply(LEGACY_FEE_RATE);
+            blackhole.consume(running);
+            running = running.subtract(price);
+            blackhole.consume(running);
+            blackhole.consume(price.subtract(platformFee));
+            blackhole.consume(platformFee);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoneyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,192 @@
+package top.ooyyh.edusphere.benchmark;
+
+import com.baomidou.mybatisplus.extension.spring.MybatisSqlSessionFactoryBean;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.ooyyh.edusphere.mapper.CourseMapper;
+import top.ooyyh.edusphere.mapper.InstructorIncomeMapper;
+import top.ooyyh.edusphere.mapper.PurchaseRecordMapper;
+import top.ooyyh.edusphere.mapper.UserBalanceMapper;
+import top.ooyyh.edusphere.request.PurchaseRequest;
+import top.ooyyh.edusphere.response.PurchaseResponse;
+import top.ooyyh.edusphere.service.impl.CoursePurchaseServiceImpl;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 购买课程的耗时与讲师历史销量的关系，history 为讲师已有的收入记录数：
+ * - purchase：当前的购买流程（一次联表读取 + 写入，讲师收入追加为待结算记录，不读历史收入）
+ * - legacyPurchase：在同一事务中再执行一次旧流程的 SUM(income_amount)，代表旧流程随历史增长的那部分开销
+ * 每次调用后回滚，数据保持不变。
+ *
+ * 使用 H2 内存库（MySQL 兼容模式）执行真实的 Mapper XML。H2 与 MySQL 的绝对耗时没有可比性，
+ * 这里只看随 history 增长的趋势；真实环境下旧流程还多出 5 次数据库往返，差距只会更大。
+ *
+ * 运行：mvn test-compile 后执行本类的 main 方法
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PurchaseBenchmark {
+
+    private static final int INSTRUCTOR_ID = 1;
+    private static final int BUYER_ID = 2;
+    private static final int COURSE_ID = 1;
+
+    @Param({"0", "10000", "100000"})
+    private int history;
+
+    private SqlSession session;
+
+    private CoursePurchaseServiceImpl purchaseService;
+
+    private PurchaseRequest request;
+
+    private PreparedStatement legacyTotalIncome;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // 关闭 MyBatis 的 SQL 调试日志，避免日志输出计入耗时
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:purchase" + history + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection()) {
+            createSchema(connection);
+            seed(connection);
+        }
+
+        MybatisSqlSessionFactoryBean factoryBean = new MybatisSqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setTransactionFactory(new JdbcTransactionFactory());
+        factoryBean.setMapperLocations(new PathMatchingResourcePatternResolver().getResources("classpath:/mapper/**/*.xml"));
+        factoryBean.setTypeHandlersPackage("top.ooyyh.edusphere.handler");
+        SqlSessionFactory sqlSessionFactory = factoryBean.getObject();
+        session = sqlSessionFactory.openSession(false);
+
+        purchaseService = new CoursePurchaseServiceImpl();
+        ReflectionTestUtils.setField(purchaseService, "purchaseRecordMapper", session.getMapper(PurchaseRecordMapper.class));
+        ReflectionTestUtils.setField(purchaseService, "userBalanceMapper", session.getMapper(UserBalanceMapper.class));
+        ReflectionTestUtils.setField(purchaseService, "courseMapper", session.getMapper(CourseMapper.class));
+        ReflectionTestUtils.setField(purchaseService, "instructorIncomeMapper", session.getMapper(InstructorIncomeMapper.class));
+        ReflectionTestUtils.setField(purchaseService, "eventPublisher", (ApplicationEventPublisher) event -> { });
+
+        request = new PurchaseRequest();
+        request.setCourseId(COURSE_ID);
+
+        legacyTotalIncome = session.getConnection().prepareStatement(
+                "SELECT COALESCE(SUM(income_amount), 0) FROM instructor_income WHERE instructor_id = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        legacyTotalIncome.close();
+        session.close();
+    }
+
+    @Benchmark
+    public PurchaseResponse purchase() {
+        try {
+            return purchaseService.purchaseCourse(BUYER_ID, request);
+        } finally {
+            session.rollback(true);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal legacyPurchase() throws SQLException {
+        try {
+            purchaseService.purchaseCourse(BUYER_ID, request);
+            legacyTotalIncome.setInt(1, INSTRUCTOR_ID);
+            try (ResultSet rs = legacyTotalIncome.executeQuery()) {
+                rs.next();
+                return rs.getBigDecimal(1);
+            }
+        } finally {
+            session.rollback(true);
+        }
+    }
+
+    /**
+     * 购买流程涉及的表，字段和索引与 init.sql 一致（省略外键）
+     */
+    private static void createSchema(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TABLE course (id INT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(200), price DECIMAL(10,2),"
+                    + " status VARCHAR(20), instructor_id INT)");
+            st.execute("CREATE TABLE user_balance (id INT AUTO_INCREMENT PRIMARY KEY, user_id INT NOT NULL UNIQUE,"
+                    + " balance DECIMAL(10,2) NOT NULL DEFAULT 0, frozen_balance DECIMAL(10,2) NOT NULL DEFAULT 0,"
+                    + " total_recharge DECIMAL(10,2) NOT NULL DEFAULT 0, total_consumption DECIMAL(10,2) NOT NULL DEFAULT 0,"
+                    + " created_at DATETIME, updated_at DATETIME)");
+            st.execute("CREATE TABLE purchase_record (id INT AUTO_INCREMENT PRIMARY KEY, user_id INT, course_id INT,"
+                    + " instructor_id INT, purchase_price DECIMAL(10,2), balance_before DECIMAL(10,2),"
+                    + " balance_after DECIMAL(10,2), instructor_income DECIMAL(10,2), platform_fee DECIMAL(10,2),"
+                    + " status VARCHAR(20), created_at DATETIME)");
+            st.execute("CREATE UNIQUE INDEX uk_user_course ON purchase_record (user_id, course_id)");
+            st.execute("CREATE TABLE instructor_income (id INT AUTO_INCREMENT PRIMARY KEY, instructor_id INT,"
+                    + " course_id INT, purchase_record_id INT, income_amount DECIMAL(10,2),"
+                    + " total_income DECIMAL(10,2) NOT NULL DEFAULT 0, settlement_id INT, created_at DATETIME)");
+            st.execute("CREATE INDEX idx_instructor_settlement ON instructor_income (instructor_id, settlement_id)");
+            st.execute("CREATE INDEX idx_settlement_id ON instructor_income (settlement_id)");
+            st.execute("CREATE TABLE instructor_ledger (instructor_id INT PRIMARY KEY,"
+                    + " total_income DECIMAL(12,2) NOT NULL DEFAULT 0, sale_count INT NOT NULL DEFAULT 0,"
+                    + " updated_at DATETIME DEFAULT CURRENT_TIMESTAMP)");
+            st.execute("CREATE TABLE user_course (id INT AUTO_INCREMENT PRIMARY KEY, user_id INT, course_id INT,"
+                    + " purchase_price DECIMAL(10,2), purchase_time DATETIME, status INT, created_at DATETIME)");
+        }
+    }
+
+    /**
+     * 一门课程、一个余额充足的买家，以及讲师的 history 条历史收入记录和对应的台账
+     */
+    private void seed(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("INSERT INTO course (id, title, price, status, instructor_id) VALUES ("
+                    + COURSE_ID + ", 'Benchmark', 99.00, 'published', " + INSTRUCTOR_ID + ")");
+            st.execute("INSERT INTO user_balance (user_id, balance) VALUES (" + BUYER_ID + ", 99999999.00)");
+            st.execute("INSERT INTO user_balance (user_id, balance) VALUES (" + INSTRUCTOR_ID + ", 0)");
+            st.execute("INSERT INTO instructor_income (instructor_id, course_id, purchase_record_id, income_amount, settlement_id, created_at)"
+                    + " SELECT " + INSTRUCTOR_ID + ", " + COURSE_ID + ", x, 94.05, 1, NOW() FROM SYSTEM_RANGE(1, " + history + ")");
+            st.execute("INSERT INTO instructor_ledger (instructor_id, total_income, sale_count)"
+                    + " SELECT " + INSTRUCTOR_ID + ", COALESCE(SUM(income_amount), 0), COUNT(*) FROM instructor_income");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PurchaseBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package top.ooyyh.edusphere.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import top.ooyyh.edusphere.cache.RateLimiter;
+import top.ooyyh.edusphere.config.RateLimitConfig;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流器单次判断的开销，8 个线程并发：
+ * - sameClient：所有线程争用同一个令牌桶（最坏情况，CAS 冲突最多）
+ * - manyClients：线程随机访问 1 万个客户端的令牌桶（模拟真实流量，含缓存查找）
+ *
+ * 运行：mvn test-compile 后执行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10000;
+
+    private RateLimiter limiter;
+
+    private String[] clientKeys;
+
+    @Setup
+    public void setUp() {
+        RateLimitConfig config = new RateLimitConfig();
+        RateLimitConfig.Limit limit = new RateLimitConfig.Limit();
+        limit.setCapacity(100);
+        limit.setRefillPerSecond(1000);
+        config.getGroups().put("write", limit);
+        limiter = new RateLimiter(config);
+
+        clientKeys = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clientKeys[i] = "u:" + i;
+        }
+    }
+
+    @Benchmark
+    public long sameClient() {
+        return limiter.tryAcquire("write", "ip:10.0.0.1");
+    }
+
+    @Benchmark
+    public long manyClients() {
+        return limiter.tryAcquire("write", clientKeys[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
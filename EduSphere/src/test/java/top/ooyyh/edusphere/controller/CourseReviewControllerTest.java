@@ -0,0 +1,114 @@
+package top.ooyyh.edusphere.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import top.ooyyh.edusphere.request.CourseReviewRequest;
+import top.ooyyh.edusphere.service.CourseReviewService;
+import top.ooyyh.edusphere.utils.Result;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+/**
+ * 评价接口的用户ID只取 JwtInterceptor 解析出的 userId，客户端伪造的 X-User-Id 请求头不起作用
+ */
+@ExtendWith(MockitoExtension.class)
+class CourseReviewControllerTest {
+
+    private static final String REVIEW_JSON = "{\"rating\":5,\"content\":\"讲得很清楚\"}";
+
+    @Mock
+    private CourseReviewService courseReviewService;
+
+    @InjectMocks
+    private CourseReviewController courseReviewController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(courseReviewController).build();
+    }
+
+    @Test
+    void addReviewUsesTokenUserIdAndIgnoresHeader() throws Exception {
+        when(courseReviewService.addCourseReview(any(CourseReviewRequest.class), eq(4)))
+                .thenReturn(Result.success("评价成功"));
+
+        mockMvc.perform(post("/review/course/12")
+                        .requestAttr("userId", 4)
+                        .header("X-User-Id", "99")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REVIEW_JSON))
+                .andExpect(jsonPath("$.code").value(0));
+
+        ArgumentCaptor<CourseReviewRequest> captor = ArgumentCaptor.forClass(CourseReviewRequest.class);
+        verify(courseReviewService).addCourseReview(captor.capture(), eq(4));
+        verify(courseReviewService, never()).addCourseReview(any(CourseReviewRequest.class), eq(99));
+        assertEquals(12, captor.getValue().getCourseId());
+    }
+
+    @Test
+    void updateReviewUsesTokenUserIdAndIgnoresHeader() throws Exception {
+        when(courseReviewService.updateCourseReview(any(CourseReviewRequest.class), eq(4)))
+                .thenReturn(Result.success("更新成功"));
+
+        mockMvc.perform(put("/review/update")
+                        .requestAttr("userId", 4)
+                        .header("X-User-Id", "99")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REVIEW_JSON))
+                .andExpect(jsonPath("$.code").value(0));
+
+        verify(courseReviewService).updateCourseReview(any(CourseReviewRequest.class), eq(4));
+    }
+
+    @Test
+    void headerAloneIsNotALogin() throws Exception {
+        mockMvc.perform(post("/review/course/12")
+                        .header("X-User-Id", "99")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REVIEW_JSON))
+                .andExpect(jsonPath("$.code").value(1));
+        mockMvc.perform(put("/review/update")
+                        .header("X-User-Id", "99")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REVIEW_JSON))
+                .andExpect(jsonPath("$.code").value(1));
+        mockMvc.perform(post("/review/7/like")
+                        .header("X-User-Id", "99"))
+                .andExpect(jsonPath("$.code").value(1));
+
+        verifyNoInteractions(courseReviewService);
+    }
+
+    @Test
+    void likeRequiresTokenUser() throws Exception {
+        when(courseReviewService.likeReview(7)).thenReturn(Result.success("点赞成功"));
+
+        mockMvc.perform(post("/review/7/like")
+                        .requestAttr("userId", 4)
+                        .header("X-User-Id", "99"))
+                .andExpect(jsonPath("$.code").value(0));
+
+        verify(courseReviewService).likeReview(7);
+        verify(courseReviewService, never()).addCourseReview(any(CourseReviewRequest.class), anyInt());
+    }
+}
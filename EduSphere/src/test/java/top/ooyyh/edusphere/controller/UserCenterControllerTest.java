@@ -0,0 +1,96 @@
+package top.ooyyh.edusphere.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import top.ooyyh.edusphere.service.CartService;
+import top.ooyyh.edusphere.service.OrderService;
+import top.ooyyh.edusphere.service.UserCourseService;
+import top.ooyyh.edusphere.utils.Result;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 用户中心接口的用户ID只取 JwtInterceptor 解析出的 userId；不经支付直接选课的接口已移除，购买只能走 /purchase/course
+ */
+@ExtendWith(MockitoExtension.class)
+class UserCenterControllerTest {
+
+    @Mock
+    private UserCourseService userCourseService;
+
+    @Mock
+    private CartService cartService;
+
+    @Mock
+    private OrderService orderService;
+
+    @InjectMocks
+    private UserCenterController userCenterController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(userCenterController).build();
+    }
+
+    @Test
+    void purchaseWithoutPaymentIsGone() throws Exception {
+        mockMvc.perform(post("/user/courses/12/purchase")
+                        .requestAttr("userId", 4)
+                        .header("X-User-Id", "99"))
+                .andExpect(status().isNotFound());
+
+        verifyNoInteractions(userCourseService);
+    }
+
+    @Test
+    void cartUsesTokenUserIdAndIgnoresHeader() throws Exception {
+        when(cartService.addToCart(4, 12)).thenReturn(Result.success("已添加到购物车"));
+
+        mockMvc.perform(post("/user/cart/12")
+                        .requestAttr("userId", 4)
+                        .header("X-User-Id", "99"))
+                .andExpect(jsonPath("$.code").value(0));
+
+        verify(cartService).addToCart(4, 12);
+    }
+
+    @Test
+    void ordersUseTokenUserIdAndIgnoreHeader() throws Exception {
+        when(orderService.getUserOrders(4)).thenReturn(Result.success(Collections.emptyList()));
+
+        mockMvc.perform(get("/user/orders")
+                        .requestAttr("userId", 4)
+                        .header("X-User-Id", "99"))
+                .andExpect(jsonPath("$.code").value(0));
+
+        verify(orderService).getUserOrders(4);
+    }
+
+    @Test
+    void headerAloneIsNotALogin() throws Exception {
+        mockMvc.perform(get("/user/courses").header("X-User-Id", "99"))
+                .andExpect(jsonPath("$.code").value(1));
+        mockMvc.perform(get("/user/cart").header("X-User-Id", "99"))
+                .andExpect(jsonPath("$.code").value(1));
+        mockMvc.perform(get("/user/orders").header("X-User-Id", "99"))
+                .andExpect(jsonPath("$.code").value(1));
+
+        verifyNoInteractions(userCourseService, cartService, orderService);
+    }
+}
@@ -0,0 +1,75 @@
+package top.ooyyh.edusphere.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import top.ooyyh.edusphere.entity.Order;
+import top.ooyyh.edusphere.mapper.OrderMapper;
+import top.ooyyh.edusphere.utils.Result;
+import top.ooyyh.edusphere.utils.SnowflakeIdGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+/**
+ * 订单详情的归属校验：订单号按时间递增，可被枚举，只能查到自己的订单
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderServiceImplTest {
+
+    // 与下单时一致的订单号格式：纪元后一天、节点 1、序号 7 的雪花ID，13 位 Crockford Base32
+    private static final String ORDER_NO = SnowflakeIdGenerator.toString(
+            (86_400_000L << (SnowflakeIdGenerator.NODE_BITS + SnowflakeIdGenerator.SEQUENCE_BITS))
+                    | (1L << SnowflakeIdGenerator.SEQUENCE_BITS)
+                    | 7);
+
+    @Mock
+    private OrderMapper orderMapper;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        order = new Order();
+        order.setId(1);
+        order.setOrderNo(ORDER_NO);
+        order.setUserId(4);
+    }
+
+    @Test
+    void ownerCanReadOrder() {
+        when(orderMapper.getOrderByOrderNo(ORDER_NO)).thenReturn(order);
+
+        Result<Order> result = orderService.getOrderByOrderNo(4, ORDER_NO);
+
+        assertEquals(0, result.getCode());
+        assertSame(order, result.getData());
+    }
+
+    @Test
+    void otherUsersOrderIsRefused() {
+        when(orderMapper.getOrderByOrderNo(ORDER_NO)).thenReturn(order);
+
+        Result<Order> result = orderService.getOrderByOrderNo(5, ORDER_NO);
+
+        assertEquals(1, result.getCode());
+        assertEquals("订单不存在", result.getMsg());
+        assertNull(result.getData());
+    }
+
+    @Test
+    void missingOrderIsReportedTheSameWay() {
+        Result<Order> result = orderService.getOrderByOrderNo(4, "0");
+
+        assertEquals(1, result.getCode());
+        assertEquals("订单不存在", result.getMsg());
+    }
+}
@@ -0,0 +1,90 @@
+package top.ooyyh.edusphere.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 条目不早于到期时间触发、最多晚一格；超出第 0 层范围的条目逐层下降；已到期的条目不加入
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MS = 10;
+    private static final int WHEEL_SIZE = 8;
+    private static final long START = 1_000_003;
+
+    @Test
+    void entriesFireWithinOneTickAfterDeadline() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, START);
+        Random random = new Random(42);
+        // 第 0 层一圈 80ms，第 1 层 640ms，第 2 层 5120ms，最长 20s 的到期时间会用到第 3 层
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            long deadline = START + 1 + random.nextInt(20_000);
+            deadlines.put(i, deadline);
+            assertTrue(wheel.add(i, deadline));
+        }
+        assertEquals(2000, wheel.size());
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        for (long now = START; now <= START + 20_000 + TICK_MS; now++) {
+            long current = now;
+            wheel.advance(now, item -> firedAt.put(item, current));
+        }
+
+        assertEquals(0, wheel.size());
+        assertEquals(deadlines.size(), firedAt.size());
+        for (Map.Entry<Integer, Long> entry : deadlines.entrySet()) {
+            long fired = firedAt.get(entry.getKey());
+            assertTrue(fired >= entry.getValue(), "条目 " + entry.getKey() + " 提前触发");
+            assertTrue(fired <= entry.getValue() + TICK_MS, "条目 " + entry.getKey() + " 晚了超过一格");
+        }
+    }
+
+    @Test
+    void entriesOnHigherLevelsCascadeDown() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, START);
+        // 分别落在第 1、2、3 层
+        wheel.add("level1", START + 500);
+        wheel.add("level2", START + 3_000);
+        wheel.add("level3", START + 12_345);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(START + 499, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advance(START + 500 + TICK_MS, fired::add);
+        assertEquals(1, fired.size());
+        assertEquals("level1", fired.get(0));
+
+        wheel.advance(START + 2_999, fired::add);
+        assertEquals(1, fired.size());
+        wheel.advance(START + 12_344, fired::add);
+        assertEquals(2, fired.size());
+        assertEquals("level2", fired.get(1));
+
+        // 一次推进很长的时间，高层条目同样逐层下降后触发
+        wheel.advance(START + 100_000, fired::add);
+        assertEquals(3, fired.size());
+        assertEquals("level3", fired.get(2));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlineIsNotAdded() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, START);
+        wheel.advance(START + 1_000, item -> { });
+
+        assertFalse(wheel.add("past", START + 500));
+        assertFalse(wheel.add("now", START + 1_000 - (START + 1_000) % TICK_MS));
+        assertTrue(wheel.add("future", START + 1_001));
+        assertEquals(1, wheel.size());
+    }
+}
@@ -0,0 +1,89 @@
+package top.ooyyh.edusphere.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 按基点计算的舍入与 BigDecimal 一致，平台手续费与讲师收入相加等于成交价
+ */
+class MoneyTest {
+
+    private static final RoundingMode[] ROUNDING_MODES = {
+            RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+            RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN
+    };
+
+    // 5000 个基点（50%）时奇数分的结果恰好是半分，500 个基点时 10 的倍数分同样如此
+    private static final long[] BASIS_POINTS = {1, 250, 500, 3333, 5000, 9999, 10000, 15000, -500};
+
+    @Test
+    void multiplyBasisPointsMatchesBigDecimal() {
+        for (RoundingMode mode : ROUNDING_MODES) {
+            for (long basisPoints : BASIS_POINTS) {
+                for (long cents = -3000; cents <= 3000; cents++) {
+                    assertMatchesBigDecimal(cents, basisPoints, mode);
+                }
+                assertMatchesBigDecimal(99_999_999L, basisPoints, mode);
+                assertMatchesBigDecimal(-99_999_999L, basisPoints, mode);
+            }
+        }
+    }
+
+    @Test
+    void exactHalfCents() {
+        // 0.10 × 5% = 0.005，0.30 × 5% = 0.015，-0.10 × 5% = -0.005
+        assertEquals("0.01", Money.of("0.10").multiplyBasisPoints(500, RoundingMode.HALF_UP).toString());
+        assertEquals("0.00", Money.of("0.10").multiplyBasisPoints(500, RoundingMode.HALF_DOWN).toString());
+        assertEquals("0.00", Money.of("0.10").multiplyBasisPoints(500, RoundingMode.HALF_EVEN).toString());
+        assertEquals("0.02", Money.of("0.30").multiplyBasisPoints(500, RoundingMode.HALF_EVEN).toString());
+        assertEquals("-0.01", Money.of("-0.10").multiplyBasisPoints(500, RoundingMode.HALF_UP).toString());
+        assertEquals("0.00", Money.of("-0.10").multiplyBasisPoints(500, RoundingMode.CEILING).toString());
+        assertEquals("-0.01", Money.of("-0.10").multiplyBasisPoints(500, RoundingMode.FLOOR).toString());
+    }
+
+    @Test
+    void unnecessaryRoundingOnlyAcceptsExactResults() {
+        assertEquals("5.00", Money.of("100.00").multiplyBasisPoints(500, RoundingMode.UNNECESSARY).toString());
+        assertThrows(ArithmeticException.class,
+                () -> Money.of("0.10").multiplyBasisPoints(500, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    void platformFeeAndIncomeAddUpToPrice() {
+        assertFeeSplit("0.10", "0.01", "0.09");
+        assertFeeSplit("0.01", "0.00", "0.01");
+        assertFeeSplit("99.90", "5.00", "94.90");
+        assertFeeSplit("199.00", "9.95", "189.05");
+
+        for (long cents = 0; cents <= 200_000; cents++) {
+            Money price = Money.ofCents(cents);
+            Money fee = PlatformFee.feeOf(price);
+            assertEquals(price, fee.add(PlatformFee.instructorIncomeOf(price, fee)));
+            assertEquals(BigDecimal.valueOf(cents, 2)
+                            .multiply(BigDecimal.valueOf(PlatformFee.RATE_BASIS_POINTS, 4))
+                            .setScale(2, PlatformFee.ROUNDING),
+                    fee.toBigDecimal());
+        }
+    }
+
+    private static void assertMatchesBigDecimal(long cents, long basisPoints, RoundingMode mode) {
+        BigDecimal expected = BigDecimal.valueOf(cents, 2)
+                .multiply(BigDecimal.valueOf(basisPoints, 4))
+                .setScale(2, mode);
+        Money actual = Money.ofCents(cents).multiplyBasisPoints(basisPoints, mode);
+        assertEquals(expected, actual.toBigDecimal(),
+                () -> Money.ofCents(cents) + " × " + basisPoints + "bp " + mode);
+    }
+
+    private static void assertFeeSplit(String price, String fee, String income) {
+        Money amount = Money.of(price);
+        Money platformFee = PlatformFee.feeOf(amount);
+        assertEquals(fee, platformFee.toString());
+        assertEquals(income, PlatformFee.instructorIncomeOf(amount, platformFee).toString());
+    }
+}
@@ -0,0 +1,129 @@
+package top.ooyyh.edusphere.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ID 唯一且同一节点内严格递增：并发生成、同一毫秒内序号用完、时钟回拨
+ */
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH + 86_400_000L;
+    private static final int SEQUENCE_PER_MILLI = 1 << SnowflakeIdGenerator.SEQUENCE_BITS;
+
+    @Test
+    void concurrentIdsAreUniqueAndIncreasingPerThread() throws Exception {
+        int threads = 8;
+        int perThread = 500_000;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<long[]> task = () -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                };
+                futures.add(executor.submit(task));
+            }
+
+            long[] all = new long[threads * perThread];
+            for (int t = 0; t < threads; t++) {
+                long[] ids = futures.get(t).get();
+                for (int i = 1; i < ids.length; i++) {
+                    assertTrue(ids[i] > ids[i - 1], "线程内ID必须严格递增");
+                }
+                System.arraycopy(ids, 0, all, t * perThread, perThread);
+            }
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertTrue(all[i] != all[i - 1], "ID重复: " + all[i]);
+            }
+            assertEquals(7, SnowflakeIdGenerator.nodeIdOf(all[0]));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void exhaustedSequenceBorrowsNextMillisecond() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, () -> NOW);
+
+        long previous = generator.nextId();
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(previous));
+        for (int i = 1; i < SEQUENCE_PER_MILLI; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertEquals(NOW, SnowflakeIdGenerator.timestampOf(id));
+            previous = id;
+        }
+
+        // 第 4097 个ID：本毫秒序号已用完，借用下一毫秒，序号从 0 开始
+        long borrowed = generator.nextId();
+        assertTrue(borrowed > previous);
+        assertEquals(NOW + 1, SnowflakeIdGenerator.timestampOf(borrowed));
+        assertEquals(3, SnowflakeIdGenerator.nodeIdOf(borrowed));
+        assertEquals(0, borrowed & (SEQUENCE_PER_MILLI - 1));
+        assertEquals(1L, generator.stats().get("aheadOfClockCount"));
+
+        // 时钟仍停在原来的毫秒，之后的ID继续在借用的毫秒内递增
+        long next = generator.nextId();
+        assertEquals(borrowed + 1, next);
+    }
+
+    @Test
+    void clockRollbackKeepsIdsIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 5_000);
+        long during = generator.nextId();
+        assertTrue(during > before);
+        assertEquals(NOW, SnowflakeIdGenerator.timestampOf(during));
+
+        clock.set(NOW + 1);
+        long after = generator.nextId();
+        assertTrue(after > during);
+        assertEquals(NOW + 1, SnowflakeIdGenerator.timestampOf(after));
+    }
+
+    @Test
+    void stringFormKeepsNumericOrder() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1023, clock::get);
+
+        String previous = generator.nextIdString();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 100 == 0) {
+                clock.addAndGet(37);
+            }
+            String id = generator.nextIdString();
+            assertEquals(SnowflakeIdGenerator.STRING_LENGTH, id.length());
+            assertTrue(id.compareTo(previous) > 0, id + " 应排在 " + previous + " 之后");
+            previous = id;
+        }
+    }
+
+    @Test
+    void nodeIdOutOfRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+}
@@ -0,0 +1,59 @@
+package top.ooyyh.edusphere.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GCRA 令牌桶：满桶允许 capacity 个突发请求，之后按 1/rate 的间隔补充，拒绝时返回准确的等待时间
+ */
+class TokenBucketTest {
+
+    private static final long CAPACITY = 5;
+    private static final double RATE = 10;
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void burstOfCapacityIsAllowedThenRejectedWithRetryAfter() {
+        // System.nanoTime 可能为负，起点取负数同样适用
+        for (long start : new long[]{0L, 123_456_789_000L, -987_654_321_000L}) {
+            TokenBucket bucket = new TokenBucket(CAPACITY, RATE, start);
+            for (int i = 0; i < CAPACITY; i++) {
+                assertEquals(0, bucket.tryAcquire(start), "第 " + (i + 1) + " 个请求应被允许");
+            }
+            assertEquals(INTERVAL, bucket.tryAcquire(start));
+
+            // 被拒绝的请求不消耗令牌，时间过去一半时还需等待另一半
+            assertEquals(INTERVAL / 2, bucket.tryAcquire(start + INTERVAL / 2));
+        }
+    }
+
+    @Test
+    void oneTokenIsRefilledAfterOneInterval() {
+        TokenBucket bucket = new TokenBucket(CAPACITY, RATE, 0);
+        for (int i = 0; i < CAPACITY; i++) {
+            bucket.tryAcquire(0);
+        }
+
+        assertEquals(1, bucket.tryAcquire(INTERVAL - 1));
+        assertEquals(0, bucket.tryAcquire(INTERVAL));
+        assertEquals(INTERVAL, bucket.tryAcquire(INTERVAL));
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(CAPACITY, RATE, 0);
+        for (int i = 0; i < CAPACITY; i++) {
+            bucket.tryAcquire(0);
+        }
+
+        long later = TimeUnit.SECONDS.toNanos(60);
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, bucket.tryAcquire(later));
+        }
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+}
@@ -25,7 +25,10 @@ export const api = {
     updateProfile: (data) => request.put('/user/profile', data),
 
     // 修改密码
-    updatePassword: (data) => request.put('/user/password', data)
+    updatePassword: (data) => request.put('/user/password', data),
+
+    // 退出登录
+    logout: () => request.post('/user/logout')
   },
 
   // 课程相关API
@@ -91,7 +94,7 @@ export const api = {
   // 订单相关API
   order: {
     // 创建订单
-    createOrder: (data) => request.post('/order/create', data),
+    createOrder: (data) => request.postIdempotent('/order/create', data),
 
     // 获取订单列表
     getOrders: () => request.get('/order/list'),
@@ -105,8 +108,11 @@ export const api = {
 
   // 评价相关API
   review: {
-    // 获取课程评价
-    getCourseReviews: (courseId) => request.get(`/review/course/${courseId}`),
+    // 获取课程评价（游标分页，params: sortBy/cursor/size）
+    getCourseReviews: (courseId, params) => request.get(`/review/course/${courseId}`, { params }),
+
+    // 获取课程评价统计
+    getReviewSummary: (courseId) => request.get(`/review/course/${courseId}/summary`),
 
     // 添加评价
     addReview: (courseId, data) => request.post(`/review/course/${courseId}`, data)
@@ -118,7 +124,7 @@ export const api = {
     getBalance: () => request.get('/balance/info'),
 
     // 充值
-    recharge: (data) => request.post('/balance/recharge', data),
+    recharge: (data) => request.postIdempotent('/balance/recharge', data),
 
     // 获取充值记录
     getRecords: () => request.get('/balance/records')
@@ -104,6 +104,16 @@ service.interceptors.response.use(
   }
 )
 
+/**
+ * 生成幂等键（Idempotency-Key 请求头）
+ */
+const newIdempotencyKey = () => {
+  if (window.crypto && window.crypto.randomUUID) {
+    return window.crypto.randomUUID()
+  }
+  return `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}${Math.random().toString(36).slice(2)}`
+}
+
 /**
  * 封装请求方法
  */
@@ -130,6 +140,29 @@ const request = {
     return service.post(url, data, config)
   },
 
+  /**
+   * 带幂等键的POST请求（购买、充值、下单等不能重复执行的操作）
+   * 没有收到响应（网络错误、超时）时用同一个幂等键重试一次，服务端只会执行一次
+   * @param {string} url - 请求URL
+   * @param {object} data - 请求体数据
+   * @param {object} config - axios配置
+   * @returns {Promise} 返回Promise对象
+   */
+  async postIdempotent(url, data = {}, config = {}) {
+    const idempotentConfig = {
+      ...config,
+      headers: { ...config.headers, 'Idempotency-Key': newIdempotencyKey() }
+    }
+    try {
+      return await service.post(url, data, idempotentConfig)
+    } catch (error) {
+      if (error && error.request && !error.response) {
+        return service.post(url, data, idempotentConfig)
+      }
+      throw error
+    }
+  },
+
   /**
    * PUT请求
    * @param {string} url - 请求URL
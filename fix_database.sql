@@ -14,6 +14,145 @@ ALTER TABLE `course` MODIFY COLUMN `cover_image` TEXT COMMENT '封面图片URL';
 ALTER TABLE `course_lesson` MODIFY COLUMN `video_url` TEXT COMMENT '视频URL';
 ALTER TABLE `course_lesson` MODIFY COLUMN `document_url` TEXT COMMENT '文档URL';
 
+-- 课程评价分页索引和点赞数（已有 like_count 列时跳过 ADD COLUMN 这一句）
+ALTER TABLE `course_review` ADD COLUMN `like_count` INT(11) NOT NULL DEFAULT 0 COMMENT '点赞数' AFTER `status`;
+-- 同一用户对同一课程只能有一条评价（执行前先清理重复评价）
+ALTER TABLE `course_review`
+  ADD UNIQUE KEY `uk_course_user` (`course_id`, `user_id`),
+  ADD KEY `idx_course_status_created` (`course_id`, `status`, `created_at`),
+  ADD KEY `idx_course_status_likes` (`course_id`, `status`, `like_count`),
+  ADD KEY `idx_course_status_rating` (`course_id`, `status`, `rating`),
+  DROP KEY `idx_course_id`;
+
+-- 课程评价统计表，并从现有评价回填
+CREATE TABLE IF NOT EXISTS `course_review_stats` (
+  `course_id` INT(11) NOT NULL COMMENT '课程ID',
+  `review_count` INT(11) NOT NULL DEFAULT 0 COMMENT '评价数',
+  `rating_sum` INT(11) NOT NULL DEFAULT 0 COMMENT '评分总和',
+  `star_1` INT(11) NOT NULL DEFAULT 0 COMMENT '1星评价数',
+  `star_2` INT(11) NOT NULL DEFAULT 0 COMMENT '2星评价数',
+  `star_3` INT(11) NOT NULL DEFAULT 0 COMMENT '3星评价数',
+  `star_4` INT(11) NOT NULL DEFAULT 0 COMMENT '4星评价数',
+  `star_5` INT(11) NOT NULL DEFAULT 0 COMMENT '5星评价数',
+  `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`course_id`),
+  CONSTRAINT `fk_review_stats_course` FOREIGN KEY (`course_id`) REFERENCES `course` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='课程评价统计表';
+
+REPLACE INTO `course_review_stats` (`course_id`, `review_count`, `rating_sum`, `star_1`, `star_2`, `star_3`, `star_4`, `star_5`)
+SELECT `course_id`, COUNT(*), SUM(`rating`),
+       SUM(`rating` = 1), SUM(`rating` = 2), SUM(`rating` = 3), SUM(`rating` = 4), SUM(`rating` = 5)
+FROM `course_review`
+WHERE `status` = 1
+GROUP BY `course_id`;
+
+-- 课程评分从评价统计同步（之前新增评价不会更新课程评分）
+UPDATE `course` c
+JOIN `course_review_stats` s ON s.`course_id` = c.`id`
+SET c.`rating` = CASE WHEN s.`review_count` > 0 THEN ROUND(s.`rating_sum` / s.`review_count`, 2) ELSE 0 END,
+    c.`rating_count` = s.`review_count`,
+    c.`updated_at` = c.`updated_at`;
+
+-- 讲师收入台账表，并从现有收入记录回填
+CREATE TABLE IF NOT EXISTS `instructor_ledger` (
+  `instructor_id` INT(11) NOT NULL COMMENT '讲师ID',
+  `total_income` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '累计收入',
+  `sale_count` INT(11) NOT NULL DEFAULT 0 COMMENT '销售笔数',
+  `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`instructor_id`),
+  CONSTRAINT `fk_ledger_instructor` FOREIGN KEY (`instructor_id`) REFERENCES `user` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='讲师收入台账表';
+
+REPLACE INTO `instructor_ledger` (`instructor_id`, `total_income`, `sale_count`)
+SELECT `instructor_id`, SUM(`income_amount`), COUNT(*)
+FROM `instructor_income`
+GROUP BY `instructor_id`;
+
+-- 购买记录按 (用户, 课程) 唯一，防止并发或重试时重复购买
+-- 添加前先检查是否已有重复记录，如有需人工退款并删除多余记录后再执行 ALTER
+SELECT `user_id`, `course_id`, COUNT(*) AS `purchase_count`
+FROM `purchase_record`
+GROUP BY `user_id`, `course_id`
+HAVING COUNT(*) > 1;
+
+ALTER TABLE `purchase_record` ADD UNIQUE KEY `uk_user_course` (`user_id`, `course_id`);
+
+-- 讲师收入改为异步批量结算：收入记录增加结算批次，已有收入在此之前都已同步计入余额和台账，归入一个初始批次
+CREATE TABLE IF NOT EXISTS `instructor_settlement` (
+  `id` INT(11) NOT NULL AUTO_INCREMENT COMMENT '结算批次ID',
+  `instructor_count` INT(11) NOT NULL DEFAULT 0 COMMENT '涉及讲师数',
+  `income_count` INT(11) NOT NULL DEFAULT 0 COMMENT '结算收入记录数',
+  `total_amount` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '结算总金额',
+  `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '结算时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='讲师收入结算批次表';
+
+ALTER TABLE `instructor_income`
+  ADD COLUMN `settlement_id` INT(11) DEFAULT NULL COMMENT '结算批次ID，NULL 表示待结算' AFTER `total_income`,
+  ADD KEY `idx_instructor_settlement` (`instructor_id`, `settlement_id`),
+  ADD KEY `idx_settlement_id` (`settlement_id`);
+
+INSERT INTO `instructor_settlement` (`instructor_count`, `income_count`, `total_amount`)
+SELECT COUNT(DISTINCT `instructor_id`), COUNT(*), COALESCE(SUM(`income_amount`), 0)
+FROM `instructor_income`;
+
+UPDATE `instructor_income` SET `settlement_id` = LAST_INSERT_ID() WHERE `settlement_id` IS NULL;
+
+-- 待支付订单冻结余额并自动过期：订单记录冻结金额和过期时间
+ALTER TABLE `order`
+  ADD COLUMN `reserved_amount` DECIMAL(10,2) NOT NULL DEFAULT 0.00 COMMENT '下单时冻结的余额，支付时转为扣款，取消或过期时释放' AFTER `payment_time`,
+  ADD COLUMN `expires_at` DATETIME DEFAULT NULL COMMENT '未支付订单的过期时间' AFTER `reserved_amount`,
+  DROP KEY `idx_status`,
+  ADD KEY `idx_status_expires` (`status`, `expires_at`);
+
+-- 已有的待支付订单没有冻结余额，启动后立即过期取消
+UPDATE `order` SET `expires_at` = NOW() WHERE `status` = 'pending';
+
+-- 按小时、按天的销售汇总表，结算任务按批次增量累加，可由购买记录重建
+CREATE TABLE IF NOT EXISTS `sales_rollup_hourly` (
+  `bucket_start` DATETIME NOT NULL COMMENT '小时起点',
+  `course_id` INT(11) NOT NULL COMMENT '课程ID',
+  `instructor_id` INT(11) NOT NULL COMMENT '讲师ID',
+  `sale_count` INT(11) NOT NULL DEFAULT 0 COMMENT '销售笔数',
+  `gross_amount` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '销售额',
+  `platform_fee` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '平台手续费',
+  `instructor_income` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '讲师收入',
+  PRIMARY KEY (`bucket_start`, `course_id`),
+  KEY `idx_course_bucket` (`course_id`, `bucket_start`),
+  KEY `idx_instructor_bucket` (`instructor_id`, `bucket_start`),
+  CONSTRAINT `fk_rollup_hourly_course` FOREIGN KEY (`course_id`) REFERENCES `course` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='销售汇总表（按小时）';
+
+-- 销售汇总表（按天）
+CREATE TABLE IF NOT EXISTS `sales_rollup_daily` (
+  `bucket_date` DATE NOT NULL COMMENT '日期',
+  `course_id` INT(11) NOT NULL COMMENT '课程ID',
+  `instructor_id` INT(11) NOT NULL COMMENT '讲师ID',
+  `sale_count` INT(11) NOT NULL DEFAULT 0 COMMENT '销售笔数',
+  `gross_amount` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '销售额',
+  `platform_fee` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '平台手续费',
+  `instructor_income` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '讲师收入',
+  PRIMARY KEY (`bucket_date`, `course_id`),
+  KEY `idx_course_bucket` (`course_id`, `bucket_date`),
+  KEY `idx_instructor_bucket` (`instructor_id`, `bucket_date`),
+  CONSTRAINT `fk_rollup_daily_course` FOREIGN KEY (`course_id`) REFERENCES `course` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='销售汇总表（按天）';
+
+-- 已有收入在上面的迁移中都已结算，直接从购买记录回填（之后也可以调用 POST /admin/sales-rollups/rebuild 重建）
+INSERT INTO `sales_rollup_hourly` (`bucket_start`, `course_id`, `instructor_id`, `sale_count`, `gross_amount`, `platform_fee`, `instructor_income`)
+SELECT DATE_FORMAT(pr.`created_at`, '%Y-%m-%d %H:00:00'), pr.`course_id`, MAX(pr.`instructor_id`),
+       COUNT(*), SUM(pr.`purchase_price`), SUM(pr.`platform_fee`), SUM(pr.`instructor_income`)
+FROM `instructor_income` ii
+JOIN `purchase_record` pr ON pr.`id` = ii.`purchase_record_id`
+WHERE ii.`settlement_id` IS NOT NULL
+GROUP BY DATE_FORMAT(pr.`created_at`, '%Y-%m-%d %H:00:00'), pr.`course_id`;
+
+INSERT INTO `sales_rollup_daily` (`bucket_date`, `course_id`, `instructor_id`, `sale_count`, `gross_amount`, `platform_fee`, `instructor_income`)
+SELECT DATE(`bucket_start`), `course_id`, MAX(`instructor_id`),
+       SUM(`sale_count`), SUM(`gross_amount`), SUM(`platform_fee`), SUM(`instructor_income`)
+FROM `sales_rollup_hourly`
+GROUP BY DATE(`bucket_start`), `course_id`;
+
 -- 查看修改结果
 SHOW FULL COLUMNS FROM `user` WHERE Field = 'avatar';
 SHOW FULL COLUMNS FROM `course` WHERE Field = 'cover_image';
@@ -166,16 +166,36 @@ CREATE TABLE `course_review` (
   `rating` INT(11) NOT NULL COMMENT '评分（1-5分）',
   `content` TEXT COMMENT '评价内容',
   `status` TINYINT(1) NOT NULL DEFAULT 1 COMMENT '状态：1-显示，0-隐藏',
+  `like_count` INT(11) NOT NULL DEFAULT 0 COMMENT '点赞数',
   `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
-  KEY `idx_course_id` (`course_id`),
+  UNIQUE KEY `uk_course_user` (`course_id`, `user_id`),
   KEY `idx_user_id` (`user_id`),
   KEY `idx_created_at` (`created_at`),
+  KEY `idx_course_status_created` (`course_id`, `status`, `created_at`),
+  KEY `idx_course_status_likes` (`course_id`, `status`, `like_count`),
+  KEY `idx_course_status_rating` (`course_id`, `status`, `rating`),
   CONSTRAINT `fk_review_course` FOREIGN KEY (`course_id`) REFERENCES `course` (`id`) ON DELETE CASCADE,
   CONSTRAINT `fk_review_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='课程评价表';
 
+-- 课程评价统计表（添加/修改评价时增量更新，只统计显示中的评价）
+DROP TABLE IF EXISTS `course_review_stats`;
+CREATE TABLE `course_review_stats` (
+  `course_id` INT(11) NOT NULL COMMENT '课程ID',
+  `review_count` INT(11) NOT NULL DEFAULT 0 COMMENT '评价数',
+  `rating_sum` INT(11) NOT NULL DEFAULT 0 COMMENT '评分总和',
+  `star_1` INT(11) NOT NULL DEFAULT 0 COMMENT '1星评价数',
+  `star_2` INT(11) NOT NULL DEFAULT 0 COMMENT '2星评价数',
+  `star_3` INT(11) NOT NULL DEFAULT 0 COMMENT '3星评价数',
+  `star_4` INT(11) NOT NULL DEFAULT 0 COMMENT '4星评价数',
+  `star_5` INT(11) NOT NULL DEFAULT 0 COMMENT '5星评价数',
+  `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`course_id`),
+  CONSTRAINT `fk_review_stats_course` FOREIGN KEY (`course_id`) REFERENCES `course` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='课程评价统计表';
+
 -- ======================================
 -- 3. 交易相关表
 -- ======================================
@@ -195,6 +215,7 @@ CREATE TABLE `purchase_record` (
   `status` VARCHAR(20) NOT NULL DEFAULT 'success' COMMENT '状态：success-成功，failed-失败，refunded-已退款',
   `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_user_course` (`user_id`, `course_id`),
   KEY `idx_user_id` (`user_id`),
   KEY `idx_course_id` (`course_id`),
   KEY `idx_instructor_id` (`instructor_id`),
@@ -212,10 +233,12 @@ CREATE TABLE `instructor_income` (
   `course_id` INT(11) NOT NULL COMMENT '课程ID',
   `purchase_record_id` INT(11) NOT NULL COMMENT '购买记录ID',
   `income_amount` DECIMAL(10,2) NOT NULL COMMENT '收入金额',
-  `total_income` DECIMAL(10,2) NOT NULL DEFAULT 0.00 COMMENT '累计收入',
+  `total_income` DECIMAL(10,2) NOT NULL DEFAULT 0.00 COMMENT '累计收入（结算时填写）',
+  `settlement_id` INT(11) DEFAULT NULL COMMENT '结算批次ID，NULL 表示待结算',
   `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   PRIMARY KEY (`id`),
-  KEY `idx_instructor_id` (`instructor_id`),
+  KEY `idx_instructor_settlement` (`instructor_id`, `settlement_id`),
+  KEY `idx_settlement_id` (`settlement_id`),
   KEY `idx_course_id` (`course_id`),
   KEY `idx_purchase_record_id` (`purchase_record_id`),
   CONSTRAINT `fk_income_instructor` FOREIGN KEY (`instructor_id`) REFERENCES `user` (`id`) ON DELETE CASCADE,
@@ -223,6 +246,60 @@ CREATE TABLE `instructor_income` (
   CONSTRAINT `fk_income_purchase` FOREIGN KEY (`purchase_record_id`) REFERENCES `purchase_record` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='讲师收入表';
 
+-- 讲师收入台账表（每位讲师一行，结算时累加，读取累计收入不再对收入明细求和）
+DROP TABLE IF EXISTS `instructor_ledger`;
+CREATE TABLE `instructor_ledger` (
+  `instructor_id` INT(11) NOT NULL COMMENT '讲师ID',
+  `total_income` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '累计收入',
+  `sale_count` INT(11) NOT NULL DEFAULT 0 COMMENT '销售笔数',
+  `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`instructor_id`),
+  CONSTRAINT `fk_ledger_instructor` FOREIGN KEY (`instructor_id`) REFERENCES `user` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='讲师收入台账表';
+
+-- 讲师收入结算批次表（购买时只追加待结算收入，结算任务按批次计入讲师余额和台账）
+DROP TABLE IF EXISTS `instructor_settlement`;
+CREATE TABLE `instructor_settlement` (
+  `id` INT(11) NOT NULL AUTO_INCREMENT COMMENT '结算批次ID',
+  `instructor_count` INT(11) NOT NULL DEFAULT 0 COMMENT '涉及讲师数',
+  `income_count` INT(11) NOT NULL DEFAULT 0 COMMENT '结算收入记录数',
+  `total_amount` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '结算总金额',
+  `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '结算时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='讲师收入结算批次表';
+
+-- 销售汇总表（按小时），结算任务按批次增量累加，可由购买记录重建
+DROP TABLE IF EXISTS `sales_rollup_hourly`;
+CREATE TABLE `sales_rollup_hourly` (
+  `bucket_start` DATETIME NOT NULL COMMENT '小时起点',
+  `course_id` INT(11) NOT NULL COMMENT '课程ID',
+  `instructor_id` INT(11) NOT NULL COMMENT '讲师ID',
+  `sale_count` INT(11) NOT NULL DEFAULT 0 COMMENT '销售笔数',
+  `gross_amount` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '销售额',
+  `platform_fee` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '平台手续费',
+  `instructor_income` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '讲师收入',
+  PRIMARY KEY (`bucket_start`, `course_id`),
+  KEY `idx_course_bucket` (`course_id`, `bucket_start`),
+  KEY `idx_instructor_bucket` (`instructor_id`, `bucket_start`),
+  CONSTRAINT `fk_rollup_hourly_course` FOREIGN KEY (`course_id`) REFERENCES `course` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='销售汇总表（按小时）';
+
+-- 销售汇总表（按天）
+DROP TABLE IF EXISTS `sales_rollup_daily`;
+CREATE TABLE `sales_rollup_daily` (
+  `bucket_date` DATE NOT NULL COMMENT '日期',
+  `course_id` INT(11) NOT NULL COMMENT '课程ID',
+  `instructor_id` INT(11) NOT NULL COMMENT '讲师ID',
+  `sale_count` INT(11) NOT NULL DEFAULT 0 COMMENT '销售笔数',
+  `gross_amount` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '销售额',
+  `platform_fee` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '平台手续费',
+  `instructor_income` DECIMAL(12,2) NOT NULL DEFAULT 0.00 COMMENT '讲师收入',
+  PRIMARY KEY (`bucket_date`, `course_id`),
+  KEY `idx_course_bucket` (`course_id`, `bucket_date`),
+  KEY `idx_instructor_bucket` (`instructor_id`, `bucket_date`),
+  CONSTRAINT `fk_rollup_daily_course` FOREIGN KEY (`course_id`) REFERENCES `course` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='销售汇总表（按天）';
+
 -- 用户课程关联表
 DROP TABLE IF EXISTS `user_course`;
 CREATE TABLE `user_course` (
@@ -266,12 +343,14 @@ CREATE TABLE `order` (
   `status` VARCHAR(20) NOT NULL DEFAULT 'pending' COMMENT '状态：pending-待支付，paid-已支付，cancelled-已取消，refunded-已退款',
   `payment_method` VARCHAR(20) DEFAULT NULL COMMENT '支付方式：balance-余额支付',
   `payment_time` DATETIME DEFAULT NULL COMMENT '支付时间',
+  `reserved_amount` DECIMAL(10,2) NOT NULL DEFAULT 0.00 COMMENT '下单时冻结的余额，支付时转为扣款，取消或过期时释放',
+  `expires_at` DATETIME DEFAULT NULL COMMENT '未支付订单的过期时间',
   `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_order_no` (`order_no`),
   KEY `idx_user_id` (`user_id`),
-  KEY `idx_status` (`status`),
+  KEY `idx_status_expires` (`status`, `expires_at`),
   KEY `idx_created_at` (`created_at`),
   CONSTRAINT `fk_order_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='订单表';